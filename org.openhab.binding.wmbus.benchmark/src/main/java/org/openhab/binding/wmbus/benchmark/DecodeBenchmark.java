@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.wmbus.DecodedFrame;
+import org.openhab.binding.wmbus.RecordType;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.device.techem.TechemDevice;
+import org.openhab.binding.wmbus.device.techem.decoder.CompositeTechemFrameDecoder;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.FrameDecryptor;
+import org.openhab.io.transport.mbus.wireless.KeyMaterial;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+import org.openmuc.jmbus.DataRecord;
+import org.openmuc.jmbus.DecodingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of single steps of frame processing, measured for every telegram of {@link Telegram} corpus - decryption,
+ * decoding of standard records, decoding by Techem decoders and lookup of records by things.
+ *
+ * Decoding starts with raw telegram, as it is received by bridge, so it includes decryption of encrypted frames with
+ * known key. Techem decoders are run for all telegrams, for other manufacturers they measure cost of rejection.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+
+    // record which is not sent by any device of corpus, lookup of it is a miss
+    private static final RecordType MISSING_RECORD = new RecordType(0x07, 0x7F);
+
+    @Param
+    public Telegram telegram;
+
+    private final MapKeyStorage keyStorage = Telegram.keyStorage();
+    private final CompositeTechemFrameDecoder techemDecoder = new CompositeTechemFrameDecoder();
+
+    private byte[] frame;
+    private DeviceAddress address;
+    private WMBusDevice decoded;
+    private RecordType[] recordTypes;
+
+    @Setup
+    public void setUp() throws DecodingException {
+        frame = telegram.getFrame();
+        address = telegram.getAddress();
+
+        decoded = telegram.receive(null);
+        List<DataRecord> records = decoded.getDecodedFrame(keyStorage).getRecords();
+        recordTypes = new RecordType[records.size() + 1];
+        for (int index = 0; index < records.size(); index++) {
+            DataRecord record = records.get(index);
+            recordTypes[index] = new RecordType(record.getDib(), record.getVib());
+        }
+        recordTypes[records.size()] = MISSING_RECORD;
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        Optional<KeyMaterial> key = keyStorage.lookupKeyMaterial(address);
+        if (key.isPresent() && FrameDecryptor.isEncrypted(frame)) {
+            return FrameDecryptor.decrypt(frame, key.get());
+        }
+        return frame;
+    }
+
+    @Benchmark
+    public DecodedFrame decode() throws DecodingException {
+        return telegram.receive(null).getDecodedFrame(keyStorage);
+    }
+
+    @Benchmark
+    public TechemDevice decodeTechem() throws DecodingException {
+        return techemDecoder.decode(telegram.receive(null));
+    }
+
+    @Benchmark
+    public void findRecord(Blackhole blackhole) {
+        for (RecordType recordType : recordTypes) {
+            blackhole.consume(decoded.findRecord(recordType));
+        }
+    }
+
+}
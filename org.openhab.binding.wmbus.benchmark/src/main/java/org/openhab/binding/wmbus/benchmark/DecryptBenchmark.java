@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.FrameDecryptor;
+import org.openhab.io.transport.mbus.wireless.KeyMaterial;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+import org.openmuc.jmbus.DecodingException;
+import org.openmuc.jmbus.VariableDataStructure;
+import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Comparison of two ways to decode frame encrypted in security mode 5 - passing key map to jmbus, which creates and
+ * initializes new cipher for every frame, and decryption of raw frame with key material cached for device, followed by
+ * parsing of plain text frame.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecryptBenchmark {
+
+    private static final byte[] FRAME = HexUtils
+            .hexToBytes("1E442D2C7856341201077A1C0010055A1AC5570E90FE98FCEC821D7F557094");
+    private static final byte[] KEY = HexUtils.hexToBytes("000102030405060708090A0B0C0D0E0F");
+
+    private final MapKeyStorage keyStorage = new MapKeyStorage();
+    private DeviceAddress address;
+
+    @Setup
+    public void setUp() {
+        address = DeviceAddress.of(FRAME, 2);
+        keyStorage.registerKey(address, KEY);
+    }
+
+    @Benchmark
+    public VariableDataStructure jmbusKeyMap() throws DecodingException {
+        VariableDataStructure structure = VirtualWMBusMessageHelper.decode(FRAME, -50, keyStorage.toMap())
+                .getVariableDataResponse();
+        structure.decode();
+        return structure;
+    }
+
+    @Benchmark
+    public VariableDataStructure cachedKeyMaterial() throws DecodingException {
+        KeyMaterial key = keyStorage.lookupKeyMaterial(address).get();
+        VariableDataStructure structure = VirtualWMBusMessageHelper
+                .decode(FrameDecryptor.decrypt(FRAME, key), -50, Collections.emptyMap()).getVariableDataResponse();
+        structure.decode();
+        return structure;
+    }
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.binding.wmbus.handler.WMBusMessageListener;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Comparison of two strategies used by bridge to select thing handlers interested in received frame - scanning of all
+ * registered handlers with address comparison and lookup of handlers indexed by address.
+ *
+ * Both strategies use same collection types as bridge handler, so measured cost is cost of selection alone, without
+ * frame decoding.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerDispatchBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int handlerCount;
+
+    private final List<WMBusMessageListener> listeners = new CopyOnWriteArrayList<>();
+    private final Set<AddressedListener> handlers = Collections.synchronizedSet(new HashSet<>());
+    private final Map<DeviceAddress, List<AddressedListener>> handlerIndex = new ConcurrentHashMap<>();
+
+    private DeviceAddress[] addresses;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        // discovery service and channel type provider are always registered
+        listeners.add(new AddressedListener(null));
+        listeners.add(new AddressedListener(null));
+
+        addresses = new DeviceAddress[handlerCount];
+        for (int index = 0; index < handlerCount; index++) {
+            DeviceAddress address = DeviceAddress.of(0x2423000000000000L + index);
+            AddressedListener handler = new AddressedListener(address);
+
+            addresses[index] = address;
+            handlers.add(handler);
+            handlerIndex.computeIfAbsent(address, key -> new CopyOnWriteArrayList<>()).add(handler);
+        }
+    }
+
+    @Benchmark
+    public void streamFilter(Blackhole blackhole) {
+        // reproduction of dispatch logic used before handler index was introduced, address text was created for
+        // every frame
+        String address = HexUtils.bytesToHex(nextAddress().toByteArray());
+        ArrayList<WMBusMessageListener> receivers = new ArrayList<>(listeners);
+        handlers.stream().filter(h -> address.equals(h.getDeviceAddress()))
+                .collect(Collectors.toCollection(() -> receivers));
+
+        for (WMBusMessageListener receiver : receivers) {
+            receiver.onChangedWMBusDevice(null, null);
+        }
+        blackhole.consume(receivers);
+    }
+
+    @Benchmark
+    public void addressIndex(Blackhole blackhole) {
+        DeviceAddress address = nextAddress();
+        for (WMBusMessageListener receiver : listeners) {
+            receiver.onChangedWMBusDevice(null, null);
+        }
+
+        List<AddressedListener> receivers = handlerIndex.get(address);
+        if (receivers != null) {
+            for (WMBusMessageListener receiver : receivers) {
+                receiver.onChangedWMBusDevice(null, null);
+            }
+        }
+        blackhole.consume(receivers);
+    }
+
+    private DeviceAddress nextAddress() {
+        DeviceAddress address = addresses[cursor];
+        cursor = (cursor + 1) % addresses.length;
+        return address;
+    }
+
+    static class AddressedListener implements WMBusMessageListener {
+
+        private final String deviceAddress;
+        private long calls;
+
+        AddressedListener(DeviceAddress deviceAddress) {
+            this.deviceAddress = deviceAddress == null ? null : deviceAddress.toHexString();
+        }
+
+        String getDeviceAddress() {
+            return deviceAddress;
+        }
+
+        @Override
+        public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            calls++;
+        }
+
+        @Override
+        public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            calls++;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.benchmark;
+
+import java.util.Collections;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+import org.openmuc.jmbus.DecodingException;
+import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
+
+/**
+ * Corpus of telegrams sent by real devices, used as input of benchmarks. It covers vendor specific frames parsed by
+ * binding decoders as well as standard ones parsed by jmbus, with and without encryption.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public enum Telegram {
+
+    TECHEM_HKV("32446850591266506980A0119F23CF07E0169A01680845091A000100000200000000000000000000110B0020361D221F6E9287490000"),
+    TECHEM_WATER("29446850084481637062A0009F255502D036410000030404030303030303020303030303030304020404"),
+    TECHEM_HEAT("36446850180780147143A0009F23880400581B0000000800000000000000000000000000000000000000000001081C60400001001000001F0000"),
+    TECHEM_SMOKE("294468507764866476F0A000DE246F2500586F2500001A000013006BA1007CB2008DC3009ED4000FE500EE0000"),
+    // encrypted with key which is not known, frame stays encrypted after decoding
+    ITRON_SMOKE("2e44972682213893071A7AB80020A56BE69947E41B7346595CCA02F2BF0E62C906B80BD18240811FD4879DA1296D3F"),
+    OMS_MODE_5("1E442D2C7856341201077A1C0010055A1AC5570E90FE98FCEC821D7F557094", "000102030405060708090A0B0C0D0E0F"),
+    GENERIC("1E442D2C7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F");
+
+    /**
+     * Signal strength reported for all telegrams of corpus.
+     */
+    public static final int RSSI = -50;
+
+    private final byte[] frame;
+    private final byte[] key;
+
+    Telegram(String frame) {
+        this(frame, null);
+    }
+
+    Telegram(String frame, String key) {
+        this.frame = HexUtils.hexToBytes(frame);
+        this.key = key == null ? null : HexUtils.hexToBytes(key);
+    }
+
+    /**
+     * Returns copy of telegram, so caller can not damage corpus.
+     *
+     * @return Raw telegram.
+     */
+    public byte[] getFrame() {
+        return frame.clone();
+    }
+
+    public DeviceAddress getAddress() {
+        return DeviceAddress.of(frame, 2);
+    }
+
+    /**
+     * Creates frame in the same way as bridge receiver does, out of fresh copy of telegram. Every call returns new
+     * instance, without any memoized decoding results.
+     *
+     * @param adapter Adapter which received frame, might be null.
+     * @return Received frame.
+     * @throws DecodingException When frame header is malformed.
+     */
+    public WMBusDevice receive(WMBusAdapter adapter) throws DecodingException {
+        return new WMBusDevice(VirtualWMBusMessageHelper.decode(getFrame(), RSSI, Collections.emptyMap()), adapter);
+    }
+
+    /**
+     * Creates key storage which contains keys of all encrypted telegrams of corpus, for which key is known.
+     *
+     * @return Key storage.
+     */
+    public static MapKeyStorage keyStorage() {
+        MapKeyStorage keyStorage = new MapKeyStorage();
+        for (Telegram telegram : values()) {
+            if (telegram.key != null) {
+                keyStorage.registerKey(telegram.getAddress(), telegram.key);
+            }
+        }
+        return keyStorage;
+    }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.handler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.binding.builder.BridgeBuilder;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.types.Command;
+import org.openhab.binding.wmbus.WMBusBindingConstants;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.benchmark.Telegram;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openmuc.jmbus.DecodingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end throughput of bridge, from reception of raw telegram till notification of thing handlers. Telegrams of
+ * whole {@link Telegram} corpus are received in turns by bridge which has given number of thing handlers, each device
+ * of corpus has handler among them.
+ *
+ * Bridge is not initialized, so it has no processing queue and frames are processed by calling thread. Handlers only
+ * read decoded frame, cost of state updates done by real handlers depends on framework and is not measured.
+ * Benchmark lives in handler package, as handlers are normally registered by framework.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessMessageBenchmark {
+
+    private static final Telegram[] TELEGRAMS = Telegram.values();
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int handlerCount;
+
+    private VirtualWMBusBridgeHandler bridge;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        bridge = new VirtualWMBusBridgeHandler(
+                BridgeBuilder.create(WMBusBindingConstants.THING_TYPE_VIRTUAL_BRIDGE, "benchmark").build(),
+                Telegram.keyStorage());
+        // discovery service and channel type provider are always registered
+        bridge.registerWMBusMessageListener(new ReadingListener());
+        bridge.registerWMBusMessageListener(new ReadingListener());
+
+        for (Telegram telegram : TELEGRAMS) {
+            bridge.indexHandler(handler("meter" + telegram.ordinal(), telegram.getAddress()));
+        }
+        for (int index = TELEGRAMS.length; index < handlerCount; index++) {
+            bridge.indexHandler(handler("meter" + index, DeviceAddress.of(0x2423000000000000L + index)));
+        }
+    }
+
+    @Benchmark
+    public void processMessage() throws DecodingException {
+        Telegram telegram = TELEGRAMS[cursor];
+        cursor = (cursor + 1) % TELEGRAMS.length;
+        bridge.processMessage(telegram.receive(bridge));
+    }
+
+    private static ReadingHandler handler(String id, DeviceAddress address) {
+        return new ReadingHandler(ThingBuilder.create(WMBusBindingConstants.THING_TYPE_METER, id).build(), address);
+    }
+
+    static class ReadingListener implements WMBusMessageListener {
+
+        private long records;
+
+        @Override
+        public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            records += device.getDecodedFrame().getRecords().size();
+        }
+
+        @Override
+        public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            records += device.getDecodedFrame().getRecords().size();
+        }
+    }
+
+    static class ReadingHandler extends WMBusDeviceHandler<WMBusDevice> {
+
+        private long records;
+
+        ReadingHandler(Thing thing, DeviceAddress address) {
+            super(thing);
+            this.address = address;
+        }
+
+        @Override
+        public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            records += device.getDecodedFrame().getRecords().size();
+        }
+
+        @Override
+        public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            records += device.getDecodedFrame().getRecords().size();
+        }
+
+        @Override
+        public void handleCommand(ChannelUID channelUID, Command command) {
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.binding.builder.BridgeBuilder;
+import org.openhab.binding.wmbus.WMBusBindingConstants;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.benchmark.Telegram;
+import org.openhab.binding.wmbus.handler.VirtualWMBusBridgeHandler;
+import org.openhab.binding.wmbus.internal.units.CompositeUnitRegistry;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+import org.openmuc.jmbus.DataRecord;
+import org.openmuc.jmbus.DecodingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of channel type calculation done by {@link WMBusChannelTypeProvider} for every frame - check of already known
+ * record layout, which is the usual case, calculation of channel types for layout seen for the first time and
+ * computation of channel type identifiers alone. Benchmark lives in internal package, as unit registry of provider is
+ * normally injected by framework.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChannelTypeBenchmark {
+
+    @Param
+    public Telegram telegram;
+
+    private final CompositeUnitRegistry unitRegistry = new CompositeUnitRegistry();
+    private final WMBusChannelTypeProvider provider = provider();
+
+    private VirtualWMBusBridgeHandler adapter;
+    private WMBusDevice device;
+    private List<DataRecord> records;
+
+    @Setup
+    public void setUp() throws DecodingException {
+        adapter = new VirtualWMBusBridgeHandler(
+                BridgeBuilder.create(WMBusBindingConstants.THING_TYPE_VIRTUAL_BRIDGE, "benchmark").build(),
+                new MapKeyStorage());
+        device = telegram.receive(adapter);
+        records = device.getDecodedFrame(Telegram.keyStorage()).getRecords();
+        // makes layout of telegram known
+        provider.onChangedWMBusDevice(adapter, device);
+    }
+
+    @Benchmark
+    public void knownLayout() {
+        provider.onChangedWMBusDevice(adapter, device);
+    }
+
+    @Benchmark
+    public WMBusChannelTypeProvider newLayout() {
+        WMBusChannelTypeProvider provider = provider();
+        provider.onChangedWMBusDevice(adapter, device);
+        return provider;
+    }
+
+    @Benchmark
+    public void channelTypeUid(Blackhole blackhole) {
+        for (DataRecord record : records) {
+            blackhole.consume(WMBusChannelTypeProvider.getChannelType(record));
+        }
+    }
+
+    private WMBusChannelTypeProvider provider() {
+        WMBusChannelTypeProvider provider = new WMBusChannelTypeProvider();
+        provider.setUnitRegistry(unitRegistry);
+        return provider;
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openmuc.jmbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Comparison of cost of decoding single data record with VIF resolved through lookup table and with nested decoding
+ * methods of {@link DataRecord}, with values decoded eagerly and when they are accessed. Lazy variants are measured
+ * both for records which are not linked to any channel and for these which are. Benchmark lives in jmbus package, as
+ * record decoding is not part of public api.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordDecodeBenchmark {
+
+    // records met in typical frames of heat, water and heat cost allocator meters
+    private static final byte[][] RECORDS = { //
+            HexUtils.hexToBytes("0C1378563412"), // volume
+            HexUtils.hexToBytes("0C0678563412"), // energy
+            HexUtils.hexToBytes("0B3B563412"), // volume flow
+            HexUtils.hexToBytes("0A5A4502"), // flow temperature
+            HexUtils.hexToBytes("0A5E3402"), // return temperature
+            HexUtils.hexToBytes("426CBF2C"), // date
+            HexUtils.hexToBytes("046D2A0FB921"), // date and time
+            HexUtils.hexToBytes("0B6E123400"), // heat cost allocation
+            HexUtils.hexToBytes("02FD170000"), // error flags
+            HexUtils.hexToBytes("04FD484D230000"), // voltage
+            HexUtils.hexToBytes("0BFB1A250000"), // relative humidity
+            HexUtils.hexToBytes("8C101378563412"), // volume of tariff 1
+    };
+
+    @Param({ "false", "true" })
+    public boolean legacy;
+
+    @Param({ "false", "true" })
+    public boolean lazy;
+
+    @Benchmark
+    @OperationsPerInvocation(12)
+    public void decode(Blackhole blackhole) throws DecodingException {
+        for (byte[] record : RECORDS) {
+            DataRecord dataRecord = new DataRecord();
+            blackhole.consume(dataRecord.decode(record, 0, record.length, legacy, lazy));
+            blackhole.consume(dataRecord);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(12)
+    public void decodeAndRead(Blackhole blackhole) throws DecodingException {
+        for (byte[] record : RECORDS) {
+            DataRecord dataRecord = new DataRecord();
+            blackhole.consume(dataRecord.decode(record, 0, record.length, legacy, lazy));
+            blackhole.consume(dataRecord.getScaledDouble());
+        }
+    }
+
+}
@@ -47,7 +47,8 @@ import com.google.common.collect.EvictingQueue;
  *
  * @author Łuaksz Dywicki - Initial contribution.
  */
-@Component
+// collector is not bound in size, keep it away from the thread which feeds discovery
+@Component(property = WMBusMessageListener.ASYNC_PROPERTY + "=true")
 public class CollectorServlet extends HttpServlet implements WMBusMessageListener {
 
     private HttpService httpService;
@@ -143,7 +144,8 @@ public class CollectorServlet extends HttpServlet implements WMBusMessageListene
             entries.put(address, EvictingQueue.create(50));
         }
 
-        Entry entry = new Entry(System.currentTimeMillis(), device.getOriginalMessage().asBlob());
+        // frames are kept for long, so they are copied out of received one
+        Entry entry = new Entry(System.currentTimeMillis(), device.getFrame().toByteArray());
         entries.get(address).add(entry);
     }
 
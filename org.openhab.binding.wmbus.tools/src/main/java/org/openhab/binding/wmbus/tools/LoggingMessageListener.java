@@ -8,7 +8,6 @@
  */
 package org.openhab.binding.wmbus.tools;
 
-import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openmuc.jmbus.wireless.WMBusMessage;
 import org.openhab.binding.wmbus.handler.WMBusAdapter;
@@ -38,7 +37,7 @@ public class LoggingMessageListener implements WMBusMessageListener {
     }
 
     private void log(WMBusDevice device) {
-        logger.debug(HexUtils.bytesToHex(device.getOriginalMessage().asBlob()));
+        logger.debug("{}", device.getFrame());
     }
 
 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reader of capture files, which turns them into lazy stream of frames, so captures of any size can be replayed.
+ *
+ * Each line of capture holds one frame in hex representation, spaces within frame are ignored. Frame might be
+ * preceded by time of reception, given either as epoch milliseconds or as local date and time
+ * (<code>2019-03-01 12:00:00.123</code>), separated from frame by whitespace, semicolon or comma. Lines of log file
+ * written with pattern recommended for <code>wmbus.log</code> are accepted too - then everything after last
+ * <code> - </code> is considered a frame. Lines without time of reception (such as content of
+ * <code>wmbustools.log</code>) are supported, but they are replayed without delay. Blank lines and lines starting
+ * with <code>#</code> are skipped.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class CaptureReader {
+
+    private static final Pattern EPOCH = Pattern.compile("^(\\d{13})[\\s;,]+(.*)$");
+    private static final Pattern DATE_TIME = Pattern
+            .compile("^(\\d{4}-\\d{2}-\\d{2}[ T]\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d{1,9})?)[\\s;,]+(.*)$");
+    private static final String LOG_SEPARATOR = " - ";
+
+    private final ZoneId zone;
+
+    public CaptureReader() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates reader of captures.
+     *
+     * @param zone Time zone of local date and time written in capture.
+     */
+    public CaptureReader(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Opens capture file, files with <code>.gz</code> extension are decompressed on the fly. Returned stream must be
+     * closed in order to release file.
+     *
+     * @param path Capture file.
+     * @return Frames of capture.
+     * @throws IOException When file can not be opened.
+     */
+    public Stream<CapturedFrame> read(Path path) throws IOException {
+        InputStream stream = Files.newInputStream(path);
+        try {
+            if (path.getFileName().toString().endsWith(".gz")) {
+                stream = new GZIPInputStream(stream);
+            }
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        return read(reader).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads frames from given reader. Lines are read only when stream is consumed, read failures are reported as
+     * {@link UncheckedIOException}.
+     *
+     * @param reader Reader of capture.
+     * @return Frames of capture.
+     */
+    public Stream<CapturedFrame> read(BufferedReader reader) {
+        Iterator<CapturedFrame> iterator = new Iterator<CapturedFrame>() {
+            private long lineNumber;
+            private CapturedFrame next;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (next == null) {
+                        String line = reader.readLine();
+                        if (line == null) {
+                            return false;
+                        }
+                        next = parse(++lineNumber, line);
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public CapturedFrame next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CapturedFrame frame = next;
+                next = null;
+                return frame;
+            }
+        };
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Parses single line of capture.
+     *
+     * @param lineNumber Number of line, starting from 1.
+     * @param line Line of capture.
+     * @return Captured frame or null if line does not contain any.
+     */
+    public CapturedFrame parse(long lineNumber, String line) {
+        String value = line.trim();
+        if (value.isEmpty() || value.startsWith("#")) {
+            return null;
+        }
+
+        long timestamp = CapturedFrame.NO_TIMESTAMP;
+        Matcher matcher = EPOCH.matcher(value);
+        if (matcher.matches()) {
+            timestamp = Long.parseLong(matcher.group(1));
+            value = matcher.group(2);
+        } else if ((matcher = DATE_TIME.matcher(value)).matches()) {
+            String dateTime = matcher.group(1).replace(' ', 'T').replace(',', '.');
+            timestamp = LocalDateTime.parse(dateTime).atZone(zone).toInstant().toEpochMilli();
+            value = matcher.group(2);
+            int separator = value.lastIndexOf(LOG_SEPARATOR);
+            if (separator != -1) {
+                value = value.substring(separator + LOG_SEPARATOR.length());
+            }
+        }
+
+        value = value.replace(" ", "");
+        if (value.isEmpty()) {
+            return null;
+        }
+        return new CapturedFrame(lineNumber, timestamp, value);
+    }
+
+}
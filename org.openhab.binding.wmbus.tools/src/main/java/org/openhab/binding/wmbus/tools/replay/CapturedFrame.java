@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+/**
+ * Single line of capture file - raw frame in hex representation together with time when it was received.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class CapturedFrame {
+
+    /**
+     * Marker of frame which was captured without time of reception.
+     */
+    public static final long NO_TIMESTAMP = -1;
+
+    private final long lineNumber;
+    private final long timestamp;
+    private final String frame;
+
+    public CapturedFrame(long lineNumber, long timestamp, String frame) {
+        this.lineNumber = lineNumber;
+        this.timestamp = timestamp;
+        this.frame = frame;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Time of reception as epoch milliseconds, {@link #NO_TIMESTAMP} if capture does not contain it.
+     *
+     * @return Time of reception.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean hasTimestamp() {
+        return timestamp != NO_TIMESTAMP;
+    }
+
+    /**
+     * Frame as it was written to capture, before any processing.
+     *
+     * @return Frame in hex representation.
+     */
+    public String getFrame() {
+        return frame;
+    }
+
+    @Override
+    public String toString() {
+        return "CapturedFrame [lineNumber=" + lineNumber + ", timestamp=" + timestamp + ", frame=" + frame + "]";
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+/**
+ * Histogram of latencies which takes constant amount of memory regardless of number of recorded values, so
+ * percentiles of millions of frames can be computed.
+ *
+ * Values below 64 are recorded exactly, larger ones fall into one of 32 buckets of each power of two, so reported
+ * percentile is at most ~3% higher than exact one. Minimum, maximum and mean are exact. Histogram is not thread safe.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS];
+    private long count;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records single value.
+     *
+     * @param value Latency, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long latency = Math.max(0, value);
+        counts[index(latency)]++;
+        count++;
+        total += latency;
+        min = Math.min(min, latency);
+        max = Math.max(max, latency);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns value below which given percentage of recorded values falls.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Highest value of bucket which contains percentile, never more than maximum recorded value.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, got " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(max, highestValue(index));
+            }
+        }
+        return max;
+    }
+
+    static int index(long value) {
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1);
+        return (int) (shift * SUB_BUCKETS + (value >>> shift));
+    }
+
+    static long highestValue(int index) {
+        int shift = Math.max(0, index / SUB_BUCKETS - 1);
+        long base = index - shift * SUB_BUCKETS;
+        return ((base + 1) << shift) - 1;
+    }
+
+}
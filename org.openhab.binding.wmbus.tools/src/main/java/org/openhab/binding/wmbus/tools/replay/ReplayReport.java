@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of single replay. Times are given in nanoseconds.
+ *
+ * Latency is time spent on decoding of one frame, handing it over to adapter and its dispatch to listeners and things,
+ * see {@link Replayer}. Lag is time by which frame was handed over later than it should be, according to capture timing
+ * and replay speed - growing lag means that adapter does not keep up with requested speed.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class ReplayReport {
+
+    private final long frames;
+    private final long failed;
+    private final long undispatched;
+    private final long elapsedTime;
+    private final long maxLag;
+    private final LatencyHistogram latency;
+
+    ReplayReport(long frames, long failed, long undispatched, long elapsedTime, long maxLag,
+            LatencyHistogram latency) {
+        this.frames = frames;
+        this.failed = failed;
+        this.undispatched = undispatched;
+        this.elapsedTime = elapsedTime;
+        this.maxLag = maxLag;
+        this.latency = latency;
+    }
+
+    /**
+     * Number of frames read from capture.
+     *
+     * @return Number of frames.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Number of frames which were handed over to adapter.
+     *
+     * @return Number of processed frames.
+     */
+    public long getProcessed() {
+        return frames - failed;
+    }
+
+    /**
+     * Number of frames which could not be processed or decoded.
+     *
+     * @return Number of failed frames.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Number of frames handed over to adapter which were never dispatched, ie. because adapter dropped them as
+     * duplicates or coalesced them, or because they were still queued when replay ended. Such frames are not covered
+     * by latency.
+     *
+     * @return Number of undispatched frames.
+     */
+    public long getUndispatched() {
+        return undispatched;
+    }
+
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Number of frames handed over to adapter per second of replay.
+     *
+     * @return Throughput.
+     */
+    public double getThroughput() {
+        return elapsedTime == 0 ? 0 : getProcessed() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedTime;
+    }
+
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    public double getMeanLatency() {
+        return latency.getMean();
+    }
+
+    public long getMaxLatency() {
+        return latency.getMax();
+    }
+
+    /**
+     * Returns latency percentile of processed frames.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Latency.
+     */
+    public long getLatency(double percentile) {
+        return latency.getPercentile(percentile);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Replayed %d frames (%d failed, %d undispatched) in %.3f s, throughput %.1f frames/s, "
+                        + "max lag %.3f ms, latency [us] mean %.1f, p50 %d, p90 %d, p99 %d, p99.9 %d, max %d",
+                frames, failed, undispatched, elapsedTime / 1e9, getThroughput(), maxLag / 1e6, getMeanLatency() / 1e3,
+                micros(getLatency(50)), micros(getLatency(90)), micros(getLatency(99)), micros(getLatency(99.9)),
+                micros(getMaxLatency()));
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.handler.VirtualWMBusBridgeHandler;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.binding.wmbus.handler.WMBusDispatchingAdapter;
+import org.openhab.binding.wmbus.tools.Processor;
+import org.openhab.binding.wmbus.tools.processor.Processors;
+import org.openmuc.jmbus.DecodingException;
+import org.openmuc.jmbus.SecondaryAddress;
+import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
+import org.openmuc.jmbus.wireless.WMBusMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays captured frames against adapter, as if they were received by radio device. It does not depend on http
+ * service nor on framework, so it can be used to drive i.e. {@link VirtualWMBusBridgeHandler} from test harness.
+ *
+ * Each frame goes through given chain of processors, same as one used by injector servlet, and signal strength is
+ * taken from processing context. Frames which carry time of reception are handed over with their original spacing,
+ * divided by replay speed. Failure of single frame does not stop replay, it is counted and reported.
+ *
+ * Latency of frame is measured from moment it is handed over until adapter reports that it was dispatched to listeners
+ * and things, see {@link WMBusDispatchingAdapter}, so it covers time spent in queue of bridge which runs ingest
+ * pipeline. Once all frames are handed over, replay waits for their dispatch, frames which bridge dropped before
+ * dispatch (duplicates, frames coalesced by throttle) are reported as undispatched. Adapters which can not report
+ * dispatch are measured around {@link WMBusAdapter#processMessage(WMBusDevice)}.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class Replayer {
+
+    /**
+     * Speed at which frames are replayed without any delay.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    /**
+     * Signal strength used when processors do not determine it.
+     */
+    public static final int DEFAULT_RSSI = 100;
+
+    // replay gives up waiting for dispatch of remaining frames when none of them completes within this time
+    private static final long DISPATCH_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+    private static final long DISPATCH_POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Logger logger = LoggerFactory.getLogger(Replayer.class);
+
+    private final WMBusAdapter adapter;
+    private final List<Processor<String>> processors;
+    private final double speed;
+    private final Map<SecondaryAddress, byte[]> keys;
+    private final LongSupplier clock;
+    private final Sleeper sleeper;
+
+    public Replayer(WMBusAdapter adapter, List<Processor<String>> processors, double speed) {
+        this(adapter, processors, speed, Collections.emptyMap());
+    }
+
+    /**
+     * Creates replayer.
+     *
+     * @param adapter Adapter which receives frames.
+     * @param processors Processors applied to each frame before decoding.
+     * @param speed Replay speed, 1 keeps original timing, {@link #MAX_SPEED} disables delays.
+     * @param keys Keys used to decrypt frames.
+     */
+    public Replayer(WMBusAdapter adapter, List<Processor<String>> processors, double speed,
+            Map<SecondaryAddress, byte[]> keys) {
+        this(adapter, processors, speed, keys, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    Replayer(WMBusAdapter adapter, List<Processor<String>> processors, double speed,
+            Map<SecondaryAddress, byte[]> keys, LongSupplier clock, Sleeper sleeper) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive, got " + speed);
+        }
+
+        this.adapter = adapter;
+        this.processors = processors;
+        this.speed = speed;
+        this.keys = keys;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Replays capture file, see {@link CaptureReader} for supported formats.
+     *
+     * @param capture Capture file.
+     * @return Replay report.
+     * @throws IOException When capture can not be read.
+     */
+    public ReplayReport replay(Path capture) throws IOException {
+        try (Stream<CapturedFrame> frames = new CaptureReader().read(capture)) {
+            return replay(frames);
+        }
+    }
+
+    /**
+     * Replays frames in order of stream. Replay stops early when calling thread gets interrupted, then report covers
+     * frames replayed so far.
+     *
+     * @param frames Captured frames.
+     * @return Replay report.
+     */
+    public ReplayReport replay(Stream<CapturedFrame> frames) {
+        LatencyHistogram latency = new LatencyHistogram();
+        long count = 0;
+        long failed = 0;
+        long maxLag = 0;
+
+        long start = clock.getAsLong();
+        long firstTimestamp = CapturedFrame.NO_TIMESTAMP;
+        long origin = start;
+
+        // frames handed over to adapter and time at which it happened, until adapter reports their dispatch
+        Map<WMBusDevice, Long> pending = new ConcurrentHashMap<>();
+        WMBusDispatchingAdapter dispatcher = adapter instanceof WMBusDispatchingAdapter
+                ? (WMBusDispatchingAdapter) adapter
+                : null;
+        if (dispatcher != null) {
+            dispatcher.setDispatchCallback(device -> {
+                long end = clock.getAsLong();
+                synchronized (latency) {
+                    Long begin = pending.remove(device);
+                    if (begin != null) {
+                        latency.record(end - begin);
+                    }
+                }
+            });
+        }
+
+        Iterator<CapturedFrame> iterator = frames.iterator();
+        while (iterator.hasNext()) {
+            CapturedFrame frame = iterator.next();
+
+            if (speed != MAX_SPEED && frame.hasTimestamp()) {
+                if (firstTimestamp == CapturedFrame.NO_TIMESTAMP) {
+                    firstTimestamp = frame.getTimestamp();
+                    origin = clock.getAsLong();
+                }
+
+                long offset = TimeUnit.MILLISECONDS.toNanos(frame.getTimestamp() - firstTimestamp);
+                long due = origin + (long) (offset / speed);
+                long delay = due - clock.getAsLong();
+                if (delay > 0) {
+                    try {
+                        sleeper.sleep(delay);
+                    } catch (InterruptedException e) {
+                        logger.debug("Replay interrupted after {} frames", count);
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                maxLag = Math.max(maxLag, clock.getAsLong() - due);
+            }
+
+            count++;
+            long begin = clock.getAsLong();
+            WMBusDevice device = null;
+            try {
+                device = decode(frame);
+                if (dispatcher != null) {
+                    pending.put(device, begin);
+                    adapter.processMessage(device);
+                } else {
+                    adapter.processMessage(device);
+                    latency.record(clock.getAsLong() - begin);
+                }
+            } catch (DecodingException | RuntimeException e) {
+                failed++;
+                if (device != null) {
+                    pending.remove(device);
+                }
+                logger.debug("Could not replay frame from line {}: {}", frame.getLineNumber(), frame.getFrame(), e);
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                logger.debug("Replay interrupted after {} frames", count);
+                break;
+            }
+        }
+
+        long undispatched = 0;
+        if (dispatcher != null) {
+            awaitDispatch(pending);
+            dispatcher.setDispatchCallback(null);
+            synchronized (latency) {
+                // frames dispatched from now on are not recorded anymore
+                undispatched = pending.size();
+                pending.clear();
+            }
+        }
+
+        ReplayReport report = new ReplayReport(count, failed, undispatched, clock.getAsLong() - start, maxLag,
+                latency);
+        logger.info("{}", report);
+        return report;
+    }
+
+    private void awaitDispatch(Map<WMBusDevice, Long> pending) {
+        int remaining = pending.size();
+        long progress = clock.getAsLong();
+        while (!pending.isEmpty()) {
+            if (pending.size() != remaining) {
+                remaining = pending.size();
+                progress = clock.getAsLong();
+            } else if (clock.getAsLong() - progress >= DISPATCH_TIMEOUT) {
+                logger.debug("Frames were not dispatched within {} ms, {} frames remain",
+                        TimeUnit.NANOSECONDS.toMillis(DISPATCH_TIMEOUT), remaining);
+                return;
+            }
+
+            try {
+                sleeper.sleep(DISPATCH_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private WMBusDevice decode(CapturedFrame frame) throws DecodingException {
+        Map<String, Object> context = new HashMap<>();
+        String value = Processors.process(frame.getFrame(), context, processors);
+        int rssi = (int) context.getOrDefault(Processor.RSSI, DEFAULT_RSSI);
+
+        WMBusMessage message = VirtualWMBusMessageHelper.decode(HexUtils.hexToBytes(value), rssi, keys);
+        return new WMBusDevice(message, adapter);
+    }
+
+    /**
+     * Strategy of waiting for next frame, allows to replay without real delays in tests.
+     */
+    interface Sleeper {
+
+        void sleep(long nanos) throws InterruptedException;
+
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * Test of capture formats accepted by {@link CaptureReader}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class CaptureReaderTest {
+
+    private static final String FRAME = "1E442D2C7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F";
+    private static final long TIMESTAMP = 1551441600123L;
+
+    private final CaptureReader reader = new CaptureReader(ZoneOffset.UTC);
+
+    @Test
+    public void testPlainFrame() {
+        CapturedFrame frame = reader.parse(1, " 1E44 2D2C 7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F ");
+
+        assertThat(frame.hasTimestamp()).isFalse();
+        assertThat(frame.getFrame()).isEqualTo(FRAME);
+    }
+
+    @Test
+    public void testEpochTimestamp() {
+        CapturedFrame frame = reader.parse(1, TIMESTAMP + ";" + FRAME);
+
+        assertThat(frame.getTimestamp()).isEqualTo(TIMESTAMP);
+        assertThat(frame.getFrame()).isEqualTo(FRAME);
+    }
+
+    @Test
+    public void testLogLine() {
+        CapturedFrame frame = reader.parse(1, "2019-03-01 12:00:00.123 [DEBUG] "
+                + "[org.openhab.binding.wmbus.tools.LoggingMessageListener] - " + FRAME);
+
+        assertThat(frame.getTimestamp()).isEqualTo(TIMESTAMP);
+        assertThat(frame.getFrame()).isEqualTo(FRAME);
+    }
+
+    @Test
+    public void testLinesWithoutFrameAreSkipped() {
+        String capture = "# capture of 2019-03-01\n\n" + FRAME + "\n  \n" + TIMESTAMP + " " + FRAME + "\n";
+        List<CapturedFrame> frames = reader.read(new BufferedReader(new StringReader(capture)))
+                .collect(Collectors.toList());
+
+        assertThat(frames).hasSize(2);
+        assertThat(frames.get(0).getLineNumber()).isEqualTo(3);
+        assertThat(frames.get(1).getLineNumber()).isEqualTo(5);
+        assertThat(frames.get(1).getTimestamp()).isEqualTo(TIMESTAMP);
+    }
+
+}
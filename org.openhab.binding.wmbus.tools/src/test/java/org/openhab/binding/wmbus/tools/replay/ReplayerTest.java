@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.tools.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Test;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.config.DateFieldMode;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.binding.wmbus.handler.WMBusDispatchingAdapter;
+import org.openhab.binding.wmbus.tools.Processor;
+import org.openhab.binding.wmbus.tools.processor.RssiProcessor;
+
+/**
+ * Test of replay timing, signal strength handling and reporting of {@link Replayer}, driven by fake clock.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class ReplayerTest {
+
+    private static final String GENERIC = "1E442D2C7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F";
+    private static final String TECHEM = "29446850084481637062A0009F255502D036410000030404030303030303020303030303030304020404";
+
+    private final AtomicLong time = new AtomicLong();
+    private final List<Long> sleeps = new ArrayList<>();
+    private final RecordingAdapter adapter = new RecordingAdapter();
+
+    @Test
+    public void testMaxSpeed() {
+        ReplayReport report = replayer(Replayer.MAX_SPEED, Collections.emptyList()).replay(capture(
+                "1551441600000;" + GENERIC,
+                "1551445200000;" + TECHEM,
+                "1551448800000;ZZ",
+                "1551452400000;" + GENERIC));
+
+        assertThat(sleeps).isEmpty();
+        assertThat(adapter.received).hasSize(3);
+        assertThat(report.getFrames()).isEqualTo(4);
+        assertThat(report.getProcessed()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOriginalTimingIsScaled() {
+        ReplayReport report = replayer(10, Collections.emptyList()).replay(capture(
+                "2019-03-01 12:00:00.000 " + GENERIC,
+                "2019-03-01 12:00:10.000 " + TECHEM,
+                GENERIC,
+                "2019-03-01 12:00:30.000 " + GENERIC));
+
+        assertThat(sleeps).containsExactly(TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(2));
+        assertThat(adapter.received).hasSize(4);
+        assertThat(report.getElapsedTime()).isEqualTo(TimeUnit.SECONDS.toNanos(3));
+        assertThat(report.getMaxLag()).isZero();
+    }
+
+    @Test
+    public void testSignalStrengthFromProcessors() {
+        List<Processor<String>> processors = Arrays.asList(new RssiProcessor(-1, 0));
+        replayer(1, processors).replay(capture(GENERIC + "4A"));
+
+        assertThat(adapter.received).hasSize(1);
+        assertThat(adapter.received.get(0).getOriginalMessage().getRssi()).isEqualTo(0x4A);
+    }
+
+    @Test
+    public void testLatencyPercentiles() {
+        adapter.step = TimeUnit.MILLISECONDS.toNanos(1);
+        String[] lines = new String[100];
+        Arrays.fill(lines, GENERIC);
+        ReplayReport report = replayer(Replayer.MAX_SPEED, Collections.emptyList()).replay(capture(lines));
+
+        assertThat(report.getProcessed()).isEqualTo(100);
+        assertThat(report.getMaxLatency()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(report.getLatency(100)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        // histogram buckets are at most ~3% wide
+        assertThat(report.getLatency(50)).isBetween(TimeUnit.MILLISECONDS.toNanos(50),
+                TimeUnit.MILLISECONDS.toNanos(52));
+        assertThat(report.getLatency(99)).isBetween(TimeUnit.MILLISECONDS.toNanos(99),
+                TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(report.getThroughput()).isEqualTo(100 / (5050 / 1000.0), within(0.001));
+    }
+
+    @Test
+    public void testLatencyCoversDispatch() {
+        // bridge queues frames and dispatches them later, the last one is dropped
+        QueueingAdapter adapter = new QueueingAdapter(2);
+        Replayer replayer = new Replayer(adapter, Collections.emptyList(), Replayer.MAX_SPEED, Collections.emptyMap(),
+                time::get, nanos -> {
+                    time.addAndGet(nanos);
+                    adapter.dispatch();
+                });
+
+        ReplayReport report = replayer.replay(capture(GENERIC, TECHEM, GENERIC));
+
+        assertThat(adapter.received).hasSize(3);
+        assertThat(adapter.callback).isNull();
+        assertThat(report.getProcessed()).isEqualTo(3);
+        assertThat(report.getUndispatched()).isEqualTo(1);
+        // frames were waiting in queue until first poll
+        assertThat(report.getMaxLatency()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(report.getLatency(50)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        // replay gives up one second after last dispatch
+        assertThat(report.getElapsedTime()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1010));
+    }
+
+    private Replayer replayer(double speed, List<Processor<String>> processors) {
+        return new Replayer(adapter, processors, speed, Collections.emptyMap(), time::get, nanos -> {
+            sleeps.add(nanos);
+            time.addAndGet(nanos);
+        });
+    }
+
+    private Stream<CapturedFrame> capture(String... lines) {
+        return new CaptureReader().read(new BufferedReader(new StringReader(String.join("\n", lines))));
+    }
+
+    class RecordingAdapter implements WMBusAdapter {
+
+        final List<WMBusDevice> received = new ArrayList<>();
+        long step;
+
+        @Override
+        public void processMessage(WMBusDevice device) {
+            received.add(device);
+            // every next frame takes longer to process
+            time.addAndGet(step * received.size());
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public DateFieldMode getDateFieldMode() {
+            return DateFieldMode.UNIX_TIMESTAMP;
+        }
+
+        @Override
+        public ThingUID getUID() {
+            return new ThingUID("wmbus", "virtual", "replay");
+        }
+    }
+
+    class QueueingAdapter extends RecordingAdapter implements WMBusDispatchingAdapter {
+
+        final Queue<WMBusDevice> queue = new ArrayDeque<>();
+        final int limit;
+        Consumer<WMBusDevice> callback;
+        int dispatched;
+
+        QueueingAdapter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void processMessage(WMBusDevice device) {
+            received.add(device);
+            queue.add(device);
+        }
+
+        @Override
+        public void setDispatchCallback(Consumer<WMBusDevice> callback) {
+            this.callback = callback;
+        }
+
+        void dispatch() {
+            while (!queue.isEmpty() && dispatched < limit) {
+                dispatched++;
+                callback.accept(queue.poll());
+            }
+        }
+    }
+
+}
@@ -19,4 +19,6 @@ public interface BindingConfiguration {
 
     Boolean getIncludeBridgeUID();
 
+    Long getOfflineTolerance();
+
 }
@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.FrameDecryptor;
+import org.openhab.io.transport.mbus.wireless.KeyMaterial;
+import org.openhab.io.transport.mbus.wireless.KeyStorage;
+import org.openmuc.jmbus.DataRecord;
+import org.openmuc.jmbus.DecodingException;
+import org.openmuc.jmbus.EncryptionMode;
+import org.openmuc.jmbus.SecondaryAddress;
+import org.openmuc.jmbus.VariableDataStructure;
+import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
+import org.openmuc.jmbus.wireless.WMBusMessage;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Outcome of decoding of single wireless M-Bus telegram. Instances are created once per received telegram and then
+ * shared by all its consumers - bridge, discovery, channel type provider and thing handlers, so none of them needs to
+ * parse frame again.
+ *
+ * Apart from standard data records frame can also carry results of vendor specific decoders (ie. Techem), which are
+ * attached to it via {@link #withVendorResult(Class, Object)}.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public final class DecodedFrame {
+
+    public enum Status {
+        /**
+         * Plain frame which was decoded without troubles.
+         */
+        DECODED,
+        /**
+         * Encrypted frame which was successfully decrypted and decoded.
+         */
+        DECRYPTED,
+        /**
+         * Encrypted frame which could not be decrypted, most likely due to missing or wrong key.
+         */
+        ENCRYPTED,
+        /**
+         * Frame with manufacturer specific payload which must be processed by vendor decoder.
+         */
+        MANUFACTURER_SPECIFIC,
+        /**
+         * Frame which could not be decoded for any other reason.
+         */
+        FAILED
+    }
+
+    private static final int CI_FIELD_OFFSET = 10;
+    private static final byte[] NO_MANUFACTURER_DATA = new byte[0];
+
+    private final Status status;
+    private final List<DataRecord> records;
+    private final byte[] manufacturerData;
+    private final EncryptionMode encryptionMode;
+    private volatile DecodingException error;
+    private volatile RecordLayout layout;
+    private volatile RecordIndex index;
+    private final Map<Class<?>, Optional<?>> vendorResults;
+
+    private DecodedFrame(Status status, List<DataRecord> records, byte[] manufacturerData,
+            EncryptionMode encryptionMode, DecodingException error, Map<Class<?>, Optional<?>> vendorResults) {
+        this.status = status;
+        this.records = records;
+        this.manufacturerData = manufacturerData;
+        this.encryptionMode = encryptionMode;
+        this.error = error;
+        this.vendorResults = vendorResults;
+    }
+
+    private DecodedFrame(Status status, EncryptionMode encryptionMode) {
+        this(status, encryptionMode, null);
+    }
+
+    private DecodedFrame(Status status, EncryptionMode encryptionMode, DecodingException error) {
+        this(status, Collections.emptyList(), NO_MANUFACTURER_DATA, encryptionMode, error, Collections.emptyMap());
+    }
+
+    /**
+     * Decodes received message and captures outcome of this operation.
+     *
+     * Frames which jmbus can not decode are recognized by their header, before parsing. Frames encrypted in security
+     * mode 5 are decrypted with key of sending device, looked up by address, and parsed once, after decryption.
+     *
+     * @param message Received message.
+     * @param address Address of sending device.
+     * @param keyStorage Encryption keys, might be null.
+     * @return Decoding result.
+     */
+    static DecodedFrame decode(WMBusMessage message, DeviceAddress address, KeyStorage keyStorage) {
+        byte[] frame = message.asBlob();
+        Status status = classify(frame);
+        if (status != null) {
+            return new DecodedFrame(status, null);
+        }
+
+        if (FrameDecryptor.isEncrypted(frame)) {
+            Optional<KeyMaterial> key = keyStorage == null ? Optional.empty()
+                    : keyStorage.lookupKeyMaterial(address);
+            byte[] plaintext = key.isPresent() ? FrameDecryptor.decrypt(frame, key.get()) : null;
+            if (plaintext == null) {
+                return new DecodedFrame(Status.ENCRYPTED, EncryptionMode.AES_CBC_IV);
+            }
+            try {
+                return decode(VirtualWMBusMessageHelper.decode(plaintext, message.getRssi(), Collections.emptyMap())
+                        .getVariableDataResponse(), EncryptionMode.AES_CBC_IV);
+            } catch (DecodingException e) {
+                return new DecodedFrame(Status.FAILED, EncryptionMode.AES_CBC_IV, e);
+            }
+        }
+
+        DecodedFrame decoded = decode(message.getVariableDataResponse(), null);
+        Optional<byte[]> key = keyStorage == null ? Optional.empty() : keyStorage.lookupKey(address);
+        if (decoded.status == Status.ENCRYPTED && key.isPresent()) {
+            // security modes other than 5 are left to jmbus, which needs key before parsing
+            try {
+                Map<SecondaryAddress, byte[]> keys = Collections.singletonMap(message.getSecondaryAddress(), key.get());
+                return decode(VirtualWMBusMessageHelper.decode(frame, message.getRssi(), keys)
+                        .getVariableDataResponse(), null);
+            } catch (DecodingException e) {
+                return new DecodedFrame(Status.FAILED, decoded.encryptionMode, e);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Parses data structure.
+     *
+     * @param structure Data structure of frame.
+     * @param decryptedWith Mode in which frame was encrypted before it was decrypted by binding, null if structure
+     *            was not decrypted upfront.
+     * @return Decoding result.
+     */
+    private static DecodedFrame decode(VariableDataStructure structure, EncryptionMode decryptedWith) {
+        try {
+            structure.decode();
+            EncryptionMode mode = decryptedWith != null ? decryptedWith : structure.getEncryptionMode();
+            Status status = mode != null && mode != EncryptionMode.NONE ? Status.DECRYPTED : Status.DECODED;
+            List<DataRecord> records = structure.getDataRecords();
+            byte[] manufacturerData = structure.getManufacturerData();
+            return new DecodedFrame(status,
+                    records == null ? Collections.emptyList() : Collections.unmodifiableList(records),
+                    manufacturerData == null ? NO_MANUFACTURER_DATA : manufacturerData, mode, null,
+                    Collections.emptyMap());
+        } catch (DecodingException e) {
+            // encryption mode is read from header before jmbus asks for key
+            EncryptionMode mode = decryptedWith != null ? decryptedWith : structure.getEncryptionMode();
+            Status status = decryptedWith == null && mode != null && mode != EncryptionMode.NONE ? Status.ENCRYPTED
+                    : Status.FAILED;
+            return new DecodedFrame(status, mode, e);
+        } catch (RuntimeException e) {
+            // malformed frames might trigger index errors deep inside jmbus
+            return new DecodedFrame(Status.FAILED, decryptedWith, new DecodingException(e));
+        }
+    }
+
+    /**
+     * Recognizes frames which should not be passed to jmbus parser by their CI field.
+     *
+     * @param frame Raw frame.
+     * @return Status of frame or null if frame should be parsed.
+     */
+    private static Status classify(byte[] frame) {
+        if (frame.length <= CI_FIELD_OFFSET) {
+            return Status.FAILED;
+        }
+
+        int ciField = frame[CI_FIELD_OFFSET] & 0xFF;
+        switch (ciField) {
+            case 0x72: // long header
+            case 0x78: // no header
+            case 0x7A: // short header
+            case 0x8D: // extended link layer
+                return null;
+            case 0x33: // recognized, but not implemented by jmbus
+                return Status.FAILED;
+            default:
+                // range 0xA0 - 0xB7 is reserved for manufacturers, some of them use other values too
+                return Status.MANUFACTURER_SPECIFIC;
+        }
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if standard data records are available.
+     *
+     * @return True if frame was decoded or decrypted.
+     */
+    public boolean isDecoded() {
+        return status == Status.DECODED || status == Status.DECRYPTED;
+    }
+
+    /**
+     * Checks if frame was sent encrypted, regardless of whether it was decrypted.
+     *
+     * @return True if frame was decrypted or could not be decrypted.
+     */
+    public boolean isEncrypted() {
+        return status == Status.DECRYPTED || status == Status.ENCRYPTED;
+    }
+
+    /**
+     * Returns encryption mode announced by frame. For frames decrypted by binding it is mode of received frame, not of
+     * decrypted one.
+     *
+     * @return Encryption mode or null if frame header was not parsed.
+     */
+    public EncryptionMode getEncryptionMode() {
+        return encryptionMode;
+    }
+
+    public List<DataRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns manufacturer specific data which follows data records. For encrypted frames it comes from decrypted
+     * payload, received message carries only cipher text. Returned array is shared and must not be modified.
+     *
+     * @return Manufacturer data, empty if frame was not decoded or does not contain any.
+     */
+    public byte[] getManufacturerData() {
+        return manufacturerData;
+    }
+
+    /**
+     * Finds record of given type. Index of records is built on first call and then shared by all channels.
+     *
+     * @param recordType Type of record.
+     * @return First record of given type or null if frame does not contain it.
+     */
+    public DataRecord findRecord(RecordType recordType) {
+        RecordIndex index = this.index;
+        if (index == null) {
+            index = records.isEmpty() ? RecordIndex.EMPTY : new RecordIndex(records);
+            this.index = index;
+        }
+        return index.get(recordType);
+    }
+
+    /**
+     * Returns layout of data records, calculated on first call.
+     *
+     * @return Layout of records, empty if frame was not decoded.
+     */
+    public RecordLayout getLayout() {
+        RecordLayout layout = this.layout;
+        if (layout == null) {
+            layout = RecordLayout.of(records);
+            this.layout = layout;
+        }
+        return layout;
+    }
+
+    /**
+     * Returns reason why frame was not decoded. Exception is created on first call for frames which were recognized
+     * without parsing.
+     *
+     * @return Decoding error or empty optional if frame was decoded.
+     */
+    public Optional<DecodingException> getError() {
+        if (isDecoded()) {
+            return Optional.empty();
+        }
+
+        DecodingException error = this.error;
+        if (error == null) {
+            error = new DecodingException("Frame was not decoded, status: " + status);
+            this.error = error;
+        }
+        return Optional.of(error);
+    }
+
+    /**
+     * Checks if vendor specific decoder producing given type was already called for this frame.
+     *
+     * @param type Type of decoder result.
+     * @return True if decoder result (possibly empty) is attached to frame.
+     */
+    public boolean hasVendorResult(Class<?> type) {
+        return vendorResults.containsKey(type);
+    }
+
+    /**
+     * Returns result of vendor specific decoder.
+     *
+     * @param type Type of decoder result.
+     * @return Decoder result or empty optional if decoder was not called or did not return anything.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Optional<R> getVendorResult(Class<R> type) {
+        Optional<R> result = (Optional<R>) vendorResults.get(type);
+        return result == null ? Optional.empty() : result;
+    }
+
+    /**
+     * Creates copy of this frame with additional result of vendor decoder.
+     *
+     * @param type Type of result.
+     * @param result Result of decoder, may be null.
+     * @return New frame instance.
+     */
+    public <R> DecodedFrame withVendorResult(Class<R> type, R result) {
+        Map<Class<?>, Optional<?>> results = ImmutableMap.<Class<?>, Optional<?>> builder().putAll(vendorResults)
+                .put(type, Optional.ofNullable(result)).build();
+        return new DecodedFrame(status, records, manufacturerData, encryptionMode, error, results);
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedFrame [status=" + status + ", encryptionMode=" + encryptionMode + ", records=" + records.size()
+                + ", vendorResults=" + vendorResults.keySet() + "]";
+    }
+
+}
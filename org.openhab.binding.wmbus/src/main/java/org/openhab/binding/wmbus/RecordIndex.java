@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openhab.binding.wmbus.internal.LongKeyTable;
+import org.openmuc.jmbus.DataRecord;
+
+/**
+ * Index of data records of single frame by their type.
+ *
+ * Record types are looked up by their packed form in {@link LongKeyTable}, so lookup neither compares arrays nor
+ * allocates. Rare record types which do not fit into packed form are kept in a regular map. When frame contains
+ * several records of the same type first one is returned, as linear search would do.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+final class RecordIndex {
+
+    static final RecordIndex EMPTY = new RecordIndex(Collections.emptyList());
+
+    private final LongKeyTable<DataRecord> records;
+    private final Map<RecordType, DataRecord> unpacked;
+
+    RecordIndex(List<DataRecord> records) {
+        this.records = new LongKeyTable<>(records.size());
+
+        Map<RecordType, DataRecord> unpacked = null;
+        for (DataRecord record : records) {
+            long key = RecordType.key(record.getDib(), record.getVib());
+            if (key == RecordType.NO_KEY) {
+                if (unpacked == null) {
+                    unpacked = new HashMap<>();
+                }
+                unpacked.putIfAbsent(new RecordType(record.getDib(), record.getVib()), record);
+            } else {
+                this.records.putIfAbsent(key, record);
+            }
+        }
+        this.unpacked = unpacked == null ? Collections.emptyMap() : unpacked;
+    }
+
+    DataRecord get(RecordType type) {
+        long key = type.getKey();
+        if (key == RecordType.NO_KEY) {
+            return unpacked.get(type);
+        }
+        return records.get(key);
+    }
+
+}
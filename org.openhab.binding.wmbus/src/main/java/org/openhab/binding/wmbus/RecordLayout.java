@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openmuc.jmbus.DataRecord;
+
+/**
+ * Signature of frame payload - ordered DIB/VIB pairs of all its data records, without values.
+ *
+ * Devices send frames with the same layout over and over, only values change. Layout is therefore a cheap key under
+ * which results derived from records types, such as channel types or channel definitions, can be memorized. Two
+ * layouts are equal only if they contain exactly the same record types in the same order.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public final class RecordLayout {
+
+    public static final RecordLayout EMPTY = new RecordLayout(new byte[0], 0);
+
+    private final byte[] layout;
+    private final int records;
+    private final int hash;
+
+    private RecordLayout(byte[] layout, int records) {
+        this.layout = layout;
+        this.records = records;
+        this.hash = Arrays.hashCode(layout);
+    }
+
+    /**
+     * Creates layout of given records.
+     *
+     * @param records Data records of frame.
+     * @return Layout of records.
+     */
+    public static RecordLayout of(List<DataRecord> records) {
+        if (records.isEmpty()) {
+            return EMPTY;
+        }
+
+        int length = 0;
+        for (DataRecord record : records) {
+            length += 2 + record.getDib().length + record.getVib().length;
+        }
+
+        byte[] layout = new byte[length];
+        int position = 0;
+        for (DataRecord record : records) {
+            position = append(layout, position, record.getDib());
+            position = append(layout, position, record.getVib());
+        }
+        return new RecordLayout(layout, records.size());
+    }
+
+    private static int append(byte[] layout, int position, byte[] block) {
+        // dib and vib are limited to 11 bytes each, so length always fits into single byte
+        layout[position++] = (byte) block.length;
+        System.arraycopy(block, 0, layout, position, block.length);
+        return position + block.length;
+    }
+
+    /**
+     * Restores layout from its binary form.
+     *
+     * @param layout Bytes returned earlier by {@link #toBytes()}.
+     * @return Layout.
+     * @throws IllegalArgumentException When bytes are not a valid layout.
+     */
+    public static RecordLayout fromBytes(byte[] layout) {
+        int records = 0;
+        int position = 0;
+        while (position < layout.length) {
+            // skip dib and vib
+            position += 1 + (layout[position] & 0xFF);
+            if (position >= layout.length) {
+                throw new IllegalArgumentException("Truncated record layout " + HexUtils.bytesToHex(layout));
+            }
+            position += 1 + (layout[position] & 0xFF);
+            records++;
+        }
+        if (position != layout.length) {
+            throw new IllegalArgumentException("Truncated record layout " + HexUtils.bytesToHex(layout));
+        }
+        return records == 0 ? EMPTY : new RecordLayout(layout.clone(), records);
+    }
+
+    /**
+     * Returns binary form of layout - sequence of length prefixed DIB and VIB blocks.
+     *
+     * @return Copy of layout bytes.
+     */
+    public byte[] toBytes() {
+        return layout.clone();
+    }
+
+    public int size() {
+        return records;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RecordLayout)) {
+            return false;
+        }
+        RecordLayout other = (RecordLayout) obj;
+        return hash == other.hash && Arrays.equals(layout, other.layout);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordLayout [records=" + records + ", layout=" + HexUtils.bytesToHex(layout) + "]";
+    }
+
+}
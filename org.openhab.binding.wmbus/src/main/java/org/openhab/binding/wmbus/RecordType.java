@@ -31,8 +31,15 @@ public class RecordType {
      */
     public final static RecordType MANUFACTURER_DATA  = new RecordType(new byte[] {0x0, 0x0, 0x0, 0x0}, new byte[] {0x0, 0x0, 0x0, 0x0});
 
+    /**
+     * Marker of record types which are too long to be packed into single long value.
+     */
+    public final static long NO_KEY = -1L;
+
     private final byte[] dib;
     private final byte[] vib;
+    private final long key;
+    private final int hash;
 
     public RecordType(byte[] dib, int vib) {
         this(dib, new byte[] { (byte) vib });
@@ -45,6 +52,8 @@ public class RecordType {
     public RecordType(byte[] dib, byte[] vib) {
         this.dib = dib;
         this.vib = vib;
+        this.key = key(dib, vib);
+        this.hash = 31 * (31 + Arrays.hashCode(dib)) + Arrays.hashCode(vib);
     }
 
     public RecordType(int dib, int vib) {
@@ -59,6 +68,38 @@ public class RecordType {
         return vib;
     }
 
+    /**
+     * Returns compact form of record type, usable as hash key.
+     *
+     * @return Packed dib and vib or {@link #NO_KEY} if they are too long.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Packs dib and vib into single long value. First byte holds lengths of both blocks, remaining seven hold their
+     * contents, which is enough for most of record types.
+     *
+     * @param dib Data information block.
+     * @param vib Value information block.
+     * @return Packed value or {@link #NO_KEY} if dib and vib together are longer than seven bytes.
+     */
+    public static long key(byte[] dib, byte[] vib) {
+        if (dib.length + vib.length > 7) {
+            return NO_KEY;
+        }
+
+        long key = dib.length << 4 | vib.length;
+        for (byte value : dib) {
+            key = key << 8 | (value & 0xFF);
+        }
+        for (byte value : vib) {
+            key = key << 8 | (value & 0xFF);
+        }
+        return key;
+    }
+
     public boolean matches(DataRecord record) {
         return Arrays.equals(record.getDib(), getDib()) && Arrays.equals(record.getVib(), getVib());
     }
@@ -70,11 +111,7 @@ public class RecordType {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + Arrays.hashCode(dib);
-        result = prime * result + Arrays.hashCode(vib);
-        return result;
+        return hash;
     }
 
     @Override
@@ -89,6 +126,9 @@ public class RecordType {
             return false;
         }
         RecordType other = (RecordType) obj;
+        if (hash != other.hash) {
+            return false;
+        }
         if (!Arrays.equals(dib, other.dib)) {
             return false;
         }
@@ -39,6 +39,11 @@ public class WMBusBindingConstants {
      */
     public static final Long DEFAULT_TIME_TO_LIVE = TimeUnit.HOURS.toSeconds(24);
 
+    /**
+     * Offline tolerance - by default device is marked offline at most 10 seconds after its update frequency passed.
+     */
+    public static final Long DEFAULT_OFFLINE_TOLERANCE = 10l;
+
     // List all Thing Type UIDs, related to the WMBus Binding
     public final static ThingTypeUID THING_TYPE_BRIDGE = new ThingTypeUID(BINDING_ID, THING_TYPE_NAME_BRIDGE);
     public final static ThingTypeUID THING_TYPE_VIRTUAL_BRIDGE = new ThingTypeUID(BINDING_ID,
@@ -49,6 +54,12 @@ public class WMBusBindingConstants {
             THING_TYPE_NAME_ENCRYPTED_METER);
 
     public static final String CHANNEL_LAST_FRAME = "last_frame";
+    public static final String CHANNEL_QUEUE_DEPTH = "queue_depth";
+    public static final String CHANNEL_DROPPED_FRAMES = "dropped_frames";
+    public static final String CHANNEL_DUPLICATE_RATIO = "duplicate_ratio";
+    public static final String CHANNEL_FAILED_DECRYPTIONS = "failed_decryptions";
+    public static final String CHANNEL_KNOWN_DEVICES = "known_devices";
+    public static final String CHANNEL_EVICTED_DEVICES = "evicted_devices";
     public static final String CHANNEL_ERRORDATE = "error_date";
     public static final String CHANNEL_ERRORFLAGS = "error_flags";
 
@@ -76,13 +87,27 @@ public class WMBusBindingConstants {
     public static final String CONFKEY_DATEFIELD_MODE = "dateFieldMode";
     public static final String CONFKEY_ENCRYPTION_KEYS = "encryptionKeys";
     public static final String CONFKEY_DEVICEID_FILTER = "deviceIDFilter";
+    public static final String CONFKEY_QUEUE_CAPACITY = "queueCapacity";
+    public static final String CONFKEY_WORKER_THREADS = "workerThreads";
+    public static final String CONFKEY_OVERFLOW_POLICY = "overflowPolicy";
+    public static final String CONFKEY_DUPLICATE_WINDOW = "duplicateWindow";
+    public static final String CONFKEY_DUPLICATE_CACHE_SIZE = "duplicateCacheSize";
+    public static final String CONFKEY_KEEP_BEST_RSSI = "keepBestRssi";
+    public static final String CONFKEY_DEVICE_CACHE_SIZE = "deviceCacheSize";
+    public static final String CONFKEY_DEVICE_TIME_TO_LIVE = "deviceTimeToLive";
 
     // device config properties
     public static final String PROPERTY_DEVICE_ADDRESS = "deviceAddress";
     public static final String PROPERTY_DEVICE_FREQUENCY_OF_UPDATES = "frequencyOfUpdates";
+    public static final String PROPERTY_DEVICE_PUBLISH_INTERVAL = "publishInterval";
+    public static final String PROPERTY_DEVICE_MINIMUM_INTERVAL = "minimumInterval";
     public static final String PROPERTY_DEVICE_ENCRYPTION_KEY = "encryptionKey";
     // device property which says if we expected secure communication
     public static final String PROPERTY_DEVICE_ENCRYPTED = "encrypted";
+    // device property with number of frames skipped due to minimum interval
+    public static final String PROPERTY_DEVICE_THROTTLED_FRAMES = "throttledFrames";
+    // device property with number of frames which could not be decrypted
+    public static final String PROPERTY_DEVICE_FAILED_DECRYPTIONS = "failedDecryptions";
 
     public static final String PROPERTY_WMBUS_MESSAGE = "wmBusMessage";
 
@@ -97,6 +122,18 @@ public class WMBusBindingConstants {
      */
     public static final Long DEFAULT_DEVICE_FREQUENCY_OF_UPDATES = 60l;
 
+    /**
+     * Default interval after which unchanged channel values are published again. Value in minutes, 0 means that values
+     * are published only when they change.
+     */
+    public static final Long DEFAULT_DEVICE_PUBLISH_INTERVAL = 0l;
+
+    /**
+     * Default minimum time between processed frames of a device. Value in seconds, 0 means that all frames are
+     * processed.
+     */
+    public static final Long DEFAULT_DEVICE_MINIMUM_INTERVAL = 0l;
+
     /**
      * A default encryption key.
      */
@@ -121,5 +158,6 @@ public class WMBusBindingConstants {
 
     public static final String CONFKEY_BINDING_TIME_TO_LIVE = "timeToLive";
     public static final String CONFKEY_BINDING_INCLUDE_BRIDGE_UID = "includeBridgeUID";
+    public static final String CONFKEY_BINDING_OFFLINE_TOLERANCE = "offlineTolerance";
 
 }
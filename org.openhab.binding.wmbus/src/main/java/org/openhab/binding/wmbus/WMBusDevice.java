@@ -9,11 +9,15 @@
 
 package org.openhab.binding.wmbus;
 
-import org.eclipse.smarthome.core.util.HexUtils;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.FrameView;
+import org.openhab.io.transport.mbus.wireless.KeyStorage;
 import org.openmuc.jmbus.DataRecord;
 import org.openmuc.jmbus.DecodingException;
-import org.openmuc.jmbus.EncryptionMode;
 import org.openmuc.jmbus.wireless.WMBusMessage;
 
 /**
@@ -25,10 +29,20 @@ import org.openmuc.jmbus.wireless.WMBusMessage;
 public class WMBusDevice {
 
     private final WMBusMessage originalMessage;
+    private final FrameView frame;
     private final WMBusAdapter adapter;
+    private DeviceAddress address;
+    private volatile DecodedFrame decodedFrame;
+    private final AtomicInteger decodeCount = new AtomicInteger();
+    private final AtomicInteger vendorDecodeCount = new AtomicInteger();
 
     public WMBusDevice(WMBusMessage originalMessage, WMBusAdapter adapter) {
+        this(originalMessage, FrameView.of(originalMessage.asBlob()), adapter);
+    }
+
+    public WMBusDevice(WMBusMessage originalMessage, FrameView frame, WMBusAdapter adapter) {
         this.originalMessage = originalMessage;
+        this.frame = frame;
         this.adapter = adapter;
     }
 
@@ -36,12 +50,99 @@ public class WMBusDevice {
         return originalMessage;
     }
 
+    /**
+     * Returns received frame. Consumers which keep frame after processing should copy it.
+     *
+     * @return Read only view of frame.
+     */
+    public FrameView getFrame() {
+        return frame;
+    }
+
     public WMBusAdapter getAdapter() {
         return adapter;
     }
 
+    /**
+     * Decodes frame, if it was not done before. Outcome of first call is remembered, so subsequent calls neither
+     * parse frame again nor repeat failed attempts.
+     *
+     * @throws DecodingException When frame could not be decoded.
+     */
     public void decode() throws DecodingException {
-        originalMessage.getVariableDataResponse().decode();
+        DecodingException error = getDecodedFrame().getError().orElse(null);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Returns outcome of frame decoding, computing it on first call.
+     *
+     * @return Decoded frame.
+     */
+    public DecodedFrame getDecodedFrame() {
+        return getDecodedFrame(null);
+    }
+
+    /**
+     * Returns outcome of frame decoding, computing it on first call. Encrypted frame is decrypted before parsing if
+     * key of device is available. Keys are not used if frame was already decoded.
+     *
+     * @param keyStorage Encryption keys, might be null.
+     * @return Decoded frame.
+     */
+    public DecodedFrame getDecodedFrame(KeyStorage keyStorage) {
+        DecodedFrame frame = decodedFrame;
+        if (frame == null) {
+            synchronized (this) {
+                frame = decodedFrame;
+                if (frame == null) {
+                    decodeCount.incrementAndGet();
+                    frame = DecodedFrame.decode(originalMessage, getAddress(), keyStorage);
+                    decodedFrame = frame;
+                }
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Runs vendor specific decoder over frame, unless it was already done, and remembers its result.
+     *
+     * @param type Type of decoder result.
+     * @param decoder Decoder.
+     * @return Result of decoder, possibly null.
+     */
+    public synchronized <R> R decode(Class<R> type, Function<WMBusDevice, R> decoder) {
+        DecodedFrame frame = getDecodedFrame();
+        if (frame.hasVendorResult(type)) {
+            return frame.getVendorResult(type).orElse(null);
+        }
+
+        vendorDecodeCount.incrementAndGet();
+        R result = decoder.apply(this);
+        decodedFrame = frame.withVendorResult(type, result);
+        return result;
+    }
+
+    /**
+     * Number of times this frame was actually parsed. Any value above one means that some consumer bypassed
+     * memoization.
+     *
+     * @return Number of decode operations.
+     */
+    public int getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    /**
+     * Number of vendor specific decoders executed for this frame.
+     *
+     * @return Number of vendor decode operations.
+     */
+    public int getVendorDecodeCount() {
+        return vendorDecodeCount.get();
     }
 
     public String getDeviceId() {
@@ -50,27 +151,42 @@ public class WMBusDevice {
 
     public DataRecord findRecord(RecordType recordType) {
         if (RecordType.MANUFACTURER_DATA == recordType) {
-            return new ManufacturerData(originalMessage.getVariableDataResponse().getManufacturerData());
+            return new ManufacturerData(getDecodedFrame().getManufacturerData());
         }
 
-        for (DataRecord record : originalMessage.getVariableDataResponse().getDataRecords()) {
-            if (recordType.matches(record)) {
-                return record;
-            }
-        }
-        return null;
+        return getDecodedFrame().findRecord(recordType);
     }
 
     public DataRecord findRecord(byte[] dib, byte[] vib) {
         return findRecord(new RecordType(dib, vib));
     }
 
+    /**
+     * Checks if frame was sent encrypted. Outcome of decoding is used, as header of original message is not parsed when
+     * frame is decrypted by binding.
+     *
+     * @return True if frame was encrypted, regardless of whether it could be decrypted.
+     */
     public boolean isEnrypted() {
-        return originalMessage.getVariableDataResponse().getEncryptionMode() != EncryptionMode.NONE;
+        return getDecodedFrame().isEncrypted();
+    }
+
+    /**
+     * Secondary address of device which sent this frame.
+     *
+     * @return Device address.
+     */
+    public DeviceAddress getAddress() {
+        DeviceAddress result = address;
+        if (result == null) {
+            result = DeviceAddress.of(originalMessage.getSecondaryAddress());
+            address = result;
+        }
+        return result;
     }
 
     public String getDeviceAddress() {
-        return HexUtils.bytesToHex(originalMessage.getSecondaryAddress().asByteArray());
+        return getAddress().toHexString();
     }
 
     public String getDeviceType() {
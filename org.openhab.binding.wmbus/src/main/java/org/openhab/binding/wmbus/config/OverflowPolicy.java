@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.config;
+
+/**
+ * Setting describing what bridge should do with incoming frames when its processing queue is full.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Oldest frame waiting in queue is discarded in favour of the incoming one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Incoming frame is discarded, frames already waiting in queue are kept.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Receiving thread is blocked until there is a room in queue.
+     */
+    BLOCK
+
+}
@@ -18,6 +18,14 @@ public class WMBusBridgeConfig {
     public String encryptionKeys;
     public String deviceIDFilter;
     public DateFieldMode dateFieldMode = DateFieldMode.DATE_TIME;
+    public int queueCapacity = 256;
+    public int workerThreads = 1;
+    public OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    public long duplicateWindow = 10000;
+    public int duplicateCacheSize = 1024;
+    public boolean keepBestRssi = false;
+    public int deviceCacheSize = 4096;
+    public long deviceTimeToLive = 1440;
 
     public int[] getDeviceIDFilter() {
         String[] ids = deviceIDFilter.split(";");
@@ -9,9 +9,15 @@
 package org.openhab.binding.wmbus.device.generic;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.smarthome.core.library.types.QuantityType;
@@ -27,6 +33,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.RecordLayout;
 import org.openhab.binding.wmbus.RecordType;
 import org.openhab.binding.wmbus.UnitRegistry;
 import org.openhab.binding.wmbus.WMBusDevice;
@@ -35,7 +42,6 @@ import org.openhab.binding.wmbus.handler.WMBusDeviceHandler;
 import org.openhab.binding.wmbus.internal.WMBusChannelTypeProvider;
 import org.openhab.io.transport.mbus.wireless.KeyStorage;
 import org.openmuc.jmbus.DataRecord;
-import org.openmuc.jmbus.VariableDataStructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,52 +58,135 @@ public class DynamicWMBusThingHandler<T extends WMBusDevice> extends WMBusDevice
 
     private static final String CHANNEL_PROPERTY_DIB = "dib";
 
+    /**
+     * Time in milliseconds for which new channels are collected before thing is updated.
+     */
+    private static final long CHANNEL_UPDATE_DELAY = 5000;
+
+    private static final int MAX_KNOWN_LAYOUTS = 16;
+
     private final Logger logger = LoggerFactory.getLogger(DynamicWMBusThingHandler.class);
 
     private final UnitRegistry unitRegistry;
     private final WMBusChannelTypeProvider channelTypeProvider;
+    private final Set<RecordLayout> knownLayouts = ConcurrentHashMap.newKeySet();
+    private final Map<String, Channel> pendingChannels = new LinkedHashMap<>();
+    private final Map<String, RecordType> recordTypes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService channelScheduler;
+    private ScheduledFuture<?> channelUpdate;
 
     public DynamicWMBusThingHandler(Thing thing, KeyStorage keyStorage, UnitRegistry unitRegistry,
             WMBusChannelTypeProvider channelTypeProvider) {
+        this(thing, keyStorage, unitRegistry, channelTypeProvider, null);
+    }
+
+    DynamicWMBusThingHandler(Thing thing, KeyStorage keyStorage, UnitRegistry unitRegistry,
+            WMBusChannelTypeProvider channelTypeProvider, ScheduledExecutorService channelScheduler) {
         super(thing, keyStorage);
         this.unitRegistry = unitRegistry;
         this.channelTypeProvider = channelTypeProvider;
+        this.channelScheduler = channelScheduler == null ? scheduler : channelScheduler;
     }
 
     @Override
     public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice receivedDevice) {
-        if (receivedDevice.getDeviceAddress().equals(deviceAddress)) {
-            VariableDataStructure response = receivedDevice.getOriginalMessage().getVariableDataResponse();
+        if (isOwnedBy(receivedDevice)) {
+            RecordLayout layout = receivedDevice.getDecodedFrame().getLayout();
+            // channels are compared only when device sends layout which was not seen yet
+            if (layout.size() != 0 && !knownLayouts.contains(layout)
+                    && addChannels(receivedDevice.getDecodedFrame().getRecords())) {
+                if (knownLayouts.size() >= MAX_KNOWN_LAYOUTS) {
+                    knownLayouts.clear();
+                }
+                knownLayouts.add(layout);
+            }
+        }
+
+        super.onChangedWMBusDevice(adapter, receivedDevice);
+    }
 
-            List<Channel> channels = new ArrayList<>();
-            for (DataRecord record : response.getDataRecords()) {
+    /**
+     * Collects channels for records which are not mapped to thing yet.
+     *
+     * @param records Records of received frame.
+     * @return False if some channel could not be created because its type is not known yet.
+     */
+    private boolean addChannels(List<DataRecord> records) {
+        boolean complete = true;
+        synchronized (pendingChannels) {
+            for (DataRecord record : records) {
                 Optional<ChannelTypeUID> typeId = WMBusChannelTypeProvider.getChannelType(record);
-                Optional<Channel> channel = typeId.map(type -> thing.getChannel(type.getId()));
-
-                if (typeId.isPresent() && !channel.isPresent()) {
-                    Channel newChannel = createChannel(typeId.get(), record);
-                    try {
-                        ThingHelper.ensureUniqueChannels(channels, newChannel);
-                        channels.add(newChannel);
-                    } catch (IllegalArgumentException ex) {
-                        logger.debug("Cannot create channel: {}", ex.getMessage());
-                        // TODO instead of dropping, rename the duplicate with a suffix like _1,_2 etc
-                    }
+                if (!typeId.isPresent() || thing.getChannel(typeId.get().getId()) != null
+                        || pendingChannels.containsKey(typeId.get().getId())) {
+                    continue;
+                }
+
+                ChannelType type = channelTypeProvider.getChannelType(typeId.get(), null);
+                if (type == null) {
+                    // layout is compared again with next frame
+                    logger.debug("Channel type {} is not known yet, channel of thing {} is not created", typeId.get(),
+                            thing.getUID());
+                    complete = false;
+                    continue;
+                }
+
+                Channel newChannel = createChannel(type, record);
+                try {
+                    ThingHelper.ensureUniqueChannels(pendingChannels.values(), newChannel);
+                    pendingChannels.put(typeId.get().getId(), newChannel);
+                } catch (IllegalArgumentException ex) {
+                    logger.debug("Cannot create channel: {}", ex.getMessage());
+                    // TODO instead of dropping, rename the duplicate with a suffix like _1,_2 etc
                 }
             }
 
-            if (!channels.isEmpty()) {
-                ThingBuilder updatedThing = editThing().withChannels(channels);
-                updateThing(updatedThing.build());
+            if (!pendingChannels.isEmpty() && channelUpdate == null) {
+                // meters rotating through record sets reveal their channels over few frames, each thing update is
+                // persisted so these are collected and applied at once
+                channelUpdate = channelScheduler.schedule(this::updateChannels, CHANNEL_UPDATE_DELAY,
+                        TimeUnit.MILLISECONDS);
             }
         }
+        return complete;
+    }
 
-        super.onChangedWMBusDevice(adapter, receivedDevice);
+    private void updateChannels() {
+        List<Channel> channels;
+        synchronized (pendingChannels) {
+            channelUpdate = null;
+            channels = new ArrayList<>(pendingChannels.values());
+            pendingChannels.clear();
+        }
+
+        channels.removeIf(channel -> thing.getChannel(channel.getUID().getId()) != null);
+        if (!channels.isEmpty()) {
+            logger.debug("Adding {} channels to thing {}", channels.size(), thing.getUID());
+            ThingBuilder updatedThing = editThing().withChannels(channels);
+            updateThing(updatedThing.build());
+            // new channels receive values of last frame
+            if (wmbusDevice != null) {
+                triggerRefresh();
+            }
+        }
     }
 
-    private Channel createChannel(ChannelTypeUID typeId, DataRecord record) {
-        ChannelType type = channelTypeProvider.getChannelType(typeId, null);
+    @Override
+    public void dispose() {
+        synchronized (pendingChannels) {
+            if (channelUpdate != null) {
+                channelUpdate.cancel(false);
+                channelUpdate = null;
+            }
+            pendingChannels.clear();
+        }
+        // thing might be changed while handler is disposed, layouts need to be compared again
+        knownLayouts.clear();
+        recordTypes.clear();
+        super.dispose();
+    }
 
+    private Channel createChannel(ChannelType type, DataRecord record) {
+        ChannelTypeUID typeId = type.getUID();
         ChannelBuilder channelBuilder = ChannelBuilder.create(new ChannelUID(thing.getUID(), typeId.getId()),
                 type.getItemType());
 
@@ -117,18 +206,24 @@ public class DynamicWMBusThingHandler<T extends WMBusDevice> extends WMBusDevice
     @Override
     public void handleCommand(@NonNull ChannelUID channelUID, @NonNull Command command) {
         logger.trace("Received command {} for channel {}", command, channelUID);
-        if (wmbusDevice != null && command == RefreshType.REFRESH) {
-            Optional<Map<String, String>> properties = Optional.ofNullable(thing.getChannel(channelUID.getId()))
-                    .map(ch -> ch.getProperties());
+        if (command == RefreshType.REFRESH) {
+            refreshChannel(channelUID, false);
+        }
+    }
 
-            Optional<byte[]> dib = properties.map(map -> map.get(CHANNEL_PROPERTY_DIB)).map(HexUtils::hexToBytes);
-            Optional<byte[]> vib = properties.map(map -> map.get(CHANNEL_PROPERTY_VIB)).map(HexUtils::hexToBytes);
+    @Override
+    protected void refreshChannel(ChannelUID channelUID, boolean onChange) {
+        if (wmbusDevice != null) {
+            RecordType recordType = getRecordType(channelUID);
 
-            if (dib.isPresent() && vib.isPresent()) {
-                RecordType recordType = new RecordType(dib.get(), vib.get());
+            if (recordType != null) {
                 DataRecord record = wmbusDevice.findRecord(recordType);
 
                 if (record != null) {
+                    if (!shouldPublish(channelUID, record, onChange)) {
+                        return;
+                    }
+
                     State newState = unitRegistry.lookup(record.getUnit())
                             .map(unit -> new QuantityType<>(record.getScaledDataValue(), unit)).map(State.class::cast)
                             .orElseGet(() -> convertRecordData(record));
@@ -144,4 +239,32 @@ public class DynamicWMBusThingHandler<T extends WMBusDevice> extends WMBusDevice
         }
     }
 
+    /**
+     * Resolves type of record mapped to channel. Channel properties are parsed once, then type is reused by all
+     * refreshes.
+     *
+     * @param channelUID Channel.
+     * @return Record type or null if channel does not define one.
+     */
+    private RecordType getRecordType(ChannelUID channelUID) {
+        RecordType recordType = recordTypes.get(channelUID.getId());
+        if (recordType != null) {
+            return recordType;
+        }
+
+        Optional<Map<String, String>> properties = Optional.ofNullable(thing.getChannel(channelUID.getId()))
+                .map(ch -> ch.getProperties());
+
+        Optional<byte[]> dib = properties.map(map -> map.get(CHANNEL_PROPERTY_DIB)).map(HexUtils::hexToBytes);
+        Optional<byte[]> vib = properties.map(map -> map.get(CHANNEL_PROPERTY_VIB)).map(HexUtils::hexToBytes);
+
+        if (!dib.isPresent() || !vib.isPresent()) {
+            return null;
+        }
+
+        recordType = new RecordType(dib.get(), vib.get());
+        recordTypes.put(channelUID.getId(), recordType);
+        return recordType;
+    }
+
 }
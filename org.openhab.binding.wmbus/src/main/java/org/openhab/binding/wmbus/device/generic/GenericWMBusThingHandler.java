@@ -49,24 +49,33 @@ public class GenericWMBusThingHandler<T extends WMBusDevice> extends WMBusDevice
     public void handleCommand(@NonNull ChannelUID channelUID, @NonNull Command command) {
         logger.trace("Received command {} for channel {}", command, channelUID);
         if (command == RefreshType.REFRESH) {
-            if (wmbusDevice != null) {
-                RecordType recordType = channelMapping.get(channelUID.getId());
-                if (recordType != null) {
-                    DataRecord record = wmbusDevice.findRecord(recordType);
+            refreshChannel(channelUID, false);
+        }
+    }
 
-                    if (record != null) {
-                        State newState = unitRegistry.lookup(record.getUnit())
-                                .map(unit -> new QuantityType<>(record.getScaledDataValue(), unit))
-                                .map(State.class::cast).orElseGet(() -> convertRecordData(record));
+    @Override
+    protected void refreshChannel(ChannelUID channelUID, boolean onChange) {
+        if (wmbusDevice != null) {
+            RecordType recordType = channelMapping.get(channelUID.getId());
+            if (recordType != null) {
+                DataRecord record = wmbusDevice.findRecord(recordType);
 
-                        logger.trace("Assigning new state {} to channel {}", newState, channelUID.getId());
-                        updateState(channelUID.getId(), newState);
-                    } else {
-                        logger.warn("Could not read value of record {} in received frame", recordType);
+                if (record != null) {
+                    if (!shouldPublish(channelUID, record, onChange)) {
+                        return;
                     }
+
+                    State newState = unitRegistry.lookup(record.getUnit())
+                            .map(unit -> new QuantityType<>(record.getScaledDataValue(), unit))
+                            .map(State.class::cast).orElseGet(() -> convertRecordData(record));
+
+                    logger.trace("Assigning new state {} to channel {}", newState, channelUID.getId());
+                    updateState(channelUID.getId(), newState);
                 } else {
-                    logger.warn("Unown channel {}, not supported by {}", channelUID, thing);
+                    logger.warn("Could not read value of record {} in received frame", recordType);
                 }
+            } else {
+                logger.warn("Unown channel {}, not supported by {}", channelUID, thing);
             }
         }
     }
@@ -1,17 +1,31 @@
 package org.openhab.binding.wmbus.device.itron;
 
-import java.util.BitSet;
 import org.openhab.binding.wmbus.device.techem.decoder.Buffer;
 
 public class ItronConfigStatusDataParser {
 
-    private final Byte billing;
-    private final BitSet status;
-    private final Byte product;
-    private final Byte battery;
-    private final byte[] sdErrors;
-    private final Byte modemErrors;
-    private final Byte config;
+    private final byte billing;
+    private final byte status;
+    private final byte product;
+    private final byte battery;
+    private final short sdErrors;
+    private final byte modemErrors;
+    private final byte config;
+
+    /**
+     * Creates parser of config status record value, most significant byte holds billing date.
+     *
+     * @param value Value of record.
+     */
+    ItronConfigStatusDataParser(long value) {
+        this.billing = (byte) (value >>> 56);
+        this.status = (byte) (value >>> 48);
+        this.product = (byte) (value >>> 40);
+        this.battery = (byte) (value >>> 32);
+        this.sdErrors = (short) (value >>> 16);
+        this.modemErrors = (byte) (value >>> 8);
+        this.config = (byte) value;
+    }
 
     ItronConfigStatusDataParser(byte[] buffer) {
         this(new Buffer(buffer));
@@ -19,41 +33,41 @@ public class ItronConfigStatusDataParser {
 
     ItronConfigStatusDataParser(Buffer buffer) {
         this.billing = buffer.readByte();
-        this.status = BitSet.valueOf(new byte[] {buffer.readByte()});
+        this.status = buffer.readByte();
         this.product = buffer.readByte();
         this.battery = buffer.readByte();
-        this.sdErrors = buffer.readBytes(2);
+        this.sdErrors = (short) (buffer.readUnsignedByte() << 8 | buffer.readUnsignedByte());
         this.modemErrors = buffer.readByte();
         this.config = buffer.readByte();
     }
 
     public int getBillingDate() {
-        return billing.intValue();
+        return billing;
     }
 
     public boolean isRemovalOccurred() {
-        return status.get(0);
+        return (status & 0x01) != 0;
     }
 
     public boolean isProductInstalled() {
-        return status.get(1);
+        return (status & 0x02) != 0;
     }
 
     public int getOperationMode() {
-        int value = status.toByteArray()[0];
+        int value = status;
         return value > 3 ? (value >> 2) ^ 4 : value >> 2;
     }
 
     public boolean isPerimeterIntrusionOccurred() {
-        return status.get(4);
+        return (status & 0x10) != 0;
     }
 
     public boolean isSmokeInletBlockedOccurred() {
-        return status.get(5);
+        return (status & 0x20) != 0;
     }
 
     public boolean isOutOfRangeTemperatureOccurred() {
-        return status.get(6);
+        return (status & 0x40) != 0;
     }
 
     public byte getProductCode() {
@@ -4,13 +4,13 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Arrays;
 import org.openhab.binding.wmbus.device.techem.decoder.Buffer;
 
 public class ItronManufacturerDataParser {
 
-    private final static byte[] EMPTY_SHORT_DATE_1 = new byte[] {0x0, 0x0, 0x1, 0x1};
-    private final static byte[] EMPTY_SHORT_DATE_2 = new byte[] {0x0, 0x0, 0x0, 0x0};
+    // first byte in lowest bits
+    private final static int EMPTY_SHORT_DATE_1 = 0x01010000;
+    private final static int EMPTY_SHORT_DATE_2 = 0x00000000;
     private final Buffer buffer;
 
     ItronManufacturerDataParser(Buffer buffer) {
@@ -18,25 +18,29 @@ public class ItronManufacturerDataParser {
     }
 
     public LocalDateTime readShortDateTime() {
-        return parseShortDateTime(buffer.readBytes(4));
+        int date = buffer.readUnsignedByte() | buffer.readUnsignedByte() << 8 | buffer.readUnsignedByte() << 16
+                | buffer.readUnsignedByte() << 24;
+        return parseShortDateTime(date);
     }
 
     public LocalDateTime readLongDateTime() {
-        return parseLongDateTime(buffer.readBytes(5));
+        int date = buffer.readUnsignedByte() | buffer.readUnsignedByte() << 8 | buffer.readUnsignedByte() << 16
+                | buffer.readUnsignedByte() << 24;
+        return parseLongDateTime(date, buffer.readUnsignedByte());
     }
 
-    private LocalDateTime parseShortDateTime(byte[] date) {
-        if (Arrays.equals(date, EMPTY_SHORT_DATE_1) || Arrays.equals(date, EMPTY_SHORT_DATE_2)) {
+    private LocalDateTime parseShortDateTime(int date) {
+        if (date == EMPTY_SHORT_DATE_1 || date == EMPTY_SHORT_DATE_2) {
             return null;
         }
 
-        int minute = date[0] & 0xFF >> 2;
+        int minute = byte0(date) & 0x3F;
 
-        int yearLSB = (date[2] & 0xFF) >> 5;
-        int yearMSB = ((date[3] & 0xFF) & 0xF0) >> 1;
-        int hour = (date[1] & 0xFF >> 3);
-        int day = (date[2] & 0xFF >> 3);
-        int month = (date[3] & 0xFF >> 4);
+        int yearLSB = byte2(date) >> 5;
+        int yearMSB = (byte3(date) & 0xF0) >> 1;
+        int hour = byte1(date) & 0x1F;
+        int day = byte2(date) & 0x1F;
+        int month = byte3(date) & 0x0F;
 
         // ((0x2C & 0xF0) >> 0x1) | (0x7D >> 0x5) = 0x13 = 19d
         int year = yearMSB | yearLSB;
@@ -44,25 +48,42 @@ public class ItronManufacturerDataParser {
         return LocalDateTime.of(2000 + year, month, day, hour, minute);
     }
 
-    private LocalDateTime parseLongDateTime(byte[] date) {
-        int second = (date[0] & 0xFF) >> 2;
-        int minute = (date[1] & 0xFF) >> 2;
-        int hour = (date[2] & 0xFF >> 3);
-        int day = (date[2] & 0xFF >> 4);
-        int month = (date[3] & 0xFF >> 4);
+    private LocalDateTime parseLongDateTime(int date, int date4) {
+        int second = byte0(date) >> 2;
+        int minute = byte1(date) >> 2;
+        int hour = byte2(date) & 0x1F;
+        int day = byte2(date) & 0x0F;
+        int month = byte3(date) & 0x0F;
 
-        int yearLSB = (date[3] & 0xFF) >> 5;
-        int yearMSB = ((date[4] & 0xFF) & 0xF0) >> 1;
+        int yearLSB = byte3(date) >> 5;
+        int yearMSB = (date4 & 0xF0) >> 1;
 
         // ((0x2C & 0xF0) >> 0x1) | (0x7D >> 0x5) = 0x13 = 19d
         int year = yearMSB | yearLSB;
 
         LocalTime time = LocalTime.of(hour, minute, second);
         DayOfWeek dayOfWeek = DayOfWeek.of(day);
-        LocalDate today = LocalDate.now();
+        LocalDateTime today = buffer.currentTime();
         LocalDate parsed = LocalDate.of(year, month, today.getDayOfMonth());
 
         LocalTime timeWithDay = time.with(dayOfWeek);
         return parsed.atStartOfDay().with(timeWithDay);
     }
+
+    private static int byte0(int date) {
+        return date & 0xFF;
+    }
+
+    private static int byte1(int date) {
+        return (date >> 8) & 0xFF;
+    }
+
+    private static int byte2(int date) {
+        return (date >> 16) & 0xFF;
+    }
+
+    private static int byte3(int date) {
+        return (date >>> 24) & 0xFF;
+    }
+
 }
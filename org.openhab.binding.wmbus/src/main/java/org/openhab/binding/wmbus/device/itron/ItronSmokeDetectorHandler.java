@@ -4,12 +4,10 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
-import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.binding.wmbus.RecordType;
@@ -22,7 +20,6 @@ import org.openmuc.jmbus.DataRecord;
 import org.openmuc.jmbus.DecodingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.google.common.primitives.Longs;
 
 public class ItronSmokeDetectorHandler extends GenericWMBusThingHandler<WMBusDevice> {
 
@@ -42,8 +39,8 @@ public class ItronSmokeDetectorHandler extends GenericWMBusThingHandler<WMBusDev
 
         DataRecord record = device.findRecord(CONFIG_STATUS_07_7F);
         if (record != null && record.getDataValueType() == DataRecord.DataValueType.LONG && record.getDescription() == DataRecord.Description.MANUFACTURER_SPECIFIC) {
-            Long dataValue = (Long) record.getDataValue();
-            ItronConfigStatusDataParser configStatus = new ItronConfigStatusDataParser(Longs.toByteArray(dataValue));
+            long dataValue = record.getLong();
+            ItronConfigStatusDataParser configStatus = new ItronConfigStatusDataParser(dataValue);
 
             // first (MSB) byte with billing date
             parsedFrame.put(ItronBindingConstants.CHANNEL_STATUS_BILLING_DATE, configStatus.getBillingDate());
@@ -73,7 +70,8 @@ public class ItronSmokeDetectorHandler extends GenericWMBusThingHandler<WMBusDev
         //parsedFrame.put(ItronBindingConstants.CHANNEL_STATUS_DATA_ENCRYPTED, configStatus.readByte());
 
 
-        byte[] manufacturerData = parsedDevice.getOriginalMessage().getVariableDataResponse().getManufacturerData();
+        // received message of encrypted frame holds cipher text, decrypted payload is kept by decoded frame
+        byte[] manufacturerData = parsedDevice.getDecodedFrame().getManufacturerData();
 
         Buffer buffer = new Buffer(manufacturerData);
         ItronManufacturerDataParser parser = new ItronManufacturerDataParser(buffer);
@@ -131,12 +129,16 @@ public class ItronSmokeDetectorHandler extends GenericWMBusThingHandler<WMBusDev
     }
 
     @Override
-    public void handleCommand(@NonNull ChannelUID channelUID, @NonNull Command command) {
+    protected void refreshChannel(ChannelUID channelUID, boolean onChange) {
         if (parsedFrame.containsKey(channelUID.getId())) {
             // channel directly maps to manufacturer data appended to frame
             logger.debug("Mapping custom smoke detector channel {} to manufacturer data", channelUID);
 
             Object value = parsedFrame.get(channelUID.getId());
+            if (!shouldPublish(channelUID, value, onChange)) {
+                return;
+            }
+
             if (value == null) {
                 updateState(channelUID, UnDefType.NULL);
             } else if (value instanceof LocalDateTime) {
@@ -150,7 +152,7 @@ public class ItronSmokeDetectorHandler extends GenericWMBusThingHandler<WMBusDev
             }
         } else {
             // try to do a lookup based on channel to record mapping
-            super.handleCommand(channelUID, command);
+            super.refreshChannel(channelUID, onChange);
         }
     }
 
@@ -8,16 +8,15 @@
  */
 package org.openhab.binding.wmbus.device.techem.decoder;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.function.Function;
 
-import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.device.techem.TechemDevice;
 import org.openhab.binding.wmbus.device.techem.Variant;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
-import org.openmuc.jmbus.wireless.WMBusMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,9 +25,6 @@ abstract class AbstractTechemFrameDecoder<T extends TechemDevice> implements Tec
     private final Logger logger = LoggerFactory.getLogger(AbstractTechemFrameDecoder.class);
     protected final Variant variant;
 
-    protected final Function<Float, Float> _SCALE_FACTOR_1_10th = value -> value / 10;
-    protected final Function<Float, Float> _SCALE_FACTOR_1_100th = value -> value / 100;
-
     protected AbstractTechemFrameDecoder(Variant variant) {
         this.variant = variant;
     }
@@ -40,34 +36,34 @@ abstract class AbstractTechemFrameDecoder<T extends TechemDevice> implements Tec
         return supports;
     }
 
-    protected final byte[] read(byte[] buffer, int... indexes) {
-        byte[] value = new byte[indexes.length];
-        for (int element = 0; element < indexes.length; element++) {
-            value[element] = buffer[indexes[element]];
-        }
-        return value;
+    /**
+     * Values of coding byte recognized by this decoder, used to build dispatch table.
+     *
+     * @return Coding bytes.
+     */
+    int[] getCodings() {
+        return new int[] { variant.getCoding() };
     }
 
-    protected final int parseBigEndianInt(byte[] buffer, int index) {
-        if (buffer.length < index + 1) {
+    protected final int parseBigEndianInt(FrameView frame, int index) {
+        if (frame.length() < index + 1) {
             return 0x00;
         }
-        return parseBigEndianInt(buffer, index, index + 1);
+        return parseBigEndianInt(frame, index, index + 1);
     }
 
-    protected final int parseBigEndianInt(byte[] buffer, int lsb, int msb) {
-        byte[] value = read(buffer, lsb, msb);
-        return (value[0] & 0xFF) + ((value[1] & 0xFF) << 8);
+    protected final int parseBigEndianInt(FrameView frame, int lsb, int msb) {
+        return frame.getUnsigned(lsb) + (frame.getUnsigned(msb) << 8);
     }
 
-    protected final float parseValue(byte[] buffer, int index, Function<Float, Float> scale) {
-        float value = parseBigEndianInt(buffer, index);
+    protected final float parseValue(FrameView frame, int index, int divisor) {
+        float value = parseBigEndianInt(frame, index);
 
-        return scale.apply(value);
+        return value / divisor;
     }
 
-    protected final LocalDateTime parseLastDate(byte[] buffer, int index) {
-        int dateint = parseBigEndianInt(buffer, index);
+    protected final LocalDateTime parseLastDate(FrameView frame, int index) {
+        int dateint = parseBigEndianInt(frame, index);
 
         int day = (dateint >> 0) & 0x1F;
         int month = (dateint >> 5) & 0x0F;
@@ -77,38 +73,60 @@ abstract class AbstractTechemFrameDecoder<T extends TechemDevice> implements Tec
         return dateTime.truncatedTo(ChronoUnit.DAYS);
     }
 
-    protected final LocalDateTime parseCurrentDate(byte[] buffer, int index) {
-        int dateint = parseBigEndianInt(buffer, index);
+    protected final LocalDateTime parseCurrentDate(FrameView frame, int index) {
+        int dateint = parseBigEndianInt(frame, index);
 
         int day = (dateint >> 4) & 0x1F;
         int month = (dateint >> 9) & 0x0F;
 
         if (day <= 0) {
             logger.trace("Detected invalid day number {} in byte representation: {}, changing to 1st day of month", day,
-                    HexUtils.bytesToHex(read(buffer, index, index + 1)));
+                    frame.slice(index, 2));
             day = 1;
         }
         if (month <= 0) {
             logger.trace("Detected invalid month number {} in byte representation: {}, changing to last month of year",
-                    month, HexUtils.bytesToHex(read(buffer, index, index + 1)));
+                    month, frame.slice(index, 2));
             month = 12;
         }
 
-        LocalDateTime dateTime = LocalDateTime.now().withMonth(month).withDayOfMonth(day);
-        return dateTime.truncatedTo(ChronoUnit.SECONDS);
+        return currentDate(month, day);
+    }
+
+    /**
+     * Completes date sent without year with current year and time.
+     *
+     * @param month Month of year.
+     * @param day Day of month.
+     * @return Date within current year.
+     */
+    protected final LocalDateTime currentDate(int month, int day) {
+        LocalDateTime now = CachedClock.SYSTEM.now();
+        return LocalDate.of(now.getYear(), month, day).atTime(now.toLocalTime());
+    }
+
+    protected final float parseTemperature(FrameView frame, int index) {
+        return parseValue(frame, index, Buffer.SCALE_1_100TH);
     }
 
-    protected final float parseTemperature(byte[] buffer, int index) {
-        return parseValue(buffer, index, _SCALE_FACTOR_1_100th);
+    /**
+     * Returns new buffer positioned after secondary address of given frame. Decoders are shared by all bridges, so
+     * buffer is local to single decoding and never kept in a field.
+     *
+     * @param frame Frame to read.
+     * @param address Address of sender.
+     * @return Buffer over frame.
+     */
+    protected final Buffer buffer(FrameView frame, SecondaryAddress address) {
+        return new Buffer(frame, address.asByteArray().length);
     }
 
     @Override
     public T decode(WMBusDevice device) {
-        WMBusMessage message = device.getOriginalMessage();
-        return decode(device, message.getSecondaryAddress(), message.asBlob());
+        return decode(device, device.getOriginalMessage().getSecondaryAddress(), device.getFrame());
     }
 
     // FIXME make this method abstract
-    protected abstract T decode(WMBusDevice device, SecondaryAddress address, byte[] buffer);
+    protected abstract T decode(WMBusDevice device, SecondaryAddress address, FrameView frame);
 
 }
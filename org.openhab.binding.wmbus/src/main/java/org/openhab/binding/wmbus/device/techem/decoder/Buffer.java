@@ -9,13 +9,12 @@
 package org.openhab.binding.wmbus.device.techem.decoder;
 
 import java.nio.BufferOverflowException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.BufferUnderflowException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.function.Function;
-import org.eclipse.smarthome.core.util.HexUtils;
+
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 import org.openmuc.jmbus.wireless.WMBusMessage;
 import org.slf4j.Logger;
@@ -25,12 +24,26 @@ import org.slf4j.LoggerFactory;
  * Very basic wrapper around WMBus Message which turns it into readable sequence of bytes allowing to navigate over
  * data part with automatic adjustment of reader index.
  *
+ * All numbers are little endian. Reads do not allocate, apart from {@link #readBytes(int)}, dates and history which
+ * are returned to caller. Buffer can be moved to another frame with {@link #reset(FrameView, int)}. Creation of buffer
+ * is cheap too, so it can be made for each decoded frame.
+ *
  * @author Łukasz Dywicki - initial contribution.
  */
 public class Buffer {
 
-    protected final Logger logger = LoggerFactory.getLogger(Buffer.class);
-    protected final ByteBuffer buffer;
+    public static final int SCALE_1_10TH = 10;
+    public static final int SCALE_1_100TH = 100;
+
+    // buffer is created for each frame, so it does not look logger up again
+    protected static final Logger logger = LoggerFactory.getLogger(Buffer.class);
+    private static final char[] NO_HISTORY = new char[0];
+
+    private final CachedClock clock;
+
+    protected FrameView frame;
+    protected int position;
+    private char[] history = NO_HISTORY;
 
     public final static Function<Float, Float> _SCALE_FACTOR_1_10th = value -> value / 10;
     public final static Function<Float, Float> _SCALE_FACTOR_1_100th = value -> value / 100;
@@ -52,45 +65,103 @@ public class Buffer {
     }
 
     public Buffer(byte[] buffer, int offset) {
-        this.buffer = ByteBuffer.wrap(buffer);
-        skip(offset);
+        this(FrameView.of(buffer), offset);
+    }
+
+    public Buffer(FrameView frame, SecondaryAddress secondaryAddress) {
+        this(frame, secondaryAddress.asByteArray().length);
+    }
+
+    /**
+     * Creates buffer which reads frame without copying it.
+     *
+     * @param frame Frame to read.
+     * @param offset Number of bytes to skip.
+     */
+    public Buffer(FrameView frame, int offset) {
+        this(CachedClock.SYSTEM);
+        reset(frame, offset);
+    }
+
+    /**
+     * Creates buffer without frame, it must be {@link #reset(FrameView, int)} before first read.
+     */
+    public Buffer() {
+        this(CachedClock.SYSTEM);
+    }
+
+    Buffer(CachedClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Moves buffer to another frame.
+     *
+     * @param frame Frame to read.
+     * @param offset Number of bytes to skip.
+     * @return This buffer.
+     */
+    public Buffer reset(FrameView frame, int offset) {
+        this.frame = frame;
+        this.position = 0;
+        return skip(offset);
     }
 
     public Buffer skip(int bytes) {
-        int position = buffer.position() + bytes;
-        if (position > buffer.limit()) {
+        int position = this.position + bytes;
+        if (position > limit()) {
             throw new BufferOverflowException();
         }
 
-        this.buffer.position(position);
+        this.position = position;
         return this;
     }
 
     public byte readByte() {
-        return buffer.get();
+        check(1);
+        byte value = frame.get(position);
+        position++;
+        return value;
+    }
+
+    public int readUnsignedByte() {
+        return readByte() & 0xFF;
     }
 
     public byte[] readBytes(int len) {
         byte[] bytes = new byte[len];
-        for (int index = 0; index < len; index++) {
-            bytes[index] = readByte();
-        }
+        readBytes(bytes, 0, len);
         return bytes;
     }
 
+    public void readBytes(byte[] target, int offset, int len) {
+        check(len);
+        frame.copyTo(position, target, offset, len);
+        position += len;
+    }
+
     public int readInt() {
-        int number = orderedRead(ByteOrder.LITTLE_ENDIAN, ByteBuffer::getInt);
+        check(4);
+        int number = frame.getInt(position);
+        position += 4;
         return number >> 8;
     }
 
     public short readShort() {
-        return orderedRead(ByteOrder.LITTLE_ENDIAN, ByteBuffer::getShort);
+        check(2);
+        short number = frame.getShort(position);
+        position += 2;
+        return number;
     }
 
     public float readFloat() {
         return readShort();
     }
 
+    public float readFloat(int divisor) {
+        return readFloat() / divisor;
+    }
+
     public LocalDateTime readPastDate() {
         int dateint = readShort();
 
@@ -102,7 +173,7 @@ public class Buffer {
     }
 
     public LocalDateTime readCurrentDate() {
-        int position = buffer.position();
+        int position = this.position;
         int dateint = readShort();
 
         int day = (dateint >> 4) & 0x1F;
@@ -110,56 +181,78 @@ public class Buffer {
 
         if (day <= 0) {
             logger.trace("Detected invalid day number {} in byte representation: {}, changing to 1st day of month", day,
-                    String.format("%02X", buffer.get(position)));
+                    frame.slice(position, 1));
             day = 1;
         }
         if (month <= 0) {
             logger.trace("Detected invalid month number {} in byte representation: {}, changing to last month of year",
-                    month, String.format("%02X", buffer.get(position)));
+                    month, frame.slice(position, 1));
             month = 12;
         }
 
-        LocalDateTime dateTime = LocalDateTime.now().withMonth(month).withDayOfMonth(day);
-        return dateTime.truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime now = currentTime();
+        return LocalDate.of(now.getYear(), month, day).atTime(now.toLocalTime());
     }
 
+    /**
+     * Reads all remaining bytes but last one as unsigned numbers separated with semicolon.
+     *
+     * @return History of readings.
+     */
     public String readHistory() {
-        StringBuilder history = new StringBuilder();
-        while (buffer.position() + 1 < buffer.limit()) {
-            history.append((readByte() & 0xFF)).append(";");
+        int count = available() - 1;
+        if (count <= 0) {
+            return "";
+        }
+        if (history.length < count * 4) {
+            history = new char[count * 4];
         }
 
-        return history.substring(0, history.length() -1);
+        int length = 0;
+        for (int index = 0; index < count; index++) {
+            int value = readUnsignedByte();
+            if (value >= 100) {
+                history[length++] = (char) ('0' + value / 100);
+            }
+            if (value >= 10) {
+                history[length++] = (char) ('0' + value / 10 % 10);
+            }
+            history[length++] = (char) ('0' + value % 10);
+            history[length++] = ';';
+        }
+
+        return new String(history, 0, length - 1);
     }
 
     public float readFloat(Function<Float, Float> scale) {
         return scale.apply(readFloat());
     }
 
+    /**
+     * Current time, used to complete dates which are sent without year.
+     *
+     * @return Current time truncated to seconds.
+     */
+    public LocalDateTime currentTime() {
+        return clock.now();
+    }
+
     public int position() {
-        return buffer.position();
+        return position;
     }
 
     public int limit() {
-        return buffer.limit();
+        return frame.length();
     }
 
     public int available() {
         return limit() - position();
     }
 
-    private final <T> T orderedRead(ByteOrder readOrder, Function<ByteBuffer, T> callback) {
-        ByteOrder byteOrder = buffer.order();
-        if (!readOrder.equals(byteOrder)) {
-            try {
-                buffer.order(readOrder);
-                return callback.apply(buffer);
-            } finally {
-                buffer.order(byteOrder);
-            }
+    private void check(int bytes) {
+        if (bytes > available()) {
+            throw new BufferUnderflowException();
         }
-
-        return callback.apply(buffer);
     }
 
 }
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.device.techem.decoder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.LongSupplier;
+
+/**
+ * Source of current time with precision of one second. Decoders complete dates which lack year with current time, so
+ * they ask for it with every frame. Clock computes local time only once per second and hands out the same instance to
+ * all frames received within that second.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+final class CachedClock {
+
+    static final CachedClock SYSTEM = new CachedClock(System::currentTimeMillis, ZoneId.systemDefault());
+
+    private final LongSupplier millis;
+    private final ZoneId zone;
+
+    private volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    CachedClock(LongSupplier millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * Current local time, truncated to seconds.
+     *
+     * @return Current time.
+     */
+    LocalDateTime now() {
+        long second = Math.floorDiv(millis.getAsLong(), 1000);
+        Tick current = tick;
+        if (current.second != second) {
+            current = new Tick(second, LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone));
+            tick = current;
+        }
+        return current.time;
+    }
+
+    static class Tick {
+
+        private final long second;
+        private final LocalDateTime time;
+
+        Tick(long second, LocalDateTime time) {
+            this.second = second;
+            this.time = time;
+        }
+    }
+
+}
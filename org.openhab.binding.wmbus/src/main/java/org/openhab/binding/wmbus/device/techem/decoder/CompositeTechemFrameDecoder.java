@@ -34,15 +34,12 @@ public class CompositeTechemFrameDecoder implements TechemFrameDecoder<TechemDev
             new TechemWaterMeterFrameDecoder(TechemBindingConstants._68TCH116114_16, -1),
             new TechemWaterMeterFrameDecoder(TechemBindingConstants._68TCH149114_16, -1));
 
+    // built once per component instance, lookup of frame takes single probe of this table
+    private final TechemDecoderTable table = TechemDecoderTable.of(decoders);
+
     @Override
     public boolean supports(String deviceVariant) {
-        for (TechemFrameDecoder<?> decoder : decoders) {
-            if (decoder.supports(deviceVariant)) {
-                return true;
-            }
-        }
-
-        return false;
+        return table.supports(deviceVariant);
     }
 
     @Override
@@ -50,27 +47,27 @@ public class CompositeTechemFrameDecoder implements TechemFrameDecoder<TechemDev
         if (device instanceof TechemDevice) {
             return (TechemDevice) device;
         }
-        TechemDevice result = null;
+        // result is remembered by frame, so discovery and thing handler share single decoding
+        return device.decode(TechemDevice.class, this::decodeFrame);
+    }
+
+    private TechemDevice decodeFrame(WMBusDevice device) {
         // TODO failing test: wrong water meter returned?
-        for (TechemFrameDecoder<?> decoder : decoders) {
-            if (decoder.supports(device.getRawDeviceType())) {
-                // same variant might be supported by multiple decoders, but first one which gives decoded result wins
-                logger.debug("Found decoder capable of handling device {}: {}", device.getRawDeviceType(), decoder.getClass().getName());
-                result = decoder.decode(device);
-                if (result != null) {
+        // same variant might be supported by multiple decoders, but first one which gives decoded result wins
+        for (TechemFrameDecoder<?> decoder : table.get(device)) {
+            logger.debug("Found decoder capable of handling device {}: {}", device, decoder);
+            TechemDevice result = decoder.decode(device);
+            if (result != null) {
+                if (logger.isDebugEnabled()) {
                     logger.debug("Decoding result: {}, {}, {}", result, result.getRawDeviceType(),
-                        result.getTechemDeviceType());
-                    break;
-                } else {
-                    logger.debug("Decoding of frame failed, unsupported device variant");
+                            result.getTechemDeviceType());
                 }
+                return result;
             }
-        }
-        if (result != null) {
-            return result;
+            logger.debug("Decoding of frame failed, unsupported device variant");
         }
 
-        logger.debug("Could not find decoder capable of handling device {}", device.getRawDeviceType());
+        logger.debug("Could not find decoder capable of handling device {}", device);
 
         return null;
     }
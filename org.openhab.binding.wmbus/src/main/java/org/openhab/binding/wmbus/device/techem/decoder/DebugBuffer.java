@@ -10,6 +10,8 @@ package org.openhab.binding.wmbus.device.techem.decoder;
 
 import java.time.LocalDateTime;
 import java.util.function.Function;
+
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 import org.openmuc.jmbus.wireless.WMBusMessage;
 
@@ -38,7 +40,15 @@ public class DebugBuffer extends Buffer {
     }
 
     public DebugBuffer(byte[] buffer, int offset) {
-        super(buffer, offset);
+        this(FrameView.of(buffer), offset);
+    }
+
+    public DebugBuffer(FrameView frame, SecondaryAddress secondaryAddress) {
+        this(frame, secondaryAddress.asByteArray().length);
+    }
+
+    public DebugBuffer(FrameView frame, int offset) {
+        super(frame, offset);
         logger.info("Skipped first {} bytes {}", offset, dump());
     }
 
@@ -78,26 +88,31 @@ public class DebugBuffer extends Buffer {
         return super.readCurrentDate();
     }
 
+    public float readFloat(int divisor) {
+        logger.info("Read 2 bytes (short) and turn int into float divided by {} {}", divisor, dump());
+        return super.readFloat(divisor);
+    }
+
     public float readFloat(Function<Float, Float> scale) {
         logger.info("Read 2 bytes (short) and turn int into float and rescale {}", dump());
         return super.readFloat(scale);
     }
 
     private final String dump() {
-        byte[] array = buffer.array();
+        int length = limit();
 
-        String output = "\nBuffer size: " + array.length + ", read index: " + buffer.position() + "\n";
+        String output = "\nBuffer size: " + length + ", read index: " + position() + "\n";
         String middleLine = "";
         String lowerLine = "";
-        for (int index = 0; index < array.length; index++) {
-            output += String.format("%02X", array[index]) + " ";
+        for (int index = 0; index < length; index++) {
+            output += String.format("%02X", frame.get(index)) + " ";
             if (index < 10 && index != 0) {
                 lowerLine += "  ";
             } else {
                 lowerLine += " ";
             }
             lowerLine += index;
-            if (index == buffer.position()) {
+            if (index == position()) {
                 middleLine += " ^ ";
             } else {
                 middleLine += "   ";
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.device.techem.decoder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.device.techem.TechemBindingConstants;
+import org.openhab.binding.wmbus.device.techem.Variant;
+import org.openhab.binding.wmbus.internal.LongKeyTable;
+import org.openhab.io.transport.mbus.wireless.FrameView;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Dispatch table of Techem decoders. Decoders are looked up by control field, manufacturer, version and device type of
+ * sender and coding byte which follows its address, packed into single number and kept in {@link LongKeyTable}, so
+ * lookup of frame neither builds strings nor allocates.
+ *
+ * Each key points to decoders in order in which they should be tried, first decoder which returns result wins.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+final class TechemDecoderTable {
+
+    static final long NO_KEY = -1;
+
+    // standard frames sent by meters, SND_NR
+    static final int CONTROL_FIELD = 0x44;
+
+    private static final TechemFrameDecoder<?>[] NO_DECODERS = new TechemFrameDecoder<?>[0];
+
+    private final LongKeyTable<TechemFrameDecoder<?>[]> decoders;
+    private final Set<String> rawTypes;
+
+    private TechemDecoderTable(Map<Long, List<TechemFrameDecoder<?>>> entries, Set<String> rawTypes) {
+        this.decoders = new LongKeyTable<>(entries.size());
+        for (Map.Entry<Long, List<TechemFrameDecoder<?>>> entry : entries.entrySet()) {
+            decoders.putIfAbsent(entry.getKey(), entry.getValue().toArray(NO_DECODERS));
+        }
+        this.rawTypes = rawTypes;
+    }
+
+    /**
+     * Builds table out of given decoders. Selectors are flattened, so their delegates are stored directly under variants
+     * they would choose them for.
+     *
+     * @param decoders Decoders in order in which they should be tried.
+     * @return Dispatch table.
+     */
+    static TechemDecoderTable of(List<TechemFrameDecoder<?>> decoders) {
+        Map<Long, List<TechemFrameDecoder<?>>> entries = new LinkedHashMap<>();
+        Set<String> rawTypes = new HashSet<>();
+        for (TechemFrameDecoder<?> decoder : decoders) {
+            if (decoder instanceof TechemVariantFrameDecoderSelector) {
+                TechemVariantFrameDecoderSelector selector = (TechemVariantFrameDecoderSelector) decoder;
+                for (TechemFrameDecoder<?> delegate : selector.getDecoders()) {
+                    Variant variant = techemDecoder(delegate).variant;
+                    TechemFrameDecoder<?> selected = selector.select(variant);
+                    if (selected != null) {
+                        add(entries, variant, techemDecoder(selected));
+                    }
+                    rawTypes.add(variant.getRawType());
+                }
+            } else {
+                AbstractTechemFrameDecoder<?> techemDecoder = techemDecoder(decoder);
+                add(entries, techemDecoder.variant, techemDecoder);
+                rawTypes.add(techemDecoder.variant.getRawType());
+            }
+        }
+        return new TechemDecoderTable(entries, ImmutableSet.copyOf(rawTypes));
+    }
+
+    private static AbstractTechemFrameDecoder<?> techemDecoder(TechemFrameDecoder<?> decoder) {
+        if (decoder instanceof AbstractTechemFrameDecoder) {
+            return (AbstractTechemFrameDecoder<?>) decoder;
+        }
+        throw new IllegalArgumentException("Can not determine variants supported by decoder " + decoder);
+    }
+
+    private static void add(Map<Long, List<TechemFrameDecoder<?>>> entries, Variant variant,
+            AbstractTechemFrameDecoder<?> decoder) {
+        int manufacturer = manufacturer(TechemBindingConstants.MANUFACTURER_ID);
+        for (int coding : decoder.getCodings()) {
+            long key = key(CONTROL_FIELD, manufacturer, variant.version, variant.reportedType, coding);
+            List<TechemFrameDecoder<?>> list = entries.computeIfAbsent(key, k -> new ArrayList<>());
+            if (!list.contains(decoder)) {
+                list.add(decoder);
+            }
+        }
+    }
+
+    /**
+     * Returns decoders for given frame, in order in which they should be tried.
+     *
+     * @param device Received frame.
+     * @return Decoders, empty array if there are none.
+     */
+    TechemFrameDecoder<?>[] get(WMBusDevice device) {
+        long key = key(device);
+        if (key == NO_KEY) {
+            return NO_DECODERS;
+        }
+
+        TechemFrameDecoder<?>[] found = decoders.get(key);
+        return found == null ? NO_DECODERS : found;
+    }
+
+    /**
+     * Checks if any decoder supports given variant, in form returned by {@link WMBusDevice#getRawDeviceType()}.
+     *
+     * @param rawType Device variant.
+     * @return True if variant is supported.
+     */
+    boolean supports(String rawType) {
+        return rawTypes.contains(rawType);
+    }
+
+    static long key(WMBusDevice device) {
+        byte[] address = device.getOriginalMessage().getSecondaryAddress().asByteArray();
+        FrameView frame = device.getFrame();
+        // frame starts with length and control field, coding byte directly follows address
+        int codingIndex = address.length + 2;
+        if (address.length < 8 || frame.length() <= codingIndex) {
+            return NO_KEY;
+        }
+
+        int manufacturer = (address[0] & 0xFF) | (address[1] & 0xFF) << 8;
+        return key(device.getOriginalMessage().getControlField(), manufacturer, address[6] & 0xFF,
+                address[address.length - 1] & 0xFF, frame.getUnsigned(codingIndex));
+    }
+
+    static long key(int controlField, int manufacturer, int version, int deviceType, int coding) {
+        return (long) (controlField & 0xFF) << 40 | (long) (manufacturer & 0xFFFF) << 24 | (version & 0xFF) << 16
+                | (deviceType & 0xFF) << 8 | coding & 0xFF;
+    }
+
+    /**
+     * Encodes manufacturer id in the way it is sent over the air, each letter taking five bits.
+     *
+     * @param id Three letter manufacturer id.
+     * @return Manufacturer code.
+     */
+    static int manufacturer(String id) {
+        char[] letters = id.toCharArray();
+        return (letters[0] - 64) << 10 | (letters[1] - 64) << 5 | (letters[2] - 64);
+    }
+
+}
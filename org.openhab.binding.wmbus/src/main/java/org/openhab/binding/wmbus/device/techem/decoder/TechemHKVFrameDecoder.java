@@ -17,10 +17,14 @@ import org.openhab.binding.wmbus.device.techem.TechemHeatCostAllocator;
 import org.openhab.binding.wmbus.device.techem.TechemUnknownDevice;
 import org.openhab.binding.wmbus.device.techem.Variant;
 import org.openmuc.jmbus.DeviceType;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 
 class TechemHKVFrameDecoder extends AbstractTechemFrameDecoder<TechemHeatCostAllocator> {
 
+    // coding of frames which are reported as unknown device
+    private static final int UNKNOWN_CODING = 0xA3;
+
     protected final boolean reportsTemperature;
 
     TechemHKVFrameDecoder(Variant variant) {
@@ -33,14 +37,19 @@ class TechemHKVFrameDecoder extends AbstractTechemFrameDecoder<TechemHeatCostAll
     }
 
     @Override
-    protected TechemHeatCostAllocator decode(WMBusDevice device, SecondaryAddress address, byte[] buffer) {
-        Buffer buff = new Buffer(device.getOriginalMessage(), address);
+    int[] getCodings() {
+        return new int[] { variant.getCoding(), UNKNOWN_CODING };
+    }
+
+    @Override
+    protected TechemHeatCostAllocator decode(WMBusDevice device, SecondaryAddress address, FrameView frame) {
+        Buffer buff = buffer(frame, address);
 
-        int coding = buff.skip(2).readByte() & 0xFF;
+        int coding = buff.skip(2).readUnsignedByte();
         if (variant.getCoding() == coding) {
 
             List<Record<?>> records = new ArrayList<>();
-            records.add(new Record<>(Record.Type.STATUS, ((Byte) buff.readByte()).intValue()));
+            records.add(new Record<>(Record.Type.STATUS, (int) buff.readByte()));
             records.add(new Record<>(Record.Type.PAST_READING_DATE, buff.readPastDate()));
             records.add(new Record<>(Record.Type.PAST_VOLUME, (float) buff.readShort()));
             records.add(new Record<>(Record.Type.CURRENT_READING_DATE, buff.readCurrentDate()));
@@ -51,7 +60,7 @@ class TechemHKVFrameDecoder extends AbstractTechemFrameDecoder<TechemHeatCostAll
             return new TechemHeatCostAllocator(device.getOriginalMessage(), device.getAdapter(), variant, records);
         }
 
-        if (coding == 0xA3) {
+        if (coding == UNKNOWN_CODING) {
             return new TechemUnknownDevice(device.getOriginalMessage(), device.getAdapter(), new Variant(variant.version, variant.reportedType, coding, DeviceType.UNKNOWN));
         }
 
@@ -17,12 +17,16 @@ import org.openhab.binding.wmbus.device.techem.TechemHeatCostAllocator;
 import org.openhab.binding.wmbus.device.techem.TechemUnknownDevice;
 import org.openhab.binding.wmbus.device.techem.Variant;
 import org.openmuc.jmbus.DeviceType;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 
 import tec.uom.se.quantity.Quantities;
 
 class TechemHKVRoomTempFrameDecoder extends AbstractTechemFrameDecoder<TechemHeatCostAllocator> {
 
+    // coding of frames which are reported as unknown device
+    private static final int UNKNOWN_CODING = 0xA3;
+
     private final int currentReadingOffset;
     private final int historyOffset;
 
@@ -37,22 +41,27 @@ class TechemHKVRoomTempFrameDecoder extends AbstractTechemFrameDecoder<TechemHea
     }
 
     @Override
-    protected TechemHeatCostAllocator decode(WMBusDevice device, SecondaryAddress address, byte[] buffer) {
-        Buffer buff = new Buffer(device.getOriginalMessage(), address);
+    int[] getCodings() {
+        return new int[] { variant.getCoding(), UNKNOWN_CODING };
+    }
+
+    @Override
+    protected TechemHeatCostAllocator decode(WMBusDevice device, SecondaryAddress address, FrameView frame) {
+        Buffer buff = buffer(frame, address);
 
-        int coding = buff.skip(2).readByte() & 0xFF;
+        int coding = buff.skip(2).readUnsignedByte();
         if (variant.getCoding() == coding) {
 
             List<Record<?>> records = new ArrayList<>();
-            records.add(new Record<>(Record.Type.STATUS, ((Byte) buff.readByte()).intValue()));
+            records.add(new Record<>(Record.Type.STATUS, (int) buff.readByte()));
             records.add(new Record<>(Record.Type.PAST_READING_DATE, buff.readPastDate()));
             records.add(new Record<>(Record.Type.PAST_VOLUME, (float) buff.readShort()));
             records.add(new Record<>(Record.Type.CURRENT_READING_DATE, buff.readCurrentDate()));
             records.add(new Record<>(Record.Type.CURRENT_VOLUME, (float) buff.skip(currentReadingOffset).readShort()));
             records.add(new Record<>(Record.Type.RSSI, device.getOriginalMessage().getRssi()));
 
-            float temp1 = buff.readFloat(Buffer._SCALE_FACTOR_1_100th);
-            float temp2 = buff.readFloat(Buffer._SCALE_FACTOR_1_100th);
+            float temp1 = buff.readFloat(Buffer.SCALE_1_100TH);
+            float temp2 = buff.readFloat(Buffer.SCALE_1_100TH);
             records.add(new Record<>(Record.Type.ROOM_TEMPERATURE, Quantities.getQuantity(temp1, SIUnits.CELSIUS)));
             records.add(new Record<>(Record.Type.RADIATOR_TEMPERATURE, Quantities.getQuantity(temp2, SIUnits.CELSIUS)));
 
@@ -64,7 +73,7 @@ class TechemHKVRoomTempFrameDecoder extends AbstractTechemFrameDecoder<TechemHea
             return new TechemHeatCostAllocator(device.getOriginalMessage(), device.getAdapter(), variant, records);
         }
 
-        if (coding == 0xA3) {
+        if (coding == UNKNOWN_CODING) {
             return new TechemUnknownDevice(device.getOriginalMessage(), device.getAdapter(), new Variant(variant.version, variant.reportedType, coding, DeviceType.UNKNOWN));
         }
 
@@ -9,7 +9,6 @@
 package org.openhab.binding.wmbus.device.techem.decoder;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +16,7 @@ import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.device.techem.Record;
 import org.openhab.binding.wmbus.device.techem.TechemHeatMeter;
 import org.openhab.binding.wmbus.device.techem.Variant;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 
 // TODO adjust after finding test frame
@@ -30,16 +30,25 @@ class TechemHeatMeterFrameDecoder extends AbstractTechemFrameDecoder<TechemHeatM
     }
 
     @Override
-    protected TechemHeatMeter decode(WMBusDevice device, SecondaryAddress address, byte[] buffer) {
+    int[] getCodings() {
+        int[] codings = new int[variants.length];
+        for (int index = 0; index < variants.length; index++) {
+            codings[index] = variants[index].getCoding();
+        }
+        return codings;
+    }
+
+    @Override
+    protected TechemHeatMeter decode(WMBusDevice device, SecondaryAddress address, FrameView frame) {
         int offset = address.asByteArray().length + 2;
-        int coding = buffer[offset] & 0xFF;
+        int coding = frame.getUnsigned(offset);
 
         for (Variant variant : variants) {
             if (variant.getCoding() == coding) {
-                LocalDateTime lastReading = parseLastDate(buffer, offset + 2);
-                float lastValue = parseLastPeriod(buffer, offset + 4);
-                LocalDateTime currentDate = parseCurrentDate(buffer, offset + 6);
-                float currentValue = parseActualPeriod(buffer, offset + 8);
+                LocalDateTime lastReading = parseLastDate(frame, offset + 2);
+                float lastValue = parseLastPeriod(frame, offset + 4);
+                LocalDateTime currentDate = parseCurrentDate(frame, offset + 6);
+                float currentValue = parseActualPeriod(frame, offset + 8);
 
                 List<Record<?>> records = new ArrayList<>();
                 records.add(new Record<>(Record.Type.CURRENT_READING_DATE, currentDate));
@@ -55,27 +64,21 @@ class TechemHeatMeterFrameDecoder extends AbstractTechemFrameDecoder<TechemHeatM
         return null;
     }
 
-    private float parseLastPeriod(byte[] buffer, int index) {
-        byte[] value = read(buffer, index, index + 1, index + 2);
-
-        return (value[2] & 0xFF) + ((value[1] & 0xFF) << 8) + ((value[0] & 0xFF) << 16);
+    private float parseLastPeriod(FrameView frame, int index) {
+        return frame.getUnsigned(index + 2) + (frame.getUnsigned(index + 1) << 8) + (frame.getUnsigned(index) << 16);
     }
 
-    private float parseActualPeriod(byte[] buffer, int index) {
-        byte[] value = read(buffer, index, index + 1, index + 2);
-
-        return (value[2] & 0xFF) + ((value[1] & 0xFF) << 8) + ((value[0] & 0xFF) << 16);
+    private float parseActualPeriod(FrameView frame, int index) {
+        return frame.getUnsigned(index + 2) + (frame.getUnsigned(index + 1) << 8) + (frame.getUnsigned(index) << 16);
     }
 
-    protected LocalDateTime parseActualDate(byte[] buffer, int dayIndex, int monthIndex) {
-        int dateint = parseBigEndianInt(buffer, dayIndex);
+    protected LocalDateTime parseActualDate(FrameView frame, int dayIndex, int monthIndex) {
+        int dateint = parseBigEndianInt(frame, dayIndex);
 
         int day = (dateint >> 7) & 0x1F;
-        int month = (buffer[monthIndex] >> 3) & 0x0F;
-
-        LocalDateTime dateTime = LocalDateTime.now().withMonth(month).withDayOfMonth(day);
-        return dateTime.truncatedTo(ChronoUnit.SECONDS);
+        int month = (frame.get(monthIndex) >> 3) & 0x0F;
 
+        return currentDate(month, day);
     }
 
 }
@@ -14,6 +14,7 @@ import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.device.techem.Record;
 import org.openhab.binding.wmbus.device.techem.TechemSmokeDetector;
 import org.openhab.binding.wmbus.device.techem.Variant;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 
 class TechemSmokeDetectorFrameDecoder extends AbstractTechemFrameDecoder<TechemSmokeDetector> {
@@ -26,15 +27,24 @@ class TechemSmokeDetectorFrameDecoder extends AbstractTechemFrameDecoder<TechemS
     }
 
     @Override
-    protected TechemSmokeDetector decode(WMBusDevice device, SecondaryAddress address, byte[] buffer) {
+    int[] getCodings() {
+        int[] codings = new int[variants.length];
+        for (int index = 0; index < variants.length; index++) {
+            codings[index] = variants[index].getCoding();
+        }
+        return codings;
+    }
+
+    @Override
+    protected TechemSmokeDetector decode(WMBusDevice device, SecondaryAddress address, FrameView frame) {
         int offset = address.asByteArray().length + 2; // 2 first bytes of data is CRC
-        Buffer buff = new Buffer(device.getOriginalMessage(), address);
-        int coding = buff.skip(2).readByte() & 0xFF;
+        Buffer buff = buffer(frame, address);
+        int coding = buff.skip(2).readUnsignedByte();
 
         for (Variant variant : variants) {
             if (variant.getCoding() == coding) {
                 List<Record<?>> records = new ArrayList<>();
-                records.add(new Record<>(Record.Type.STATUS, ((Byte) buff.readByte()).intValue()));
+                records.add(new Record<>(Record.Type.STATUS, (int) buff.readByte()));
                 records.add(new Record<>(Record.Type.CURRENT_READING_DATE, buff.skip(2).readCurrentDate()));
                 buff.skip(2);
                 records.add(new Record<>(Record.Type.CURRENT_READING_DATE_SMOKE, buff.readPastDate()));
@@ -8,10 +8,12 @@
  */
 package org.openhab.binding.wmbus.device.techem.decoder;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.device.techem.TechemDevice;
+import org.openhab.binding.wmbus.device.techem.Variant;
 import org.openmuc.jmbus.SecondaryAddress;
 
 import com.google.common.collect.ImmutableMap;
@@ -62,6 +64,32 @@ class TechemVariantFrameDecoderSelector implements TechemFrameDecoder<TechemDevi
 
     @Override
     public boolean supports(String deviceVariant) {
-        return decoders.values().stream().filter(decoder -> decoder.supports(deviceVariant)).findFirst().isPresent();
+        for (TechemFrameDecoder<?> decoder : decoders.values()) {
+            if (decoder.supports(deviceVariant)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Collection<TechemFrameDecoder<?>> getDecoders() {
+        return decoders.values();
+    }
+
+    /**
+     * Returns decoder which {@link #decode(WMBusDevice)} would choose for frames of given variant.
+     *
+     * @param variant Device variant.
+     * @return Decoder or null if there is none.
+     */
+    TechemFrameDecoder<?> select(Variant variant) {
+        switch (tagOffset) {
+            case BASED_ON_VERSION:
+                return decoders.get((byte) variant.version);
+            case BASED_ON_DEVICETYPE:
+                return decoders.get((byte) variant.reportedType);
+            default:
+                throw new IllegalStateException("Tag offset " + tagOffset + " points outside of device variant");
+        }
     }
 }
@@ -16,6 +16,7 @@ import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.device.techem.Record;
 import org.openhab.binding.wmbus.device.techem.TechemWaterMeter;
 import org.openhab.binding.wmbus.device.techem.Variant;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.SecondaryAddress;
 
 import tec.uom.se.quantity.Quantities;
@@ -34,26 +35,26 @@ class TechemWaterMeterFrameDecoder extends AbstractTechemFrameDecoder<TechemWate
     }
 
     @Override
-    protected TechemWaterMeter decode(WMBusDevice device, SecondaryAddress address, byte[] buffer) {
-        Buffer buff = new Buffer(device.getOriginalMessage(), address);
+    protected TechemWaterMeter decode(WMBusDevice device, SecondaryAddress address, FrameView frame) {
+        Buffer buff = buffer(frame, address);
 
-        int coding = buff.skip(2).readByte() & 0xFF;
+        int coding = buff.skip(2).readUnsignedByte();
 
         if (coding == variant.getCoding()) {
             Unit<Volume> unit = Units.CUBIC_METRE;
 
             List<Record<?>> records = new ArrayList<>();
-            records.add(new Record<>(Record.Type.STATUS, ((Byte) buff.readByte()).intValue()));
+            records.add(new Record<>(Record.Type.STATUS, (int) buff.readByte()));
             records.add(new Record<>(Record.Type.PAST_READING_DATE, buff.readPastDate()));
-            float pastVolume = buff.readFloat(Buffer._SCALE_FACTOR_1_10th);
+            float pastVolume = buff.readFloat(Buffer.SCALE_1_10TH);
             records.add(new Record<>(Record.Type.PAST_VOLUME, Quantities.getQuantity(pastVolume, unit)));
             records.add(new Record<>(Record.Type.CURRENT_READING_DATE, buff.readCurrentDate()));
-            float number = buff.readFloat(Buffer._SCALE_FACTOR_1_10th);
+            float number = buff.readFloat(Buffer.SCALE_1_10TH);
             records.add(new Record<>(Record.Type.CURRENT_VOLUME, Quantities.getQuantity(number, unit)));
             records.add(new Record<>(Record.Type.RSSI, device.getOriginalMessage().getRssi()));
 
             if (counterByteOffset >= 0) {
-                int counter = buff.skip(counterByteOffset).readByte() & 0xFF;
+                int counter = buff.skip(counterByteOffset).readUnsignedByte();
                 records.add(new Record<>(Record.Type.COUNTER, counter));
                 records.add(new Record<>(Record.Type.ALMANAC, buff.readHistory()));
             }
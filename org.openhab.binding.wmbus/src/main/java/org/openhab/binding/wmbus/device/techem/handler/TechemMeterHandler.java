@@ -73,40 +73,48 @@ public class TechemMeterHandler<T extends TechemDevice> extends WMBusDeviceHandl
     public void handleCommand(ChannelUID channelUID, Command command) {
         logger.trace("handleCommand {} for channel {}", command.toString(), channelUID.toString());
         if (command == RefreshType.REFRESH) {
-            if (wmbusDevice != null) {
-                Type recordType = channelMapping.get(channelUID.getId());
-                if (recordType != null) {
-                    Optional<Record<?>> record = wmbusDevice.getRecord(recordType);
-
-                    if (recordType.isDate()) {
-                        String acceptedType = "";
-                        Channel channel = getThing().getChannel(channelUID.getId());
-                        if (channel != null) {
-                            acceptedType = channel.getAcceptedItemType();
-                        }
-                        if (CoreItemFactory.DATETIME.equals(acceptedType) && DateFieldMode.DATE_TIME == getDateFieldMode()) {
-                            record.map(measurement -> map(measurement, measurement.getValue()))
-                                    .ifPresent(state -> updateState(channelUID.getId(), state));
-                        } else if (CoreItemFactory.STRING.equals(acceptedType) && DateFieldMode.FORMATTED_STRING == getDateFieldMode()) {
-                            record.map(measurement -> map(measurement, measurement.getValue()))
-                                    .ifPresent(state -> updateState(channelUID.getId(), state));
-                        } else if (CoreItemFactory.NUMBER.equals(acceptedType) && DateFieldMode.UNIX_TIMESTAMP == getDateFieldMode()) {
-                            record.map(measurement -> map(measurement, measurement.getValue()))
-                                    .ifPresent(state -> updateState(channelUID.getId(), state));
-                        } else {
-                            logger.info("Ignoring update of channel {}, it is date field with no proper mapping available.", channelUID);
-                        }
-                    } else {
+            refreshChannel(channelUID, false);
+        }
+    }
+
+    @Override
+    protected void refreshChannel(ChannelUID channelUID, boolean onChange) {
+        if (wmbusDevice != null) {
+            Type recordType = channelMapping.get(channelUID.getId());
+            if (recordType != null) {
+                Optional<Record<?>> record = wmbusDevice.getRecord(recordType);
+                if (record.isPresent() && !shouldPublish(channelUID, record.get().getValue(), onChange)) {
+                    return;
+                }
+
+                if (recordType.isDate()) {
+                    String acceptedType = "";
+                    Channel channel = getThing().getChannel(channelUID.getId());
+                    if (channel != null) {
+                        acceptedType = channel.getAcceptedItemType();
+                    }
+                    if (CoreItemFactory.DATETIME.equals(acceptedType) && DateFieldMode.DATE_TIME == getDateFieldMode()) {
                         record.map(measurement -> map(measurement, measurement.getValue()))
                                 .ifPresent(state -> updateState(channelUID.getId(), state));
-                    }
-
-                    if (!record.isPresent()) {
-                        logger.warn("Could not read value of record {} in received frame", recordType);
+                    } else if (CoreItemFactory.STRING.equals(acceptedType) && DateFieldMode.FORMATTED_STRING == getDateFieldMode()) {
+                        record.map(measurement -> map(measurement, measurement.getValue()))
+                                .ifPresent(state -> updateState(channelUID.getId(), state));
+                    } else if (CoreItemFactory.NUMBER.equals(acceptedType) && DateFieldMode.UNIX_TIMESTAMP == getDateFieldMode()) {
+                        record.map(measurement -> map(measurement, measurement.getValue()))
+                                .ifPresent(state -> updateState(channelUID.getId(), state));
+                    } else {
+                        logger.info("Ignoring update of channel {}, it is date field with no proper mapping available.", channelUID);
                     }
                 } else {
-                    logger.warn("Unown channel {}, not supported by {}", channelUID, thing.getUID());
+                    record.map(measurement -> map(measurement, measurement.getValue()))
+                            .ifPresent(state -> updateState(channelUID.getId(), state));
+                }
+
+                if (!record.isPresent()) {
+                    logger.warn("Could not read value of record {} in received frame", recordType);
                 }
+            } else {
+                logger.warn("Unown channel {}, not supported by {}", channelUID, thing.getUID());
             }
         }
     }
@@ -8,50 +8,404 @@
  */
 package org.openhab.binding.wmbus.discovery;
 
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.handler.WMBusAdapter;
 import org.openhab.binding.wmbus.handler.WMBusMessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Listener backed by given set of other listeners.
  *
+ * Listeners are kept in immutable array which is replaced on every change, so notifications never wait for
+ * registration of listeners and registration never interrupts notification in progress. Listener might be registered
+ * as asynchronous one, then it gets its own worker and bounded queue - once queue is full oldest notification is
+ * discarded, so slow listener does not hold back caller nor other listeners.
+ *
+ * Time spent by each listener is measured. Calls which take longer than configured threshold are counted and reported
+ * in log, so slow listener can be identified.
+ *
  * @author Łukasz Dywicki - initial contribution
  */
 public class CompositeMessageListener implements WMBusMessageListener {
 
-    private final Set<WMBusMessageListener> listeners;
+    /**
+     * Default capacity of queue of asynchronous listener.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * Default time after which call of listener is considered slow, in milliseconds.
+     */
+    public static final long DEFAULT_SLOW_THRESHOLD = 100;
+
+    // limits warnings about the same slow listener
+    private static final long WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger logger = LoggerFactory.getLogger(CompositeMessageListener.class);
+
+    private final int queueCapacity;
+    private final long slowThreshold;
+    private final LongSupplier clock;
+
+    private volatile Entry[] entries = new Entry[0];
 
     public CompositeMessageListener() {
-        this(new LinkedHashSet<>());
+        this(DEFAULT_QUEUE_CAPACITY, DEFAULT_SLOW_THRESHOLD);
     }
 
     public CompositeMessageListener(Set<WMBusMessageListener> listeners) {
-        this.listeners = listeners;
+        this();
+        for (WMBusMessageListener listener : listeners) {
+            addMessageListener(listener);
+        }
+    }
+
+    /**
+     * Creates composite listener.
+     *
+     * @param queueCapacity Capacity of queue of each asynchronous listener.
+     * @param slowThreshold Time after which call of listener is considered slow, in milliseconds.
+     */
+    public CompositeMessageListener(int queueCapacity, long slowThreshold) {
+        this(queueCapacity, slowThreshold, System::nanoTime);
+    }
+
+    CompositeMessageListener(int queueCapacity, long slowThreshold, LongSupplier clock) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+
+        this.queueCapacity = queueCapacity;
+        this.slowThreshold = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+        this.clock = clock;
     }
 
     @Override
     public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
-        for (WMBusMessageListener listener : listeners) {
-            listener.onNewWMBusDevice(adapter, device);
+        for (Entry entry : entries) {
+            entry.deliver(adapter, device, true);
         }
     }
 
     @Override
     public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
-        for (WMBusMessageListener listener : listeners) {
-            listener.onChangedWMBusDevice(adapter, device);
+        for (Entry entry : entries) {
+            entry.deliver(adapter, device, false);
         }
     }
 
+    /**
+     * Registers listener which is called by thread which delivers notification.
+     *
+     * @param listener Listener.
+     */
     public void addMessageListener(WMBusMessageListener listener) {
-        this.listeners.add(listener);
+        addMessageListener(listener, false);
+    }
+
+    /**
+     * Registers listener. Registering the same listener again has no effect.
+     *
+     * @param listener Listener.
+     * @param async True if listener should be called by its own worker.
+     */
+    public synchronized void addMessageListener(WMBusMessageListener listener, boolean async) {
+        for (Entry entry : entries) {
+            if (entry.listener == listener) {
+                return;
+            }
+        }
+
+        Entry entry = async ? new AsyncEntry(listener) : new Entry(listener);
+        Entry[] updated = Arrays.copyOf(entries, entries.length + 1);
+        updated[entries.length] = entry;
+        entries = updated;
+        entry.start();
+    }
+
+    public synchronized void removeMessageListener(WMBusMessageListener listener) {
+        Entry[] current = entries;
+        for (int index = 0; index < current.length; index++) {
+            if (current[index].listener == listener) {
+                Entry[] updated = new Entry[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+                entries = updated;
+                current[index].stop();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Unregisters all listeners and stops workers of asynchronous ones.
+     */
+    public synchronized void close() {
+        Entry[] current = entries;
+        entries = new Entry[0];
+        for (Entry entry : current) {
+            entry.stop();
+        }
+    }
+
+    /**
+     * Returns statistics of registered listeners, in order of their registration.
+     *
+     * @return Statistics of listeners.
+     */
+    public List<ListenerStatistics> getStatistics() {
+        Entry[] current = entries;
+        List<ListenerStatistics> statistics = new ArrayList<>(current.length);
+        for (Entry entry : current) {
+            statistics.add(entry.statistics());
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    class Entry {
+
+        final WMBusMessageListener listener;
+
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+        private final AtomicLong slowCalls = new AtomicLong();
+        private final AtomicLong lastWarning = new AtomicLong();
+
+        Entry(WMBusMessageListener listener) {
+            this.listener = listener;
+        }
+
+        void start() {
+        }
+
+        void stop() {
+        }
+
+        void deliver(WMBusAdapter adapter, WMBusDevice device, boolean added) {
+            call(adapter, device, added);
+        }
+
+        final void call(WMBusAdapter adapter, WMBusDevice device, boolean added) {
+            long start = clock.getAsLong();
+            try {
+                if (added) {
+                    listener.onNewWMBusDevice(adapter, device);
+                } else {
+                    listener.onChangedWMBusDevice(adapter, device);
+                }
+            } catch (Exception e) {
+                logger.error("An exception occurred while notifying listener {}", listener, e);
+            } finally {
+                record(clock.getAsLong() - start);
+            }
+        }
+
+        private void record(long time) {
+            calls.incrementAndGet();
+            totalTime.addAndGet(time);
+            maxTime.accumulateAndGet(time, Math::max);
+
+            if (time >= slowThreshold) {
+                long count = slowCalls.incrementAndGet();
+                long now = clock.getAsLong();
+                long last = lastWarning.get();
+                if ((count == 1 || now - last >= WARNING_INTERVAL) && lastWarning.compareAndSet(last, now)) {
+                    logger.warn("Listener {} took {} ms to handle message, it was slow {} times so far", listener,
+                            TimeUnit.NANOSECONDS.toMillis(time), count);
+                }
+            }
+        }
+
+        int getQueueDepth() {
+            return 0;
+        }
+
+        long getDroppedCount() {
+            return 0;
+        }
+
+        boolean isAsync() {
+            return false;
+        }
+
+        ListenerStatistics statistics() {
+            long count = calls.get();
+            return new ListenerStatistics(listener, isAsync(), count, count == 0 ? 0 : totalTime.get() / count,
+                    maxTime.get(), slowCalls.get(), getQueueDepth(), getDroppedCount());
+        }
+    }
+
+    class AsyncEntry extends Entry implements Runnable {
+
+        private final BlockingQueue<Notification> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile Thread worker;
+
+        AsyncEntry(WMBusMessageListener listener) {
+            super(listener);
+        }
+
+        @Override
+        void start() {
+            Thread worker = new Thread(this, "wmbus-listener-" + listener.getClass().getSimpleName());
+            worker.setDaemon(true);
+            this.worker = worker;
+            worker.start();
+        }
+
+        @Override
+        void stop() {
+            Thread worker = this.worker;
+            this.worker = null;
+            if (worker != null) {
+                worker.interrupt();
+            }
+            queue.clear();
+        }
+
+        @Override
+        void deliver(WMBusAdapter adapter, WMBusDevice device, boolean added) {
+            Notification notification = new Notification(adapter, device, added);
+            while (!queue.offer(notification)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                    logger.trace("Queue of listener {} is full, discarding oldest message", listener);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Thread current = Thread.currentThread();
+            while (worker == current && !current.isInterrupted()) {
+                Notification notification;
+                try {
+                    notification = queue.take();
+                } catch (InterruptedException e) {
+                    current.interrupt();
+                    break;
+                }
+                call(notification.adapter, notification.device, notification.added);
+            }
+        }
+
+        @Override
+        int getQueueDepth() {
+            return queue.size();
+        }
+
+        @Override
+        long getDroppedCount() {
+            return dropped.get();
+        }
+
+        @Override
+        boolean isAsync() {
+            return true;
+        }
+    }
+
+    static class Notification {
+
+        final WMBusAdapter adapter;
+        final WMBusDevice device;
+        final boolean added;
+
+        Notification(WMBusAdapter adapter, WMBusDevice device, boolean added) {
+            this.adapter = adapter;
+            this.device = device;
+            this.added = added;
+        }
     }
 
-    public void removeMessageListener(WMBusMessageListener listener) {
-        this.listeners.add(listener);
+    /**
+     * Point in time statistics of single listener. Times are given in nanoseconds.
+     */
+    public static class ListenerStatistics {
+
+        private final WMBusMessageListener listener;
+        private final boolean async;
+        private final long calls;
+        private final long meanTime;
+        private final long maxTime;
+        private final long slowCalls;
+        private final int queueDepth;
+        private final long droppedCount;
+
+        ListenerStatistics(WMBusMessageListener listener, boolean async, long calls, long meanTime, long maxTime,
+                long slowCalls, int queueDepth, long droppedCount) {
+            this.listener = listener;
+            this.async = async;
+            this.calls = calls;
+            this.meanTime = meanTime;
+            this.maxTime = maxTime;
+            this.slowCalls = slowCalls;
+            this.queueDepth = queueDepth;
+            this.droppedCount = droppedCount;
+        }
+
+        public WMBusMessageListener getListener() {
+            return listener;
+        }
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getMeanTime() {
+            return meanTime;
+        }
+
+        public long getMaxTime() {
+            return maxTime;
+        }
+
+        /**
+         * Number of calls which took longer than slow threshold.
+         *
+         * @return Number of slow calls.
+         */
+        public long getSlowCalls() {
+            return slowCalls;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Number of messages which were discarded because listener did not keep up, always zero for synchronous
+         * listeners.
+         *
+         * @return Number of dropped messages.
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "ListenerStatistics [listener=" + listener + ", async=" + async + ", calls=" + calls + ", meanTime="
+                    + meanTime + ", maxTime=" + maxTime + ", slowCalls=" + slowCalls + ", queueDepth=" + queueDepth
+                    + ", droppedCount=" + droppedCount + "]";
+        }
     }
 
 }
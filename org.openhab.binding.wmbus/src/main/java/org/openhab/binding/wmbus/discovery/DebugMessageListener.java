@@ -1,14 +1,12 @@
 package org.openhab.binding.wmbus.discovery;
 
-import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.DecodedFrame;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.handler.WMBusAdapter;
 import org.openhab.binding.wmbus.handler.WMBusMessageListener;
 import org.openmuc.jmbus.DataRecord;
 import org.openmuc.jmbus.DecodingException;
-import org.openmuc.jmbus.EncryptionMode;
 import org.openmuc.jmbus.SecondaryAddress;
-import org.openmuc.jmbus.VariableDataStructure;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,27 +30,23 @@ public class DebugMessageListener implements WMBusMessageListener {
         SecondaryAddress secondaryAddress = device.getOriginalMessage().getSecondaryAddress();
 
         if (!"TCH".equals(secondaryAddress.getManufacturerId())) {
+            // frame was already decoded, and decrypted if key was known, by bridge which received it
+            DecodedFrame frame = device.getDecodedFrame();
 
-            try {
-                VariableDataStructure vdr = device.getOriginalMessage().getVariableDataResponse();
+            if (frame.isDecoded()) {
+                logger.debug("Received telegram ({}): status: {}, encryption mode: {}, number of records: {}",
+                        secondaryAddress, frame.getStatus(), frame.getEncryptionMode(), frame.getRecords().size());
+                logger.debug("Message in hex: {}", device.getFrame());
 
-                if (vdr.getEncryptionMode() == EncryptionMode.NONE) {
-                    vdr.decode();
-
-                    logger.debug(
-                            "Received telegram ({}): access number: {}, status: {}, encryption mode: {}, number of encrypted blocks: {}",
-                            secondaryAddress, vdr.getAccessNumber(), vdr.getStatus(), vdr.getEncryptionMode(),
-                            vdr.getNumberOfEncryptedBlocks());
-                    logger.debug("Message in hex: {}", HexUtils.bytesToHex(device.getOriginalMessage().asBlob()));
-
-                    for (DataRecord record : vdr.getDataRecords()) {
-                        logger.debug("> record: {}", record.toString());
-                    }
-                } else {
-                    logger.debug("Encrypted block {}", vdr);
+                for (DataRecord record : frame.getRecords()) {
+                    logger.debug("> record: {}", record.toString());
                 }
-            } catch (DecodingException e) {
-                logger.debug("Could not decode frame ({})", secondaryAddress, e.getMessage());
+            } else if (frame.getStatus() == DecodedFrame.Status.ENCRYPTED) {
+                logger.debug("Encrypted telegram ({}) could not be decrypted, encryption mode: {}", secondaryAddress,
+                        frame.getEncryptionMode());
+            } else {
+                logger.debug("Could not decode frame ({}): {}", secondaryAddress,
+                        frame.getError().map(DecodingException::getMessage).orElse(null));
             }
         }
 
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.handler;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openmuc.jmbus.Bcd;
+import org.openmuc.jmbus.DataRecord;
+
+/**
+ * Memory of values last published to thing channels. Values are compared in their decoded form (ie. number read from
+ * record), so states sent to framework do not have to be created when nothing changed.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+class ChannelValueCache {
+
+    // marker for null values, not permitted by concurrent map
+    private static final Object NO_VALUE = new Object();
+
+    private final Map<String, PublishedValue> values = new ConcurrentHashMap<>();
+    private final long publishInterval;
+    private final LongSupplier clock;
+
+    /**
+     * Creates new cache.
+     *
+     * @param publishInterval Interval in milliseconds after which unchanged value should be published again. Zero or
+     *            negative value means that unchanged values are never published again.
+     */
+    ChannelValueCache(long publishInterval) {
+        this(publishInterval, System::nanoTime);
+    }
+
+    ChannelValueCache(long publishInterval, LongSupplier clock) {
+        this.publishInterval = TimeUnit.MILLISECONDS.toNanos(publishInterval);
+        this.clock = clock;
+    }
+
+    /**
+     * Checks if given value should be published to channel and, if so, remembers it as last published value.
+     *
+     * @param channelId Channel identifier.
+     * @param value Value to publish.
+     * @return True if value differs from last published one or publish interval elapsed.
+     */
+    boolean update(String channelId, Object value) {
+        long now = clock.getAsLong();
+        Object current = value == null ? NO_VALUE : value;
+
+        PublishedValue published = values.get(channelId);
+        if (published != null && published.value.equals(current)
+                && (publishInterval <= 0 || now - published.timestamp < publishInterval)) {
+            return false;
+        }
+
+        values.put(channelId, new PublishedValue(current, now));
+        return true;
+    }
+
+    void forget(String channelId) {
+        values.remove(channelId);
+    }
+
+    void clear() {
+        values.clear();
+    }
+
+    /**
+     * Returns form of record value which is suitable for comparison. Scaling and unit are same for all records
+     * published to the same channel, so raw value is sufficient.
+     *
+     * @param record Data record.
+     * @return Value to compare.
+     */
+    static Object valueOf(DataRecord record) {
+        Object value = record.getDataValue();
+        if (value instanceof Bcd) {
+            // bcd does not implement equals, compare its digits
+            return ByteBuffer.wrap(((Bcd) value).getBytes());
+        }
+        return value;
+    }
+
+    static class PublishedValue {
+
+        private final Object value;
+        private final long timestamp;
+
+        PublishedValue(Object value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+
+}
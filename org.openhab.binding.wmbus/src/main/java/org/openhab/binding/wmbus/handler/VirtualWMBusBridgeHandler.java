@@ -55,9 +55,10 @@ public class VirtualWMBusBridgeHandler extends WMBusBridgeHandlerBase {
         logger.debug("WMBusBridgeHandler: initialize()");
 
         updateStatus(ThingStatus.UNKNOWN);
-        wmbusReceiver = new WMBusReceiver(this);
-
         WMBusBridgeConfig config = getConfigAs(WMBusBridgeConfig.class);
+        startPipeline(config);
+
+        wmbusReceiver = new WMBusReceiver(this);
         if (config.deviceIDFilter == null || config.deviceIDFilter.trim().isEmpty()) {
             logger.debug("Device ID filter is empty.");
         } else {
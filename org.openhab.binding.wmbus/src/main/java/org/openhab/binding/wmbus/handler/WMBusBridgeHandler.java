@@ -87,6 +87,7 @@ public class WMBusBridgeHandler extends WMBusBridgeHandlerBase {
 
         WMBusSerialBridgeConfig config = getConfigAs(WMBusSerialBridgeConfig.class);
         updateStatus(ThingStatus.UNKNOWN);
+        startPipeline(config);
         initFuture = scheduler.schedule(() -> {
             // set up WMBus receiver = handler for radio telegrams
             if (wmbusReceiver == null) {
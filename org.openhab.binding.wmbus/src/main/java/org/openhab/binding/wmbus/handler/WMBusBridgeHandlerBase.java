@@ -10,22 +10,22 @@ package org.openhab.binding.wmbus.handler;
 
 import static org.openhab.binding.wmbus.WMBusBindingConstants.*;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
@@ -34,16 +34,20 @@ import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.ConfigStatusBridgeHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.DecodedFrame;
 import org.openhab.binding.wmbus.WMBusBindingConstants;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.config.DateFieldMode;
 import org.openhab.binding.wmbus.config.WMBusBridgeConfig;
+import org.openhab.binding.wmbus.internal.DeadlineWheel;
+import org.openhab.binding.wmbus.internal.DeviceRegistry;
+import org.openhab.binding.wmbus.internal.DeviceSummary;
+import org.openhab.binding.wmbus.internal.DuplicateFilter;
+import org.openhab.binding.wmbus.internal.IngestPipeline;
+import org.openhab.binding.wmbus.internal.Throttle;
 import org.openhab.binding.wmbus.internal.WMBusReceiver;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
 import org.openhab.io.transport.mbus.wireless.KeyStorage;
-import org.openmuc.jmbus.DecodingException;
-import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
-import org.openmuc.jmbus.wireless.WMBusMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,27 +57,40 @@ import org.slf4j.LoggerFactory;
  *
  * @author Łukasz Dywicki - Initial contribution, extracted from {@link WMBusBridgeHandler}.
  */
-public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler implements WMBusAdapter {
+public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler implements WMBusDispatchingAdapter {
 
     private static final ScheduledExecutorService SCHEDULER = ThreadPoolManager.getScheduledPool("wmbus");
 
     private static final String DEVICE_STATE_ADDED = "added";
     private static final String DEVICE_STATE_CHANGED = "changed";
 
+    /**
+     * Interval of statistics channel updates, in seconds.
+     */
+    private static final long STATISTICS_INTERVAL = 10;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final KeyStorage keyStorage;
-    private final Map<String, WMBusDevice> knownDevices = new ConcurrentHashMap<>();
-    private final Set<WMBusDeviceHandler<WMBusDevice>> handlers = Collections.synchronizedSet(new HashSet<>());
+    private final DeviceRegistry knownDevices = new DeviceRegistry();
+    private final Map<DeviceAddress, List<WMBusDeviceHandler<WMBusDevice>>> handlerIndex = new ConcurrentHashMap<>();
     private final List<WMBusMessageListener> wmBusMessageListeners = new CopyOnWriteArrayList<>();
     protected WMBusReceiver wmbusReceiver;
-    private ScheduledFuture<?> statusFuture;
+    private ScheduledFuture<?> statisticsFuture;
     private AtomicBoolean updateFrames = new AtomicBoolean(false);
+    private volatile IngestPipeline<WMBusDevice> pipeline;
+    private volatile DuplicateFilter duplicateFilter;
+    private final Throttle<DeviceAddress, WMBusDevice> throttle;
+    private volatile DeadlineWheel<WMBusDeviceHandler<?>> offlineTimers;
+    private final AtomicLong failedDecryptions = new AtomicLong();
+    private final Map<DeviceAddress, AtomicLong> deviceFailedDecryptions = new ConcurrentHashMap<>();
+    private volatile Consumer<WMBusDevice> dispatchCallback;
 
     public WMBusBridgeHandlerBase(Bridge bridge, KeyStorage keyStorage) {
         super(bridge);
         this.keyStorage = keyStorage;
-        this.statusFuture = SCHEDULER.scheduleAtFixedRate(new StatusRunnable(handlers), 60, 60, TimeUnit.SECONDS);
+        // scheduler is shared by all bridges, frames released by it must not wait for room in queue of this bridge
+        this.throttle = new Throttle<>(SCHEDULER, this::enqueue, this::enqueueDeferred);
     }
 
     @Override
@@ -84,9 +101,122 @@ public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler i
 
     @Override
     public void dispose() {
-        if (statusFuture != null) {
-            statusFuture.cancel(true);
-            statusFuture = null;
+        throttle.cancel();
+        stopPipeline();
+    }
+
+    /**
+     * Sets timer shared by all bridges of binding which detects devices which stopped sending frames.
+     *
+     * @param offlineTimers Timer which calls {@link WMBusDeviceHandler#checkStatus()} once deadline passes.
+     */
+    public void setOfflineTimers(DeadlineWheel<WMBusDeviceHandler<?>> offlineTimers) {
+        this.offlineTimers = offlineTimers;
+    }
+
+    /**
+     * Sets deadline after which handler is asked to check its status, replacing earlier one.
+     *
+     * @param handler Device handler.
+     * @param timeout Time after which handler status should be checked, in milliseconds.
+     */
+    void scheduleStatusCheck(WMBusDeviceHandler<?> handler, long timeout) {
+        DeadlineWheel<WMBusDeviceHandler<?>> offlineTimers = this.offlineTimers;
+        if (offlineTimers != null) {
+            offlineTimers.schedule(handler, timeout);
+        }
+    }
+
+    void cancelStatusCheck(WMBusDeviceHandler<?> handler) {
+        DeadlineWheel<WMBusDeviceHandler<?>> offlineTimers = this.offlineTimers;
+        if (offlineTimers != null) {
+            offlineTimers.cancel(handler);
+        }
+    }
+
+    /**
+     * Starts processing queue which decouples frame reception from decryption, decoding and dispatching to listeners.
+     * Calling this method when pipeline is already running has no effect.
+     *
+     * @param config Bridge configuration.
+     */
+    protected synchronized void startPipeline(WMBusBridgeConfig config) {
+        if (pipeline != null && pipeline.isRunning()) {
+            return;
+        }
+
+        knownDevices.configure(config.deviceCacheSize, TimeUnit.MINUTES.toMillis(config.deviceTimeToLive));
+        duplicateFilter = new DuplicateFilter(config.duplicateWindow, config.duplicateCacheSize, config.keepBestRssi);
+        pipeline = new IngestPipeline<>("wmbus-" + getThing().getUID().getId(), config.queueCapacity,
+                config.workerThreads, config.overflowPolicy, WMBusDevice::getAddress, this::dispatchMessage);
+        pipeline.start();
+
+        statisticsFuture = SCHEDULER.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_INTERVAL,
+                STATISTICS_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    protected synchronized void stopPipeline() {
+        if (statisticsFuture != null) {
+            statisticsFuture.cancel(true);
+            statisticsFuture = null;
+        }
+
+        if (pipeline != null) {
+            pipeline.stop();
+            pipeline = null;
+        }
+        duplicateFilter = null;
+    }
+
+    /**
+     * Number of frames waiting for processing.
+     *
+     * @return Current length of processing queue.
+     */
+    public int getQueueDepth() {
+        IngestPipeline<WMBusDevice> pipeline = this.pipeline;
+        return pipeline == null ? 0 : pipeline.getQueueDepth();
+    }
+
+    /**
+     * Number of frames discarded due to processing queue overflow since pipeline start.
+     *
+     * @return Number of dropped frames.
+     */
+    public long getDroppedFrames() {
+        IngestPipeline<WMBusDevice> pipeline = this.pipeline;
+        return pipeline == null ? 0 : pipeline.getDroppedCount();
+    }
+
+    /**
+     * Share of telegrams which were recognized as copies of earlier telegram since pipeline start.
+     *
+     * @return Value between 0 and 1.
+     */
+    public double getDuplicateRatio() {
+        DuplicateFilter duplicateFilter = this.duplicateFilter;
+        return duplicateFilter == null ? 0 : duplicateFilter.getDuplicateRatio();
+    }
+
+    private void updateStatistics() {
+        if (isLinked(CHANNEL_QUEUE_DEPTH)) {
+            updateState(CHANNEL_QUEUE_DEPTH, new DecimalType(getQueueDepth()));
+        }
+        if (isLinked(CHANNEL_DROPPED_FRAMES)) {
+            updateState(CHANNEL_DROPPED_FRAMES, new DecimalType(getDroppedFrames()));
+        }
+        if (isLinked(CHANNEL_DUPLICATE_RATIO)) {
+            updateState(CHANNEL_DUPLICATE_RATIO, new DecimalType(getDuplicateRatio()));
+        }
+        if (isLinked(CHANNEL_FAILED_DECRYPTIONS)) {
+            updateState(CHANNEL_FAILED_DECRYPTIONS, new DecimalType(getFailedDecryptions()));
+        }
+        knownDevices.cleanUp();
+        if (isLinked(CHANNEL_KNOWN_DEVICES)) {
+            updateState(CHANNEL_KNOWN_DEVICES, new DecimalType(knownDevices.size()));
+        }
+        if (isLinked(CHANNEL_EVICTED_DEVICES)) {
+            updateState(CHANNEL_EVICTED_DEVICES, new DecimalType(getEvictedDevices()));
         }
     }
 
@@ -100,7 +230,7 @@ public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler i
         logger.trace("register listener: Success");
         if (result) {
             // inform the listener initially about all devices and their states
-            for (WMBusDevice device : knownDevices.values()) {
+            for (WMBusDevice device : knownDevices.getDevices()) {
                 wmBusMessageListener.onNewWMBusDevice(this, device);
             }
         }
@@ -108,107 +238,213 @@ public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler i
     }
 
     /**
-     * Iterate through wmBusMessageListeners and notify them about a newly received message.
+     * Iterate through wmBusMessageListeners and thing handlers configured for device address and notify them about a
+     * newly received message.
      *
      * @param device
      */
-    private void notifyWMBusMessageListeners(final WMBusDevice device, final String type) {
+    private void notifyWMBusMessageListeners(final WMBusDevice device, final DeviceAddress deviceAddress,
+            final String type) {
         logger.trace("bridge: notify message listeners: sending to all");
-        WMBusDevice decrypt = decrypt(device);
-
-        // below we append thing handlers which are configured for given device address
-        ArrayList<WMBusMessageListener> listeners = new ArrayList<>(this.wmBusMessageListeners);
-        handlers.stream().filter(h -> device.getDeviceAddress().equals(h.getDeviceAddress()))
-            .collect(Collectors.toCollection(() -> listeners));
-
-        for (WMBusMessageListener wmBusMessageListener : listeners) {
-            try {
-                switch (type) {
-                    case DEVICE_STATE_ADDED: {
-                        wmBusMessageListener.onNewWMBusDevice(this, decrypt);
-                        break;
-                    }
-                    case DEVICE_STATE_CHANGED: {
-                        wmBusMessageListener.onChangedWMBusDevice(this, decrypt);
-                        break;
-                    }
-                    default: {
-                        throw new IllegalArgumentException(
-                                "Could not notify wmBusMessageListeners for unknown event type " + type);
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("An exception occurred while notifying the WMBusMessageListener", e);
+        for (WMBusMessageListener wmBusMessageListener : wmBusMessageListeners) {
+            notifyWMBusMessageListener(wmBusMessageListener, device, type);
+        }
+
+        List<WMBusDeviceHandler<WMBusDevice>> deviceHandlers = handlerIndex.get(deviceAddress);
+        if (deviceHandlers != null) {
+            for (WMBusDeviceHandler<WMBusDevice> deviceHandler : deviceHandlers) {
+                notifyWMBusMessageListener(deviceHandler, device, type);
             }
         }
 
         logger.trace("bridge: notify message listeners: return");
     }
 
+    private void notifyWMBusMessageListener(WMBusMessageListener wmBusMessageListener, WMBusDevice device,
+            String type) {
+        try {
+            switch (type) {
+                case DEVICE_STATE_ADDED: {
+                    wmBusMessageListener.onNewWMBusDevice(this, device);
+                    break;
+                }
+                case DEVICE_STATE_CHANGED: {
+                    wmBusMessageListener.onChangedWMBusDevice(this, device);
+                    break;
+                }
+                default: {
+                    throw new IllegalArgumentException(
+                            "Could not notify wmBusMessageListeners for unknown event type " + type);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("An exception occurred while notifying the WMBusMessageListener", e);
+        }
+    }
+
     /**
-     * Because we do not add encryption keys to connection and they are propagated from connection down to received
-     * frame and its parsing logic we need to inject encryption keys after message is received and before its first use
-     * to avoid troubles.
-     * Yes, we do it manually because jmbus does not offer any API/SPI for that.
+     * Decodes frame before it is passed to listeners. Encrypted frames are decrypted with key of sending device before
+     * they are parsed, so every frame is parsed once.
      *
      * @param device Incoming frame.
-     * @return Decrypted frame or original (unencrypted) frame when parsing fails.
+     * @return Outcome of decoding.
      */
-    protected WMBusDevice decrypt(WMBusDevice device) {
-        try {
-            device.decode();
-        } catch (DecodingException parseException) {
-            if (parseException.getMessage().startsWith("Unable to decode encrypted payload")) {
-                try {
-                    WMBusMessage message = VirtualWMBusMessageHelper
-                            .decode(device.getOriginalMessage().asBlob(), device.getOriginalMessage().getRssi(),
-                                    keyStorage.toMap());
-                    message.getVariableDataResponse().decode();
-                    logger.info("Message from {} successfully decrypted, forwarding it to receivers",
-                            device.getDeviceAddress());
-                    return new WMBusDevice(message, this);
-                } catch (DecodingException decodingException) {
-                    logger.info(
-                            "Could not decode frame, probably we still miss encryption key, forwarding frame in original form. {}",
-                            decodingException.getMessage());
+    protected DecodedFrame decode(WMBusDevice device) {
+        DecodedFrame frame = device.getDecodedFrame(keyStorage);
+        switch (frame.getStatus()) {
+            case ENCRYPTED:
+                // missing or wrong key, reported through counters as it repeats for every frame
+                failedDecryptions.incrementAndGet();
+                AtomicLong counter = deviceFailedDecryptions.get(device.getAddress());
+                if (counter != null) {
+                    counter.incrementAndGet();
                 }
-            } else if (parseException.getMessage().startsWith("Manufacturer specific CI:") || parseException
-                    .getMessage().startsWith("Unable to decode message with this CI Field")) {
-                logger.debug("Found frame with manufacturer specific encoding, forwarding for futher processing.");
-            } else {
-                logger.debug("Unexpected error while parsing frame, forwarding frame in original form", parseException);
-            }
+                break;
+            case MANUFACTURER_SPECIFIC:
+                logger.trace("Found frame with manufacturer specific encoding, forwarding for futher processing.");
+                break;
+            case FAILED:
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Unexpected error while parsing frame, forwarding frame in original form",
+                            frame.getError().orElse(null));
+                }
+                break;
+            default:
+                break;
         }
-        return device;
+        return frame;
     }
 
     @Override
     public void processMessage(WMBusDevice device) {
         if (updateFrames.get()) {
-            StringType frame = StringType.valueOf(HexUtils.bytesToHex(device.getOriginalMessage().asBlob()));
+            StringType frame = StringType.valueOf(device.getFrame().toHexString());
             getCallback().stateUpdated(new ChannelUID(getUID(), WMBusBindingConstants.CHANNEL_LAST_FRAME), frame);
         }
-        logger.trace("bridge: processMessage begin");
 
-        String deviceAddress = device.getDeviceAddress();
-        String deviceState = DEVICE_STATE_ADDED;
-        if (knownDevices.containsKey(deviceAddress)) {
-            deviceState = DEVICE_STATE_CHANGED;
+        DuplicateFilter duplicateFilter = this.duplicateFilter;
+        if (duplicateFilter != null && !duplicateFilter.accept(device.getAddress(), device.getFrame(),
+                device.getOriginalMessage().getRssi())) {
+            // copy of telegram received a moment ago, ie. through repeater, skip it before any decryption happens
+            logger.trace("Dropping duplicate telegram from {}", device.getAddress());
+            return;
+        }
+
+        // devices which report more often than their things need are limited here, also before decryption
+        throttle.submit(device.getAddress(), device);
+    }
+
+    private void enqueue(WMBusDevice device) {
+        IngestPipeline<WMBusDevice> pipeline = this.pipeline;
+        if (pipeline == null) {
+            // bridge did not start its queue, process frame in calling thread
+            dispatchMessage(device);
+        } else {
+            pipeline.submit(device);
         }
-        knownDevices.put(deviceAddress, device);
+    }
+
+    private void enqueueDeferred(WMBusDevice device) {
+        IngestPipeline<WMBusDevice> pipeline = this.pipeline;
+        if (pipeline != null) {
+            pipeline.offer(device);
+        }
+    }
+
+    /**
+     * Final stage of frame processing which is executed by pipeline workers.
+     *
+     * @param device Received frame.
+     */
+    protected void dispatchMessage(WMBusDevice device) {
+        logger.trace("bridge: processMessage begin");
+
+        DeviceAddress deviceAddress = device.getAddress();
+        // frame is decoded (and decrypted if possible) once, all listeners and later lookups share outcome
+        decode(device);
+        String deviceState = knownDevices.update(device) ? DEVICE_STATE_CHANGED : DEVICE_STATE_ADDED;
         logger.trace("bridge processMessage: notifying listeners");
-        notifyWMBusMessageListeners(device, deviceState);
+        notifyWMBusMessageListeners(device, deviceAddress, deviceState);
+
+        Consumer<WMBusDevice> dispatchCallback = this.dispatchCallback;
+        if (dispatchCallback != null) {
+            dispatchCallback.accept(device);
+        }
         logger.trace("bridge: processMessage end");
     }
 
-    public WMBusDevice getDeviceByAddress(String deviceAddress) {
-        logger.trace("bridge: get device by address: " + deviceAddress);
-        if (knownDevices.containsKey(deviceAddress)) {
+    @Override
+    public void setDispatchCallback(@Nullable Consumer<WMBusDevice> dispatchCallback) {
+        this.dispatchCallback = dispatchCallback;
+    }
+
+    /**
+     * Number of frames sent by given device which were skipped because they arrived before minimum processing interval
+     * configured for its thing elapsed.
+     *
+     * @param deviceAddress Device address.
+     * @return Number of skipped frames.
+     */
+    public long getThrottledFrames(DeviceAddress deviceAddress) {
+        return throttle.getDroppedCount(deviceAddress);
+    }
+
+    /**
+     * Number of frames sent by given device which could not be decrypted, due to missing or wrong key. Frames are
+     * counted only for devices with configured things.
+     *
+     * @param deviceAddress Device address.
+     * @return Number of frames which remained encrypted.
+     */
+    public long getFailedDecryptions(DeviceAddress deviceAddress) {
+        AtomicLong counter = deviceFailedDecryptions.get(deviceAddress);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Number of frames which could not be decrypted since bridge start.
+     *
+     * @return Number of frames which remained encrypted.
+     */
+    public long getFailedDecryptions() {
+        return failedDecryptions.get();
+    }
+
+    /**
+     * Returns last frame received from device. Frames are retained only for devices with configured things.
+     *
+     * @param deviceAddress Device address.
+     * @return Last frame or null if device was not heard yet.
+     */
+    public WMBusDevice getDeviceByAddress(DeviceAddress deviceAddress) {
+        logger.trace("bridge: get device by address: {}", deviceAddress);
+        WMBusDevice device = knownDevices.getDevice(deviceAddress);
+        if (device != null) {
             logger.trace("bridge: found device");
         } else {
             logger.trace("bridge: device not found");
         }
-        return knownDevices.get(deviceAddress);
+        return device;
+    }
+
+    /**
+     * Returns summary of any device heard by bridge, including ones without configured things.
+     *
+     * @param deviceAddress Device address.
+     * @return Device summary or null if device is not known or it was forgotten.
+     */
+    public DeviceSummary getDeviceSummary(DeviceAddress deviceAddress) {
+        return knownDevices.getSummary(deviceAddress);
+    }
+
+    /**
+     * Number of devices forgotten by bridge since its start, because too many devices were heard or they were not
+     * heard for too long.
+     *
+     * @return Number of evicted devices.
+     */
+    public long getEvictedDevices() {
+        return knownDevices.getSizeEvictionCount() + knownDevices.getExpiredEvictionCount();
     }
 
     @Override
@@ -234,17 +470,74 @@ public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler i
     @Override
     public void childHandlerInitialized(@NonNull ThingHandler childHandler, @NonNull Thing childThing) {
         if (childHandler instanceof WMBusDeviceHandler) {
-            handlers.add((WMBusDeviceHandler<WMBusDevice>) childHandler);
+            indexHandler((WMBusDeviceHandler<WMBusDevice>) childHandler);
         }
     }
 
     @Override
     public void childHandlerDisposed(@NonNull ThingHandler childHandler, @NonNull Thing childThing) {
         if (childHandler instanceof WMBusDeviceHandler) {
-            handlers.remove(childHandler);
+            unindexHandler((WMBusDeviceHandler<WMBusDevice>) childHandler);
+        }
+    }
+
+    /**
+     * Associates handler with device address it is configured for, so frames sent by device can be dispatched
+     * without scanning all handlers. Handler which was already indexed under other address is moved.
+     *
+     * @param handler Device handler.
+     */
+    void indexHandler(WMBusDeviceHandler<WMBusDevice> handler) {
+        unindexHandler(handler);
+
+        DeviceAddress deviceAddress = handler.getAddress();
+        if (deviceAddress == null) {
+            return;
+        }
+
+        handlerIndex.compute(deviceAddress, (address, deviceHandlers) -> {
+            List<WMBusDeviceHandler<WMBusDevice>> result = deviceHandlers == null ? new CopyOnWriteArrayList<>()
+                    : deviceHandlers;
+            result.add(handler);
+            return result;
+        });
+        deviceFailedDecryptions.putIfAbsent(deviceAddress, new AtomicLong());
+        knownDevices.pin(deviceAddress);
+        updateThrottle(deviceAddress);
+    }
+
+    void unindexHandler(WMBusDeviceHandler<WMBusDevice> handler) {
+        // address of handler might be already reset at this point, we need to scan whole index
+        for (Map.Entry<DeviceAddress, List<WMBusDeviceHandler<WMBusDevice>>> entry : handlerIndex.entrySet()) {
+            if (!entry.getValue().contains(handler)) {
+                continue;
+            }
+
+            handlerIndex.computeIfPresent(entry.getKey(), (address, deviceHandlers) -> {
+                deviceHandlers.remove(handler);
+                if (deviceHandlers.isEmpty()) {
+                    deviceFailedDecryptions.remove(address);
+                    knownDevices.unpin(address);
+                    return null;
+                }
+                return deviceHandlers;
+            });
+            updateThrottle(entry.getKey());
         }
     }
 
+    /**
+     * Applies shortest minimum processing interval requested by things configured for given device.
+     *
+     * @param deviceAddress Device address.
+     */
+    private void updateThrottle(DeviceAddress deviceAddress) {
+        long interval = handlerIndex.getOrDefault(deviceAddress, Collections.emptyList()).stream()
+                .mapToLong(WMBusDeviceHandler::getMinimumInterval) //
+                .min().orElse(0);
+        throttle.setInterval(deviceAddress, interval);
+    }
+
     public void reset() {
         wmbusReceiver = null;
         initialize();
@@ -257,18 +550,4 @@ public abstract class WMBusBridgeHandlerBase extends ConfigStatusBridgeHandler i
             .orElse(DateFieldMode.DATE_TIME);
     }
 
-    static class StatusRunnable implements Runnable {
-
-        private final Set<WMBusDeviceHandler<WMBusDevice>> handlers;
-
-        public StatusRunnable(Set<WMBusDeviceHandler<WMBusDevice>> handlers) {
-            this.handlers = handlers;
-        }
-
-        @Override public void run() {
-            handlers.stream().forEach(WMBusDeviceHandler::checkStatus);
-        }
-
-    }
-
 }
@@ -27,11 +27,13 @@ import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
+import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.util.HexUtils;
@@ -39,6 +41,7 @@ import org.openhab.binding.wmbus.WMBusBindingConstants;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.config.DateFieldMode;
 import org.openhab.binding.wmbus.internal.WMBusException;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
 import org.openhab.io.transport.mbus.wireless.KeyStorage;
 import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
 import org.openmuc.jmbus.DataRecord;
@@ -56,14 +59,23 @@ import org.slf4j.LoggerFactory;
 public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThingHandler
         implements WMBusMessageListener {
 
+    // limits thing updates caused by device which keeps sending frames that can not be decrypted
+    private static final long FAILED_DECRYPTIONS_UPDATE_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+
     private final Logger logger = LoggerFactory.getLogger(WMBusDeviceHandler.class);
     private final KeyStorage keyStorage;
 
     protected String deviceAddress;
+    protected DeviceAddress address;
     private WMBusBridgeHandlerBase bridgeHandler;
     protected T wmbusDevice;
     protected Long lastUpdate;
     private Long frequencyOfUpdates = WMBusBindingConstants.DEFAULT_DEVICE_FREQUENCY_OF_UPDATES;
+    private long minimumInterval;
+    private volatile long lastFrameTime;
+    private long failedDecryptions;
+    private long failedDecryptionsUpdate;
+    private volatile ChannelValueCache channelValues = new ChannelValueCache(0);
     private ThingStatus status;
 
     protected WMBusDeviceHandler(Thing thing) {
@@ -80,7 +92,7 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
     @Override
     public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice wmBusDevice) {
         logger.trace("onNewWMBusDevice(): is it me?");
-        if (wmBusDevice.getDeviceAddress().equals(deviceAddress)) {
+        if (isOwnedBy(wmBusDevice)) {
             logger.trace("onNewWMBusDevice(): yes it's me");
             logger.trace("onNewWMBusDevice(): calling onChangedWMBusDevice()");
             onChangedWMBusDevice(adapter, wmBusDevice);
@@ -91,8 +103,9 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
     @Override
     public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice receivedDevice) {
         logger.trace("onChangedWMBusDevice(): is it me?");
-        if (receivedDevice.getDeviceAddress().equals(deviceAddress)) {
+        if (isOwnedBy(receivedDevice)) {
             logger.trace("onChangedWMBusDevice(): yes");
+            updateFailedDecryptions();
             // in between the good messages, there are messages with invalid values -> filter these out
             if (!checkMessage(receivedDevice)) {
                 logger.trace("onChangedWMBusDevice(): this is a malformed message, ignoring this message");
@@ -101,6 +114,7 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
                     wmbusDevice = parseDevice(receivedDevice);
                     logger.trace("onChangedWMBusDevice(): updating status to online");
                     updateStatus(ThingStatus.ONLINE);
+                    updateThrottledFrames();
 
                     if (wmbusDevice != null) {
                         logger.trace("onChangedWMBusDevice(): inform all channels to refresh");
@@ -109,7 +123,7 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
                 } catch (DecodingException e) {
                     // FIXME decoding exception should not be necessary over time
                     logger.debug("onChangedWMBusDevice(): could not decode frame {} because {}. Detail: {}",
-                            HexUtils.bytesToHex(receivedDevice.getOriginalMessage().asBlob()), e.getMessage(),
+                            receivedDevice.getFrame(), e.getMessage(),
                             receivedDevice.getOriginalMessage());
                 }
             }
@@ -124,14 +138,98 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
             @Nullable String description) {
         super.updateStatus(status, statusDetail, description);
         this.status = status;
+
+        WMBusBridgeHandlerBase bridgeHandler = getBridgeHandler();
+        if (bridgeHandler == null) {
+            return;
+        }
+        if (status == ThingStatus.ONLINE) {
+            // status is updated with every valid frame, each of them postpones moment when device is considered lost
+            lastFrameTime = System.currentTimeMillis();
+            bridgeHandler.scheduleStatusCheck(this, frequencyOfUpdates);
+        } else {
+            bridgeHandler.cancelStatusCheck(this);
+        }
+    }
+
+    private void updateThrottledFrames() {
+        if (minimumInterval <= 0) {
+            return;
+        }
+
+        WMBusBridgeHandlerBase bridgeHandler = getBridgeHandler();
+        if (bridgeHandler != null) {
+            // property changes at most once per minimum interval, so it does not cause excessive thing updates
+            updateProperty(PROPERTY_DEVICE_THROTTLED_FRAMES,
+                    Long.toString(bridgeHandler.getThrottledFrames(address)));
+        }
+    }
+
+    private void updateFailedDecryptions() {
+        WMBusBridgeHandlerBase bridgeHandler = getBridgeHandler();
+        if (bridgeHandler == null) {
+            return;
+        }
+
+        // property is touched only when bridge counted another frame which could not be decrypted, and not more often
+        // than once per update interval, as each property change is persisted
+        long failedDecryptions = bridgeHandler.getFailedDecryptions(address);
+        long now = System.currentTimeMillis();
+        boolean due = this.failedDecryptions == 0
+                || now - failedDecryptionsUpdate >= FAILED_DECRYPTIONS_UPDATE_INTERVAL;
+        if (failedDecryptions != this.failedDecryptions && due) {
+            this.failedDecryptions = failedDecryptions;
+            this.failedDecryptionsUpdate = now;
+            updateProperty(PROPERTY_DEVICE_FAILED_DECRYPTIONS, Long.toString(failedDecryptions));
+        }
     }
 
     protected void triggerRefresh() {
         lastUpdate = System.currentTimeMillis();
 
         for (Channel curChan : getThing().getChannels()) {
-            handleCommand(curChan.getUID(), RefreshType.REFRESH);
+            refreshChannel(curChan.getUID(), true);
+        }
+    }
+
+    /**
+     * Publishes value of channel taken from last received frame. Handlers which skip unchanged values override this
+     * method, default implementation passes refresh command to {@link #handleCommand(ChannelUID, Command)}.
+     *
+     * @param channelUID Channel to update.
+     * @param onChange True if refresh is caused by received frame, false if it was requested through REFRESH command.
+     */
+    protected void refreshChannel(ChannelUID channelUID, boolean onChange) {
+        handleCommand(channelUID, RefreshType.REFRESH);
+    }
+
+    /**
+     * Checks if value should be published to given channel. Values received in frame which did not change since last
+     * update are skipped, unless publish interval configured for thing passed. Explicit refresh always publishes.
+     *
+     * @param channelUID Channel to update.
+     * @param value Decoded value which is about to be published.
+     * @param onChange True if value comes from received frame and should be published only when it changed.
+     * @return True if channel state should be updated.
+     */
+    protected boolean shouldPublish(ChannelUID channelUID, Object value, boolean onChange) {
+        boolean changed = channelValues.update(channelUID.getId(), value);
+        if (!changed && onChange) {
+            logger.trace("Value {} of channel {} did not change, skipping update", value, channelUID);
+            return false;
         }
+        return true;
+    }
+
+    protected boolean shouldPublish(ChannelUID channelUID, DataRecord record, boolean onChange) {
+        return shouldPublish(channelUID, ChannelValueCache.valueOf(record), onChange);
+    }
+
+    @Override
+    public void channelLinked(@NonNull ChannelUID channelUID) {
+        // newly linked item has no state yet, it must receive current value
+        channelValues.forget(channelUID.getId());
+        super.channelLinked(channelUID);
     }
 
     protected State convertRecordData(DataRecord record) {
@@ -140,7 +238,7 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
             case LONG:
             case DOUBLE:
             case BCD:
-                return new DecimalType(record.getScaledDataValue());
+                return new DecimalType(record.getScaledDouble());
             case DATE:
                 return convertDate(record.getDataValue());
             case STRING:
@@ -183,12 +281,14 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void initialize() {
         logger.debug("Initializing handler.");
         updateStatus(ThingStatus.UNKNOWN);
 
         Configuration config = getConfig();
         deviceAddress = (String) config.getProperties().get(PROPERTY_DEVICE_ADDRESS);
+        address = null;
 
         if (deviceAddress == null || deviceAddress.trim().isEmpty()) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_PENDING,
@@ -197,14 +297,21 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
         }
 
         try {
-            wmbusDevice = getDevice();
-            if (wmbusDevice != null) {
-                initialize(wmbusDevice);
-            }
-        } catch (WMBusException e) {
-            logger.error("Could not obtain Wireless M-Bus device information", e);
+            address = DeviceAddress.fromHex(deviceAddress);
+        } catch (IllegalArgumentException e) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                    "Invalid device address " + deviceAddress + ", expected 16 hex characters.");
+            return;
         }
 
+        Long interval = Optional.of(config.getProperties())
+                .map(cfg -> cfg.get(PROPERTY_DEVICE_MINIMUM_INTERVAL)) //
+                .filter(BigDecimal.class::isInstance) //
+                .map(BigDecimal.class::cast) //
+                .map(BigDecimal::longValue) //
+                .orElse(DEFAULT_DEVICE_MINIMUM_INTERVAL);
+        this.minimumInterval = TimeUnit.SECONDS.toMillis(interval);
+
         Long updateFrequency = Optional.of(config.getProperties())
                 .map(cfg -> cfg.get(PROPERTY_DEVICE_FREQUENCY_OF_UPDATES)) //
                 .filter(BigDecimal.class::isInstance) //
@@ -213,6 +320,30 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
                 .orElse(DEFAULT_DEVICE_FREQUENCY_OF_UPDATES);
         this.frequencyOfUpdates = TimeUnit.MINUTES.toMillis(updateFrequency);
 
+        Long publishInterval = Optional.of(config.getProperties())
+                .map(cfg -> cfg.get(PROPERTY_DEVICE_PUBLISH_INTERVAL)) //
+                .filter(BigDecimal.class::isInstance) //
+                .map(BigDecimal.class::cast) //
+                .map(BigDecimal::longValue) //
+                .orElse(DEFAULT_DEVICE_PUBLISH_INTERVAL);
+        this.channelValues = new ChannelValueCache(TimeUnit.MINUTES.toMillis(publishInterval));
+
+        // address might be changed through configuration update without going through bridge lifecycle callbacks.
+        // Settings above must be in place by now, found device brings thing online and arms its status check.
+        WMBusBridgeHandlerBase bridgeHandler = getBridgeHandler();
+        if (bridgeHandler != null) {
+            bridgeHandler.indexHandler((WMBusDeviceHandler<WMBusDevice>) this);
+        }
+
+        try {
+            wmbusDevice = getDevice();
+            if (wmbusDevice != null) {
+                initialize(wmbusDevice);
+            }
+        } catch (WMBusException e) {
+            logger.error("Could not obtain Wireless M-Bus device information", e);
+        }
+
         if (Boolean.valueOf(thing.getProperties().get(PROPERTY_DEVICE_ENCRYPTED))) {
             Optional<byte[]> encryptionKey = Optional.of(config.getProperties()) //
                     .map(cfg -> cfg.get(PROPERTY_DEVICE_ENCRYPTION_KEY)) //
@@ -223,7 +354,7 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_PENDING,
                         "Please provide encryption key to read device communication.");
             }
-            encryptionKey.ifPresent(key -> keyStorage.registerKey(HexUtils.hexToBytes(deviceAddress), key));
+            encryptionKey.ifPresent(key -> keyStorage.registerKey(address, key));
         }
     }
 
@@ -232,9 +363,16 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void dispose() {
         logger.debug("Disposing handler.");
+        WMBusBridgeHandlerBase bridgeHandler = getBridgeHandler();
+        if (bridgeHandler != null) {
+            bridgeHandler.cancelStatusCheck(this);
+            bridgeHandler.unindexHandler((WMBusDeviceHandler<WMBusDevice>) this);
+        }
         this.deviceAddress = null;
+        this.address = null;
         this.wmbusDevice = null;
     }
 
@@ -265,7 +403,7 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
         }
 
         logger.trace("Lookup known devices by address {}", deviceAddress);
-        WMBusDevice device = bridgeHandler.getDeviceByAddress(deviceAddress);
+        WMBusDevice device = bridgeHandler.getDeviceByAddress(address);
         if (device != null) {
             logger.trace("Found device matching given addresss {}, {}", deviceAddress, device);
             try {
@@ -291,11 +429,18 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
             return;
         }
 
-        long currentTime = System.currentTimeMillis();
-        if (lastUpdate == null || lastUpdate + frequencyOfUpdates <= currentTime) {
-            logger.info("WMBus device was not seen since {}, marking it as offline", new Date(lastUpdate));
-            updateStatus(ThingStatus.OFFLINE);
+        long remaining = lastFrameTime + frequencyOfUpdates - System.currentTimeMillis();
+        if (remaining > 0) {
+            // frame arrived while deadline was being fired
+            WMBusBridgeHandlerBase bridgeHandler = getBridgeHandler();
+            if (bridgeHandler != null) {
+                bridgeHandler.scheduleStatusCheck(this, remaining);
+            }
+            return;
         }
+
+        logger.info("WMBus device was not seen since {}, marking it as offline", new Date(lastFrameTime));
+        updateStatus(ThingStatus.OFFLINE);
     }
 
     @SuppressWarnings("unchecked")
@@ -307,4 +452,27 @@ public abstract class WMBusDeviceHandler<T extends WMBusDevice> extends BaseThin
     public String getDeviceAddress() {
         return deviceAddress;
     }
+
+    public DeviceAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Minimum time between frames processed for this thing. Frames which arrive earlier are coalesced by bridge.
+     *
+     * @return Interval in milliseconds, zero if all frames should be processed.
+     */
+    public long getMinimumInterval() {
+        return minimumInterval;
+    }
+
+    /**
+     * Checks if received frame was sent by device this handler is configured for.
+     *
+     * @param device Received frame.
+     * @return True if frame comes from device handled by this handler.
+     */
+    protected boolean isOwnedBy(WMBusDevice device) {
+        return address != null && address.equals(device.getAddress());
+    }
 }
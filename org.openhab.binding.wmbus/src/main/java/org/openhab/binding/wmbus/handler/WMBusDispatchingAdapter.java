@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.handler;
+
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.wmbus.WMBusDevice;
+
+/**
+ * Adapter which might process frames outside of thread calling {@link #processMessage(WMBusDevice)} and is able to tell
+ * when processing of frame is completed.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public interface WMBusDispatchingAdapter extends WMBusAdapter {
+
+    /**
+     * Sets callback which is called once frame was delivered to all listeners and things. Frames dropped before
+     * dispatch, ie. duplicates or frames coalesced by throttle, are not reported.
+     *
+     * @param callback Callback called by thread which dispatched frame, null to remove it.
+     */
+    void setDispatchCallback(@Nullable Consumer<WMBusDevice> callback);
+
+}
@@ -19,6 +19,13 @@ import org.openhab.binding.wmbus.WMBusDevice;
 
 public interface WMBusMessageListener {
 
+    /**
+     * Service property of listener which should be called by its own worker instead of thread shared by all listeners.
+     * Meant for slow or unbounded consumers, which might otherwise stall discovery of all bridges. When such listener
+     * does not keep up, its oldest messages are discarded.
+     */
+    String ASYNC_PROPERTY = "wmbus.listener.async";
+
     /**
      *
      * @param adapter Adapter which received message.
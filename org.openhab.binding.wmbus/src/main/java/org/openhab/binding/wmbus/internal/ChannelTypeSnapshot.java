@@ -0,0 +1,454 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+import org.openhab.binding.wmbus.RecordLayout;
+import org.openhab.binding.wmbus.config.DateFieldMode;
+import org.openmuc.jmbus.DataRecord.DataValueType;
+import org.openmuc.jmbus.DlmsUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk snapshot of calculated channel types and record layouts of devices, which allows to restore channel types
+ * right after restart, without waiting for devices to transmit again.
+ *
+ * File is a sequence of records which is only appended to, so new channel type or layout costs a single write. Records
+ * which are no longer needed, ie. layouts of devices which were pushed out of snapshot, are dropped by compaction which
+ * rewrites whole file once they outnumber live entries. Incomplete record left at the end of file by an interrupted
+ * write is discarded during load.
+ *
+ * Channel types are stored as inputs of their calculation rather than item type and state pattern derived from them,
+ * so changes of unit mapping apply to restored channel types too.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class ChannelTypeSnapshot {
+
+    public static final int DEFAULT_MAX_DEVICES = 4096;
+    public static final int DEFAULT_MAX_DEVICE_LAYOUTS = 8;
+
+    private static final int MAGIC = 0x574D4253; // "WMBS"
+    private static final int VERSION = 2;
+    private static final byte TAG_CHANNEL_TYPE = 1;
+    private static final byte TAG_LAYOUT = 2;
+    private static final int MIN_COMPACTION_RECORDS = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(ChannelTypeSnapshot.class);
+
+    private final Path file;
+    private final int maxDeviceLayouts;
+    private final Map<String, Definition> channelTypes = new LinkedHashMap<>();
+    private final Map<String, Set<RecordLayout>> layouts;
+    private DataOutputStream output;
+    private int records;
+    private int liveRecords;
+    private boolean failed;
+
+    public ChannelTypeSnapshot(Path file) {
+        this(file, DEFAULT_MAX_DEVICES, DEFAULT_MAX_DEVICE_LAYOUTS);
+    }
+
+    ChannelTypeSnapshot(Path file, int maxDevices, int maxDeviceLayouts) {
+        this.file = file;
+        this.maxDeviceLayouts = maxDeviceLayouts;
+        // least recently updated device is first to be removed
+        this.layouts = new LinkedHashMap<String, Set<RecordLayout>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<String, Set<RecordLayout>> eldest) {
+                if (size() > maxDevices) {
+                    liveRecords -= eldest.getValue().size();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Reads snapshot file. Missing or unreadable file results in an empty snapshot.
+     */
+    public synchronized void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        boolean complete = false;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                logger.info("Ignoring channel type snapshot {} written in unknown format", file);
+            } else {
+                complete = readRecords(input);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read channel type snapshot {}, some channel types might be lost", file, e);
+        }
+
+        logger.debug("Loaded {} channel types and layouts of {} devices from {}", channelTypes.size(),
+                layouts.size(), file);
+        if (!complete || records > liveRecords) {
+            compact();
+        }
+    }
+
+    private boolean readRecords(DataInputStream input) throws IOException {
+        while (true) {
+            int tag;
+            try {
+                tag = input.readByte();
+            } catch (EOFException e) {
+                return true;
+            }
+
+            try {
+                switch (tag) {
+                    case TAG_CHANNEL_TYPE:
+                        Definition definition = readDefinition(input);
+                        records++;
+                        if (definition != null) {
+                            putChannelType(definition);
+                        }
+                        break;
+                    case TAG_LAYOUT:
+                        String deviceId = input.readUTF();
+                        byte[] layout = new byte[input.readUnsignedShort()];
+                        input.readFully(layout);
+                        records++;
+                        putLayout(deviceId, RecordLayout.fromBytes(layout));
+                        break;
+                    default:
+                        logger.warn("Unknown record {} in channel type snapshot {}, skipping rest of file", tag, file);
+                        return false;
+                }
+            } catch (EOFException | IllegalArgumentException e) {
+                logger.info("Discarding incomplete record at the end of channel type snapshot {}", file);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns all channel types stored in snapshot.
+     *
+     * @return Channel type definitions.
+     */
+    public synchronized Collection<Definition> getChannelTypes() {
+        return new ArrayList<>(channelTypes.values());
+    }
+
+    /**
+     * Returns all layouts stored in snapshot, regardless of device which sent them.
+     *
+     * @return Distinct record layouts.
+     */
+    public synchronized Set<RecordLayout> getLayouts() {
+        Set<RecordLayout> result = new LinkedHashSet<>();
+        layouts.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Returns layouts of frames received from given device.
+     *
+     * @param deviceId Identifier of device.
+     * @return Layouts of device, least recently seen first.
+     */
+    public synchronized Set<RecordLayout> getLayouts(String deviceId) {
+        Set<RecordLayout> deviceLayouts = layouts.get(deviceId);
+        return deviceLayouts == null ? Collections.emptySet() : new LinkedHashSet<>(deviceLayouts);
+    }
+
+    /**
+     * Stores channel type, replacing one stored under the same id. Nothing is written if they are equal.
+     *
+     * @param definition Channel type.
+     */
+    public synchronized void addChannelType(Definition definition) {
+        if (!putChannelType(definition)) {
+            return;
+        }
+
+        append(out -> {
+            out.writeByte(TAG_CHANNEL_TYPE);
+            writeDefinition(out, definition);
+        });
+    }
+
+    /**
+     * Stores layout of frame sent by device. Nothing is written if layout was already seen for that device.
+     *
+     * @param deviceId Identifier of device.
+     * @param layout Layout of frame.
+     */
+    public synchronized void addLayout(String deviceId, RecordLayout layout) {
+        if (!putLayout(deviceId, layout)) {
+            return;
+        }
+
+        append(out -> {
+            out.writeByte(TAG_LAYOUT);
+            writeLayout(out, deviceId, layout);
+        });
+    }
+
+    /**
+     * Closes snapshot file. Snapshot can still be modified, file gets reopened on next write.
+     */
+    public synchronized void close() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.debug("Could not close channel type snapshot {}", file, e);
+            }
+            output = null;
+        }
+    }
+
+    private boolean putChannelType(Definition definition) {
+        Definition previous = channelTypes.put(definition.getId(), definition);
+        if (previous == null) {
+            liveRecords++;
+            return true;
+        }
+        // replaced record becomes stale
+        return !definition.equals(previous);
+    }
+
+    private boolean putLayout(String deviceId, RecordLayout layout) {
+        Set<RecordLayout> deviceLayouts = layouts.get(deviceId);
+        if (deviceLayouts == null) {
+            deviceLayouts = new LinkedHashSet<>();
+            layouts.put(deviceId, deviceLayouts);
+        } else if (deviceLayouts.remove(layout)) {
+            // moved to the end as most recently seen, but stays the same in the file
+            deviceLayouts.add(layout);
+            return false;
+        }
+
+        deviceLayouts.add(layout);
+        liveRecords++;
+        if (deviceLayouts.size() > maxDeviceLayouts) {
+            Iterator<RecordLayout> iterator = deviceLayouts.iterator();
+            iterator.next();
+            iterator.remove();
+            liveRecords--;
+        }
+        return true;
+    }
+
+    private void append(Writer writer) {
+        if (failed) {
+            return;
+        }
+
+        try {
+            if (output == null) {
+                output = open(StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (Files.size(file) == 0) {
+                    writeHeader(output);
+                }
+            }
+            writer.write(output);
+            output.flush();
+            records++;
+        } catch (IOException e) {
+            logger.warn("Could not update channel type snapshot {}, further changes will not be persisted", file, e);
+            failed = true;
+            close();
+            return;
+        }
+
+        if (records - liveRecords > Math.max(MIN_COMPACTION_RECORDS, liveRecords)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites file so it contains only live entries. New file is written next to the current one and then moved over
+     * it, so interrupted compaction leaves previous version intact.
+     */
+    synchronized void compact() {
+        close();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        List<Entry<String, Set<RecordLayout>>> deviceLayouts = new ArrayList<>(layouts.entrySet());
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)))) {
+                writeHeader(out);
+                for (Definition definition : channelTypes.values()) {
+                    out.writeByte(TAG_CHANNEL_TYPE);
+                    writeDefinition(out, definition);
+                }
+                for (Entry<String, Set<RecordLayout>> entry : deviceLayouts) {
+                    for (RecordLayout layout : entry.getValue()) {
+                        out.writeByte(TAG_LAYOUT);
+                        writeLayout(out, entry.getKey(), layout);
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = liveRecords;
+            logger.debug("Compacted channel type snapshot {} to {} records", file, records);
+        } catch (IOException e) {
+            logger.warn("Could not compact channel type snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Number of records in file, including these which are no longer live.
+     *
+     * @return Number of records.
+     */
+    synchronized int getRecordCount() {
+        return records;
+    }
+
+    private DataOutputStream open(StandardOpenOption... options) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, options)));
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    private static void writeDefinition(DataOutputStream out, Definition definition) throws IOException {
+        out.writeUTF(definition.getId());
+        out.writeUTF(definition.getLabel());
+        out.writeUTF(definition.getDescription());
+        out.writeUTF(definition.getValueType().name());
+        out.writeUTF(definition.getUnit() == null ? "" : definition.getUnit().name());
+        out.writeUTF(definition.getDateFieldMode().name());
+    }
+
+    private Definition readDefinition(DataInputStream input) throws IOException {
+        String id = input.readUTF();
+        String label = input.readUTF();
+        String description = input.readUTF();
+        String valueType = input.readUTF();
+        String unit = input.readUTF();
+        String dateFieldMode = input.readUTF();
+        try {
+            return new Definition(id, label, description, DataValueType.valueOf(valueType),
+                    unit.isEmpty() ? null : DlmsUnit.valueOf(unit), DateFieldMode.valueOf(dateFieldMode));
+        } catch (IllegalArgumentException e) {
+            // written by version which knew other constants, channel type will be calculated again
+            logger.debug("Skipping channel type {} with unknown value type {}, unit {} or date mode {}", id,
+                    valueType, unit, dateFieldMode);
+            return null;
+        }
+    }
+
+    private static void writeLayout(DataOutputStream out, String deviceId, RecordLayout layout) throws IOException {
+        byte[] bytes = layout.toBytes();
+        out.writeUTF(deviceId);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Parts of channel type which depend on data record, together with inputs used to calculate item type and state
+     * pattern. Remaining ones are the same for all wmbus channel types.
+     */
+    public static class Definition {
+
+        private final String id;
+        private final String label;
+        private final String description;
+        private final DataValueType valueType;
+        private final DlmsUnit unit;
+        private final DateFieldMode dateFieldMode;
+
+        public Definition(String id, String label, String description, DataValueType valueType, DlmsUnit unit,
+                DateFieldMode dateFieldMode) {
+            this.id = id;
+            this.label = label;
+            this.description = description == null ? "" : description;
+            this.valueType = valueType;
+            this.unit = unit;
+            this.dateFieldMode = dateFieldMode;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public DataValueType getValueType() {
+            return valueType;
+        }
+
+        public DlmsUnit getUnit() {
+            return unit;
+        }
+
+        public DateFieldMode getDateFieldMode() {
+            return dateFieldMode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Definition)) {
+                return false;
+            }
+            Definition other = (Definition) obj;
+            return id.equals(other.id) && label.equals(other.label) && description.equals(other.description)
+                    && valueType == other.valueType && unit == other.unit && dateFieldMode == other.dateFieldMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, label, description, valueType, unit, dateFieldMode);
+        }
+
+    }
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel which notifies about items which were not re-armed before their deadline.
+ *
+ * Wheel advances one slot per tick, so deadline fires at most one tick after it passed - tick duration is the tolerance
+ * of timer. Re-arming with later deadline, which happens for every received frame, only updates deadline of item.
+ * Item stays in its slot and is moved to proper one when wheel reaches it, so frequent re-arming costs neither lock nor
+ * slot change.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ *
+ * @param <T> Type of items.
+ */
+public class DeadlineWheel<T> {
+
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final ScheduledExecutorService scheduler;
+    private final long tickDuration;
+    private final Consumer<T> expired;
+    private final LongSupplier clock;
+
+    private final Map<T, Timeout> timeouts = new ConcurrentHashMap<>();
+    private final List<Set<Timeout>> wheel;
+    private long tick;
+    private ScheduledFuture<?> future;
+
+    /**
+     * Creates new wheel.
+     *
+     * @param scheduler Scheduler which advances wheel.
+     * @param tickDuration Duration of single tick, in milliseconds.
+     * @param expired Callback called with items which reached their deadline.
+     */
+    public DeadlineWheel(ScheduledExecutorService scheduler, long tickDuration, Consumer<T> expired) {
+        this(scheduler, tickDuration, DEFAULT_WHEEL_SIZE, expired, System::nanoTime);
+    }
+
+    DeadlineWheel(ScheduledExecutorService scheduler, long tickDuration, int wheelSize, Consumer<T> expired,
+            LongSupplier clock) {
+        this.scheduler = scheduler;
+        this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+        this.expired = expired;
+        this.clock = clock;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int index = 0; index < wheelSize; index++) {
+            wheel.add(new LinkedHashSet<>());
+        }
+        this.tick = Math.floorDiv(clock.getAsLong(), this.tickDuration);
+    }
+
+    public synchronized void start() {
+        if (future == null) {
+            future = scheduler.scheduleAtFixedRate(this::advance, tickDuration, tickDuration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Sets deadline of item, replacing earlier one.
+     *
+     * @param item Item.
+     * @param timeout Time from now after which item expires, in milliseconds.
+     */
+    public void schedule(T item, long timeout) {
+        long deadline = clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Timeout current = timeouts.get(item);
+        if (current != null && current.deadline <= deadline) {
+            // item is already placed before its new deadline, wheel will move it when it gets there
+            current.deadline = deadline;
+            return;
+        }
+
+        synchronized (this) {
+            current = timeouts.get(item);
+            if (current != null) {
+                wheel.get(current.slot).remove(current);
+            }
+            Timeout created = new Timeout(item, deadline);
+            timeouts.put(item, created);
+            place(created);
+        }
+    }
+
+    /**
+     * Removes deadline of item.
+     *
+     * @param item Item.
+     */
+    public synchronized void cancel(T item) {
+        Timeout timeout = timeouts.remove(item);
+        if (timeout != null) {
+            wheel.get(timeout.slot).remove(timeout);
+        }
+    }
+
+    /**
+     * Number of items with deadline.
+     *
+     * @return Number of pending timeouts.
+     */
+    public int size() {
+        return timeouts.size();
+    }
+
+    /**
+     * Moves wheel up to current time and notifies about expired items.
+     */
+    void advance() {
+        List<T> expiredItems = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.getAsLong();
+            long target = Math.floorDiv(now, tickDuration);
+            // after long pause there is no need to visit same slot more than once
+            long first = Math.max(tick + 1, target - wheel.size() + 1);
+            for (long current = first; current <= target; current++) {
+                Set<Timeout> slot = wheel.get((int) Math.floorMod(current, (long) wheel.size()));
+                Iterator<Timeout> iterator = slot.iterator();
+                List<Timeout> moved = new ArrayList<>();
+                while (iterator.hasNext()) {
+                    Timeout timeout = iterator.next();
+                    if (timeout.deadline <= now) {
+                        iterator.remove();
+                        timeouts.remove(timeout.item, timeout);
+                        expiredItems.add(timeout.item);
+                    } else {
+                        // deadline was extended or it is in one of next rounds
+                        iterator.remove();
+                        moved.add(timeout);
+                    }
+                }
+                tick = current;
+                moved.forEach(this::place);
+            }
+        }
+
+        for (T item : expiredItems) {
+            expired.accept(item);
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long deadlineTick = Math.max(Math.floorDiv(timeout.deadline, tickDuration), tick + 1);
+        // deadline further than one rotation is placed in last slot of rotation and moved again when it is reached
+        timeout.slot = (int) Math.floorMod(Math.min(deadlineTick, tick + wheel.size()), (long) wheel.size());
+        wheel.get(timeout.slot).add(timeout);
+    }
+
+    class Timeout {
+        final T item;
+        volatile long deadline;
+        int slot;
+
+        Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+
+}
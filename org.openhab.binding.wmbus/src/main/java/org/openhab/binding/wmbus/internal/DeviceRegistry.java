@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Registry of devices heard by bridge.
+ *
+ * Devices which have things configured are pinned - they are never evicted and their last frame is retained, so newly
+ * initialized handlers can use it. All other devices, usually meters of neighbours, are represented only by summary
+ * kept in cache which is bounded by size and forgets devices which were not heard for configured time.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class DeviceRegistry {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+    public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.DAYS.toMillis(1);
+
+    private final Map<DeviceAddress, DeviceSummary> pinned = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expiredEvictions = new AtomicLong();
+    private volatile Cache<DeviceAddress, DeviceSummary> devices;
+
+    public DeviceRegistry() {
+        this(System::currentTimeMillis);
+    }
+
+    DeviceRegistry(LongSupplier clock) {
+        this.clock = clock;
+        configure(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Changes limits of cache with devices which are not pinned. Summaries which fit new limits are retained.
+     *
+     * @param maximumSize Maximum number of unpinned devices.
+     * @param timeToLive Time after which device which was not heard is forgotten, in milliseconds.
+     */
+    public synchronized void configure(int maximumSize, long timeToLive) {
+        Cache<DeviceAddress, DeviceSummary> cache = CacheBuilder.newBuilder() //
+                .maximumSize(maximumSize) //
+                .expireAfterAccess(timeToLive, TimeUnit.MILLISECONDS) //
+                .ticker(new Ticker() {
+                    @Override
+                    public long read() {
+                        return TimeUnit.MILLISECONDS.toNanos(clock.getAsLong());
+                    }
+                }).removalListener(this::onRemoval) //
+                .build();
+
+        Cache<DeviceAddress, DeviceSummary> previous = devices;
+        if (previous != null) {
+            cache.putAll(previous.asMap());
+        }
+        devices = cache;
+    }
+
+    /**
+     * Records frame received from device.
+     *
+     * @param device Received frame.
+     * @return True if device was known before, false if it is heard for the first time or after it was forgotten.
+     */
+    public boolean update(WMBusDevice device) {
+        DeviceAddress address = device.getAddress();
+        long now = clock.getAsLong();
+
+        DeviceSummary summary = pinned.get(address);
+        if (summary != null) {
+            boolean known = summary.getFrameCount() > 0;
+            summary.record(device, now, true);
+            return known;
+        }
+
+        Cache<DeviceAddress, DeviceSummary> devices = this.devices;
+        summary = devices.getIfPresent(address);
+        boolean known = summary != null;
+        if (summary == null) {
+            DeviceSummary created = new DeviceSummary(address);
+            summary = devices.asMap().putIfAbsent(address, created);
+            if (summary == null) {
+                summary = created;
+            }
+        }
+        summary.record(device, now, false);
+        return known;
+    }
+
+    /**
+     * Marks device as having things configured, so its summary is not evicted and its frames are retained.
+     *
+     * @param address Device address.
+     */
+    public void pin(DeviceAddress address) {
+        pinned.computeIfAbsent(address, key -> {
+            DeviceSummary summary = devices.asMap().remove(key);
+            return summary == null ? new DeviceSummary(key) : summary;
+        });
+    }
+
+    /**
+     * Returns device to the pool of devices subject to eviction, its last frame is released.
+     *
+     * @param address Device address.
+     */
+    public void unpin(DeviceAddress address) {
+        DeviceSummary summary = pinned.remove(address);
+        if (summary != null && summary.getFrameCount() > 0) {
+            summary.forgetFrame();
+            devices.asMap().putIfAbsent(address, summary);
+        }
+    }
+
+    /**
+     * Last frame of pinned device.
+     *
+     * @param address Device address.
+     * @return Last frame or null if device was not heard yet or it is not pinned.
+     */
+    public WMBusDevice getDevice(DeviceAddress address) {
+        DeviceSummary summary = pinned.get(address);
+        return summary == null ? null : summary.getLastFrame();
+    }
+
+    /**
+     * Last frames of all pinned devices.
+     *
+     * @return Frames received from devices which have things configured.
+     */
+    public List<WMBusDevice> getDevices() {
+        List<WMBusDevice> result = new ArrayList<>();
+        for (DeviceSummary summary : pinned.values()) {
+            WMBusDevice device = summary.getLastFrame();
+            if (device != null) {
+                result.add(device);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns summary of any known device.
+     *
+     * @param address Device address.
+     * @return Summary or null if device is not known.
+     */
+    public DeviceSummary getSummary(DeviceAddress address) {
+        DeviceSummary summary = pinned.get(address);
+        return summary != null ? summary : devices.getIfPresent(address);
+    }
+
+    /**
+     * Number of known devices, including pinned ones.
+     *
+     * @return Number of devices.
+     */
+    public long size() {
+        return pinned.size() + devices.size();
+    }
+
+    /**
+     * Number of devices forgotten because cache was full.
+     *
+     * @return Number of evicted devices.
+     */
+    public long getSizeEvictionCount() {
+        return sizeEvictions.get();
+    }
+
+    /**
+     * Number of devices forgotten because they were not heard for configured time.
+     *
+     * @return Number of expired devices.
+     */
+    public long getExpiredEvictionCount() {
+        return expiredEvictions.get();
+    }
+
+    /**
+     * Removes expired devices. Cache does it on its own during updates, this method makes sure eviction counts are
+     * accurate also when no frames arrive.
+     */
+    public void cleanUp() {
+        devices.cleanUp();
+    }
+
+    private void onRemoval(RemovalNotification<DeviceAddress, DeviceSummary> notification) {
+        if (notification.getCause() == RemovalCause.SIZE) {
+            sizeEvictions.incrementAndGet();
+        } else if (notification.getCause() == RemovalCause.EXPIRED) {
+            expiredEvictions.incrementAndGet();
+        }
+    }
+
+}
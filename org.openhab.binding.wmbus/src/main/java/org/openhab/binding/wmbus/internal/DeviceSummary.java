@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+
+/**
+ * Compact information about device heard by bridge. Last received frame is kept only for devices which have things
+ * configured, for other devices summary is all what remains.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class DeviceSummary {
+
+    private final DeviceAddress address;
+    private final AtomicLong frameCount = new AtomicLong();
+    private volatile long lastSeen;
+    private volatile Integer rssi;
+    private volatile WMBusDevice lastFrame;
+
+    DeviceSummary(DeviceAddress address) {
+        this.address = address;
+    }
+
+    /**
+     * Updates summary with newly received frame.
+     *
+     * @param device Received frame.
+     * @param timestamp Time of reception, in milliseconds.
+     * @param keepFrame Flag which determines if frame should be retained.
+     */
+    void record(WMBusDevice device, long timestamp, boolean keepFrame) {
+        lastSeen = timestamp;
+        rssi = device.getOriginalMessage().getRssi();
+        lastFrame = keepFrame ? device : null;
+        frameCount.incrementAndGet();
+    }
+
+    /**
+     * Releases last frame, summary stays intact.
+     */
+    void forgetFrame() {
+        lastFrame = null;
+    }
+
+    public DeviceAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Time of last reception.
+     *
+     * @return Timestamp in milliseconds.
+     */
+    public long getLastSeen() {
+        return lastSeen;
+    }
+
+    public Integer getRssi() {
+        return rssi;
+    }
+
+    public long getFrameCount() {
+        return frameCount.get();
+    }
+
+    /**
+     * Last frame received from device.
+     *
+     * @return Last frame or null if device has no things configured.
+     */
+    public WMBusDevice getLastFrame() {
+        return lastFrame;
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceSummary [address=" + address + ", lastSeen=" + lastSeen + ", rssi=" + rssi + ", frameCount="
+                + frameCount + "]";
+    }
+
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.FrameView;
+
+/**
+ * Filter which recognizes copies of the same telegram received multiple times within short period of time, ie. directly
+ * from meter and then through repeater.
+ *
+ * Telegrams are identified by device address, access number and hash of frame. Hop counter and repeated access bits of
+ * configuration word are excluded from hash and comparison, as repeater changes them in copy it sends. Remembered
+ * telegrams are forgotten after configured time window or when number of remembered telegrams exceeds cache capacity,
+ * whichever comes first.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class DuplicateFilter {
+
+    private static final int CI_FIELD_OFFSET = 10;
+    private static final int SHORT_HEADER_ACCESS_NUMBER_OFFSET = 11;
+    private static final int LONG_HEADER_ACCESS_NUMBER_OFFSET = 19;
+    // low byte of configuration word follows access number and status byte
+    private static final int CONFIGURATION_OFFSET = 2;
+    // hop counter and repeated access bits, set by repeaters
+    private static final int REPEATER_BITS = 0x03;
+
+    private final long window;
+    private final int capacity;
+    private final boolean keepBestRssi;
+    private final LongSupplier clock;
+
+    // insertion order is also expiry order, as all entries share same time window
+    private final LinkedHashMap<TelegramKey, Telegram> telegrams = new LinkedHashMap<>();
+
+    private long receivedCount;
+    private long duplicateCount;
+
+    /**
+     * Creates new filter.
+     *
+     * @param window Time window in which copies of telegram are considered duplicates, in milliseconds. Zero or
+     *            negative value disables filtering.
+     * @param capacity Maximum number of remembered telegrams.
+     * @param keepBestRssi Forward copy of already seen telegram if it was received with better signal than all earlier
+     *            copies.
+     */
+    public DuplicateFilter(long window, int capacity, boolean keepBestRssi) {
+        this(window, capacity, keepBestRssi, System::nanoTime);
+    }
+
+    DuplicateFilter(long window, int capacity, boolean keepBestRssi, LongSupplier clock) {
+        this.window = TimeUnit.MILLISECONDS.toNanos(window);
+        this.capacity = Math.max(1, capacity);
+        this.keepBestRssi = keepBestRssi;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks if received telegram should be processed.
+     *
+     * @param address Address of sender.
+     * @param frame Raw frame, starting with length field.
+     * @param rssi Signal strength of received frame, might be null.
+     * @return True if telegram was not seen within time window or, if enabled, it was received with better signal
+     *         strength than before. False for duplicates which should be dropped.
+     */
+    public boolean accept(DeviceAddress address, byte[] frame, Integer rssi) {
+        return accept(address, FrameView.of(frame), rssi);
+    }
+
+    /**
+     * Checks if received telegram should be processed. View is remembered for duration of time window, it is not
+     * copied.
+     *
+     * @param address Address of sender.
+     * @param frame Raw frame, starting with length field.
+     * @param rssi Signal strength of received frame, might be null.
+     * @return True if telegram was not seen within time window or, if enabled, it was received with better signal
+     *         strength than before. False for duplicates which should be dropped.
+     */
+    public synchronized boolean accept(DeviceAddress address, FrameView frame, Integer rssi) {
+        receivedCount++;
+        if (window <= 0) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        expire(now);
+
+        int header = accessNumberOffset(frame);
+        int accessNumber = header < 0 ? -1 : frame.getUnsigned(header);
+        int configuration = header < 0 || frame.length() <= header + CONFIGURATION_OFFSET ? -1
+                : header + CONFIGURATION_OFFSET;
+
+        TelegramKey key = new TelegramKey(address.longValue(), accessNumber, hash(frame, configuration));
+        Telegram telegram = telegrams.get(key);
+        if (telegram != null && sameTelegram(telegram.frame, frame, configuration)) {
+            duplicateCount++;
+            int signal = rssi == null ? Integer.MIN_VALUE : rssi;
+            if (keepBestRssi && signal > telegram.rssi) {
+                telegram.rssi = signal;
+                return true;
+            }
+            return false;
+        }
+
+        if (telegram != null) {
+            // hash collision, forget earlier telegram so position in map reflects new expiry time
+            telegrams.remove(key);
+        }
+        telegrams.put(key, new Telegram(frame, rssi == null ? Integer.MIN_VALUE : rssi, now + window));
+        if (telegrams.size() > capacity) {
+            Iterator<Telegram> iterator = telegrams.values().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        return true;
+    }
+
+    private void expire(long now) {
+        Iterator<Telegram> iterator = telegrams.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt - now <= 0) {
+            iterator.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return telegrams.size();
+    }
+
+    public synchronized long getReceivedCount() {
+        return receivedCount;
+    }
+
+    public synchronized long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Share of duplicates in all received telegrams.
+     *
+     * @return Value between 0 and 1.
+     */
+    public synchronized double getDuplicateRatio() {
+        return receivedCount == 0 ? 0 : (double) duplicateCount / receivedCount;
+    }
+
+    static int accessNumber(FrameView frame) {
+        int offset = accessNumberOffset(frame);
+        return offset < 0 ? -1 : frame.getUnsigned(offset);
+    }
+
+    private static int accessNumberOffset(FrameView frame) {
+        if (frame.length() <= CI_FIELD_OFFSET) {
+            return -1;
+        }
+
+        int offset;
+        switch (frame.getUnsigned(CI_FIELD_OFFSET)) {
+            case 0x7A: // short transport layer header
+                offset = SHORT_HEADER_ACCESS_NUMBER_OFFSET;
+                break;
+            case 0x72: // long transport layer header
+                offset = LONG_HEADER_ACCESS_NUMBER_OFFSET;
+                break;
+            default:
+                // manufacturer specific layout, whole frame is still covered by hash
+                return -1;
+        }
+        return frame.length() > offset ? offset : -1;
+    }
+
+    /**
+     * Calculates hash of frame, ignoring bits which are changed by repeaters.
+     *
+     * @param frame Raw frame.
+     * @param configuration Offset of configuration word low byte, negative if frame has no transport layer header.
+     * @return Hash of frame.
+     */
+    static long hash(FrameView frame, int configuration) {
+        // 64 bit FNV-1a
+        long hash = 0xCBF29CE484222325L;
+        for (int index = 0; index < frame.length(); index++) {
+            hash ^= octet(frame, index, configuration);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static boolean sameTelegram(FrameView seen, FrameView received, int configuration) {
+        if (seen.length() != received.length()) {
+            return false;
+        }
+        for (int index = 0; index < received.length(); index++) {
+            if (octet(seen, index, configuration) != octet(received, index, configuration)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int octet(FrameView frame, int index, int configuration) {
+        int value = frame.getUnsigned(index);
+        return index == configuration ? value & ~REPEATER_BITS : value;
+    }
+
+    static class TelegramKey {
+
+        private final long address;
+        private final int accessNumber;
+        private final long hash;
+
+        TelegramKey(long address, int accessNumber, long hash) {
+            this.address = address;
+            this.accessNumber = accessNumber;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            long result = address * 31 + hash;
+            return (int) (result ^ (result >>> 32)) * 31 + accessNumber;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TelegramKey)) {
+                return false;
+            }
+            TelegramKey other = (TelegramKey) obj;
+            return address == other.address && accessNumber == other.accessNumber && hash == other.hash;
+        }
+    }
+
+    static class Telegram {
+
+        private final FrameView frame;
+        private final long expiresAt;
+        private int rssi;
+
+        Telegram(FrameView frame, int rssi, long expiresAt) {
+            this.frame = frame;
+            this.rssi = rssi;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -31,11 +31,13 @@ public class DynamicBindingConfiguration implements BindingConfiguration {
     private final Logger logger = LoggerFactory.getLogger(DynamicBindingConfiguration.class);
     private Long timeToLive = WMBusBindingConstants.DEFAULT_TIME_TO_LIVE;
     private Boolean includeBridgeUID = false;
+    private Long offlineTolerance = WMBusBindingConstants.DEFAULT_OFFLINE_TOLERANCE;
 
     @Activate
     public void activate(ComponentContext context) {
         setTimeToLive(context.getProperties().get(WMBusBindingConstants.CONFKEY_BINDING_TIME_TO_LIVE));
         setIncludeBridgeUID(context.getProperties().get(WMBusBindingConstants.CONFKEY_BINDING_INCLUDE_BRIDGE_UID));
+        setOfflineTolerance(context.getProperties().get(WMBusBindingConstants.CONFKEY_BINDING_OFFLINE_TOLERANCE));
     }
 
     private void setTimeToLive(Object value) {
@@ -84,10 +86,41 @@ public class DynamicBindingConfiguration implements BindingConfiguration {
         return includeBridgeUID;
     }
 
+    private void setOfflineTolerance(Object value) {
+        if (value == null) {
+            logger.debug("Setting up offline tolerance to default value");
+            this.offlineTolerance = WMBusBindingConstants.DEFAULT_OFFLINE_TOLERANCE;
+            return;
+        }
+
+        logger.debug("Setting up offline tolerance to new value {}", value);
+        long offlineTolerance = this.offlineTolerance;
+        if (value instanceof Number) {
+            offlineTolerance = ((Number) value).longValue();
+        }
+
+        if (value instanceof String) {
+            offlineTolerance = Long.parseLong((String) value);
+        }
+
+        // tolerance is resolution of offline timers, it can not be less than a second
+        if (offlineTolerance < 1) {
+            logger.warn("Offline tolerance must be at least 1 second, got {}", offlineTolerance);
+            offlineTolerance = 1;
+        }
+        this.offlineTolerance = offlineTolerance;
+    }
+
+    @Override
+    public Long getOfflineTolerance() {
+        return offlineTolerance;
+    }
+
     @Modified
     void updated(Map<String, Object> configuration) {
         setTimeToLive(configuration.get(WMBusBindingConstants.CONFKEY_BINDING_TIME_TO_LIVE));
         setIncludeBridgeUID(configuration.get(WMBusBindingConstants.CONFKEY_BINDING_INCLUDE_BRIDGE_UID));
+        setOfflineTolerance(configuration.get(WMBusBindingConstants.CONFKEY_BINDING_OFFLINE_TOLERANCE));
     }
 
 }
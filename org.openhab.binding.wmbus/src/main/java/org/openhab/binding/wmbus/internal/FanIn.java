@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Joins elements coming from several independent sources, ie. bridges, and passes them to single consumer which is
+ * shared by all of them.
+ *
+ * Each source has its own bounded queue. Submitting element never blocks - when queue of source is full its oldest
+ * element is discarded, so burst coming from one source affects only that source. Sources are served by single worker
+ * in round robin fashion, one element of each source with pending elements per turn, thus busy source can not starve
+ * others. Elements of the same source are processed in order they were submitted.
+ *
+ * @param <K> Type of source key.
+ * @param <T> Type of elements.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class FanIn<K, T> {
+
+    private final Logger logger = LoggerFactory.getLogger(FanIn.class);
+
+    private final String name;
+    private final int capacity;
+    private final Consumer<T> sink;
+    private final Map<K, Source> sources = new ConcurrentHashMap<>();
+    // sources with pending elements, each source is present at most once
+    private final BlockingQueue<Source> ready = new LinkedBlockingQueue<>();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public FanIn(String name, int capacity, Consumer<T> sink) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.name = name;
+        this.capacity = capacity;
+        this.sink = sink;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+        logger.debug("Started fan-in {} with capacity of {} elements per source", name, capacity);
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+        ready.clear();
+        for (Source source : sources.values()) {
+            source.clear();
+        }
+        logger.debug("Stopped fan-in {}", name);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Places element in queue of given source. Method never blocks, if queue of source is full its oldest element is
+     * discarded.
+     *
+     * @param key Source of element.
+     * @param element Element to process.
+     * @return True if element was accepted for processing.
+     */
+    public boolean submit(K key, T element) {
+        Source source = sources.computeIfAbsent(key, k -> new Source());
+        if (!running) {
+            source.dropped.incrementAndGet();
+            return false;
+        }
+
+        while (!source.queue.offer(element)) {
+            if (source.queue.poll() != null) {
+                source.dropped.incrementAndGet();
+                logger.trace("Queue of source {} in fan-in {} is full, discarding oldest element", key, name);
+            }
+        }
+        source.schedule();
+        return true;
+    }
+
+    /**
+     * Forgets given source, discarding its pending elements.
+     *
+     * @param key Source.
+     */
+    public void remove(K key) {
+        Source source = sources.remove(key);
+        if (source != null) {
+            source.clear();
+        }
+    }
+
+    /**
+     * Number of elements of given source waiting for processing.
+     *
+     * @param key Source.
+     * @return Queue length, zero for unknown source.
+     */
+    public int getQueueDepth(K key) {
+        Source source = sources.get(key);
+        return source == null ? 0 : source.queue.size();
+    }
+
+    /**
+     * Number of elements of given source which were discarded due to queue overflow.
+     *
+     * @param key Source.
+     * @return Number of dropped elements, zero for unknown source.
+     */
+    public long getDroppedCount(K key) {
+        Source source = sources.get(key);
+        return source == null ? 0 : source.dropped.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void run() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            Source source;
+            try {
+                source = ready.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            T element = source.queue.poll();
+            // source goes to the end of the line, so others get their turn before its next element
+            source.reschedule();
+            if (element == null) {
+                continue;
+            }
+
+            try {
+                sink.accept(element);
+                processed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.error("Unexpected error while processing element {} in fan-in {}", element, name, e);
+            }
+        }
+        logger.trace("Worker {} finished", name);
+    }
+
+    class Source {
+
+        private final BlockingQueue<T> queue = new ArrayBlockingQueue<>(capacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                ready.offer(this);
+            }
+        }
+
+        void reschedule() {
+            if (!queue.isEmpty()) {
+                ready.offer(this);
+                return;
+            }
+
+            scheduled.set(false);
+            // element might have been submitted after queue was checked
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void clear() {
+            queue.clear();
+            scheduled.set(false);
+        }
+    }
+
+}
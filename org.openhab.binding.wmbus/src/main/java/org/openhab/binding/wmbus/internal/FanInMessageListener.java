@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.binding.wmbus.handler.WMBusMessageListener;
+
+/**
+ * Listener registered in all bridges which hands their messages over to listener shared by all of them, such as
+ * discovery. Notifications are passed through {@link FanIn} keyed by bridge, so bridge worker
+ * returns immediately and slow shared listener or busy bridge does not hold back other bridges.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class FanInMessageListener implements WMBusMessageListener {
+
+    private final FanIn<WMBusAdapter, Runnable> fanIn;
+    private final WMBusMessageListener delegate;
+
+    public FanInMessageListener(String name, int capacity, WMBusMessageListener delegate) {
+        this.fanIn = new FanIn<>(name, capacity, Runnable::run);
+        this.delegate = delegate;
+    }
+
+    public void start() {
+        fanIn.start();
+    }
+
+    public void stop() {
+        fanIn.stop();
+    }
+
+    @Override
+    public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+        fanIn.submit(adapter, () -> delegate.onNewWMBusDevice(adapter, device));
+    }
+
+    @Override
+    public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+        fanIn.submit(adapter, () -> delegate.onChangedWMBusDevice(adapter, device));
+    }
+
+    /**
+     * Discards pending notifications of bridge which is going away.
+     *
+     * @param adapter Bridge.
+     */
+    public void remove(WMBusAdapter adapter) {
+        fanIn.remove(adapter);
+    }
+
+    /**
+     * Number of notifications of given bridge which were discarded because shared listeners could not keep up.
+     *
+     * @param adapter Bridge.
+     * @return Number of dropped notifications.
+     */
+    public long getDroppedCount(WMBusAdapter adapter) {
+        return fanIn.getDroppedCount(adapter);
+    }
+
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openhab.binding.wmbus.config.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded hand-off between thread which receives frames (usually serial port reader) and threads which decrypt, decode
+ * and dispatch them to listeners.
+ *
+ * Elements are spread over one or more lanes, each served by single worker thread. Lane is selected by partition key,
+ * thus elements sharing same key (ie. device address) are always processed in order they were submitted.
+ *
+ * @param <T> Type of elements passed through pipeline.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ */
+public class IngestPipeline<T> {
+
+    private final Logger logger = LoggerFactory.getLogger(IngestPipeline.class);
+
+    private final String name;
+    private final OverflowPolicy overflowPolicy;
+    private final Function<T, ?> partitioner;
+    private final Consumer<T> sink;
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+
+    public IngestPipeline(String name, int capacity, int workers, OverflowPolicy overflowPolicy,
+            Function<T, ?> partitioner, Consumer<T> sink) {
+        if (capacity < 1 || workers < 1) {
+            throw new IllegalArgumentException("Capacity and number of workers must be positive");
+        }
+
+        this.name = name;
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP_OLDEST : overflowPolicy;
+        this.partitioner = partitioner;
+        this.sink = sink;
+
+        int laneCapacity = Math.max(1, (capacity + workers - 1) / workers);
+        for (int index = 0; index < workers; index++) {
+            lanes.add(new Lane(name + "-" + index, laneCapacity));
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        for (Lane lane : lanes) {
+            lane.start();
+        }
+        logger.debug("Started ingest pipeline {} with {} workers and {} overflow policy", name, lanes.size(),
+                overflowPolicy);
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        for (Lane lane : lanes) {
+            lane.stop();
+        }
+        logger.debug("Stopped ingest pipeline {}", name);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Places element in processing queue. Depending on overflow policy this call might discard older element, discard
+     * given element or block caller until there is free space in queue.
+     *
+     * @param element Element to process.
+     * @return True if element was accepted for processing.
+     */
+    public boolean submit(T element) {
+        return submit(element, overflowPolicy);
+    }
+
+    /**
+     * Places element in processing queue without blocking caller. It is meant for threads which are shared with other
+     * bridges, ie. timers, thus with {@link OverflowPolicy#BLOCK} policy element is discarded when queue is full.
+     *
+     * @param element Element to process.
+     * @return True if element was accepted for processing.
+     */
+    public boolean offer(T element) {
+        return submit(element, overflowPolicy == OverflowPolicy.BLOCK ? OverflowPolicy.DROP_NEWEST : overflowPolicy);
+    }
+
+    private boolean submit(T element, OverflowPolicy overflowPolicy) {
+        if (!running) {
+            logger.debug("Pipeline {} is not running, discarding element {}", name, element);
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        BlockingQueue<T> queue = lane(element).queue;
+        switch (overflowPolicy) {
+            case DROP_NEWEST:
+                if (!queue.offer(element)) {
+                    dropped.incrementAndGet();
+                    logger.trace("Queue of pipeline {} is full, discarding incoming element", name);
+                    return false;
+                }
+                break;
+            case BLOCK:
+                try {
+                    queue.put(element);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                break;
+            case DROP_OLDEST:
+            default:
+                while (!queue.offer(element)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                        logger.trace("Queue of pipeline {} is full, discarding oldest element", name);
+                    }
+                }
+        }
+
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private Lane lane(T element) {
+        if (lanes.size() == 1) {
+            return lanes.get(0);
+        }
+        Object key = partitioner.apply(element);
+        int hash = key == null ? 0 : key.hashCode();
+        return lanes.get((hash & Integer.MAX_VALUE) % lanes.size());
+    }
+
+    class Lane implements Runnable {
+
+        private final String threadName;
+        private final BlockingQueue<T> queue;
+        private Thread worker;
+
+        Lane(String threadName, int capacity) {
+            this.threadName = threadName;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void start() {
+            worker = new Thread(this, threadName);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        void stop() {
+            if (worker != null) {
+                worker.interrupt();
+                worker = null;
+            }
+            queue.clear();
+        }
+
+        @Override
+        public void run() {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                T element;
+                try {
+                    element = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                try {
+                    sink.accept(element);
+                    processed.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    logger.error("Unexpected error while processing element {} in pipeline {}", element, name, e);
+                }
+            }
+            logger.trace("Worker {} finished", threadName);
+        }
+    }
+
+}
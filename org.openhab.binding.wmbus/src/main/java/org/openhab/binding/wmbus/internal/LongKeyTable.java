@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.Objects;
+
+/**
+ * Open addressing table of values keyed by primitive long, so lookup neither boxes key nor allocates. Table is sized
+ * upfront for number of entries it is going to hold and entries are never removed. It is meant to be filled once and
+ * then only read, table is not thread safe while it is being filled.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ *
+ * @param <V> Type of values.
+ */
+public final class LongKeyTable<V> {
+
+    private final long[] keys;
+    private final Object[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * Creates table.
+     *
+     * @param expectedSize Maximum number of entries which will be stored in table.
+     */
+    public LongKeyTable(int expectedSize) {
+        // load factor of at most 0.5 keeps probe sequences short
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Stores value under given key, unless key is already present.
+     *
+     * @param key Key.
+     * @param value Value, can not be null.
+     * @return True if value was stored, false if table already held value for given key.
+     */
+    public boolean putIfAbsent(long key, V value) {
+        Objects.requireNonNull(value, "Value must not be null");
+
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size >= values.length / 2) {
+            throw new IllegalStateException("Table can hold at most " + values.length / 2 + " entries");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns value stored under given key.
+     *
+     * @param key Key.
+     * @return Value or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = slot(key);
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // spread bits of both halves, packed keys differ mostly in their lowest bytes
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+}
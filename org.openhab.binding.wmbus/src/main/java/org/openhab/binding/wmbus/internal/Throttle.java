@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits rate at which items coming from the same source, ie. frames sent by one device, are passed further.
+ *
+ * Item which arrives after quiet period is passed immediately. Items arriving before minimum interval elapses are
+ * coalesced - only the latest one is kept and passed once interval ends, earlier ones are dropped. Sources without
+ * configured interval are not limited at all.
+ *
+ * @author Łukasz Dywicki - Initial contribution
+ *
+ * @param <K> Type of source key.
+ * @param <T> Type of items.
+ */
+public class Throttle<K, T> {
+
+    private final Map<K, Slot> slots = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<T> sink;
+    private final Consumer<T> deferredSink;
+    private final LongSupplier clock;
+
+    public Throttle(ScheduledExecutorService scheduler, Consumer<T> sink) {
+        this(scheduler, sink, sink);
+    }
+
+    /**
+     * Creates throttle which passes items held back to separate sink. Such items are passed by scheduler thread, so
+     * sink should not block it.
+     *
+     * @param scheduler Scheduler which releases held back items.
+     * @param sink Sink of items passed immediately, called by submitting thread.
+     * @param deferredSink Sink of items passed once interval elapsed.
+     */
+    public Throttle(ScheduledExecutorService scheduler, Consumer<T> sink, Consumer<T> deferredSink) {
+        this(scheduler, sink, deferredSink, System::nanoTime);
+    }
+
+    Throttle(ScheduledExecutorService scheduler, Consumer<T> sink, LongSupplier clock) {
+        this(scheduler, sink, sink, clock);
+    }
+
+    Throttle(ScheduledExecutorService scheduler, Consumer<T> sink, Consumer<T> deferredSink, LongSupplier clock) {
+        this.scheduler = scheduler;
+        this.sink = sink;
+        this.deferredSink = deferredSink;
+        this.clock = clock;
+    }
+
+    /**
+     * Sets minimum interval between items of given source. Zero or negative interval disables limiting, item which
+     * was held back at this point is passed immediately.
+     *
+     * @param key Source.
+     * @param interval Minimum interval in milliseconds.
+     */
+    public void setInterval(K key, long interval) {
+        if (interval <= 0) {
+            Slot slot = slots.remove(key);
+            if (slot != null) {
+                slot.flush();
+            }
+            return;
+        }
+
+        long nanos = TimeUnit.MILLISECONDS.toNanos(interval);
+        slots.computeIfAbsent(key, k -> new Slot()).interval = nanos;
+    }
+
+    /**
+     * Passes item to sink, or holds it back if minimum interval for its source did not elapse yet.
+     *
+     * @param key Source of item.
+     * @param item Item.
+     */
+    public void submit(K key, T item) {
+        Slot slot = slots.get(key);
+        if (slot == null || slot.offer(item)) {
+            sink.accept(item);
+        }
+    }
+
+    /**
+     * Number of items from given source which were replaced by more recent ones.
+     *
+     * @param key Source.
+     * @return Number of dropped items, zero if source is not limited.
+     */
+    public long getDroppedCount(K key) {
+        Slot slot = slots.get(key);
+        return slot == null ? 0 : slot.getDroppedCount();
+    }
+
+    /**
+     * Discards items which are held back. Configured intervals are retained.
+     */
+    public void cancel() {
+        for (Slot slot : slots.values()) {
+            slot.cancel();
+        }
+    }
+
+    class Slot {
+
+        private volatile long interval;
+        private long lastPassed;
+        private boolean passed;
+        private T pending;
+        private ScheduledFuture<?> future;
+        private long droppedCount;
+
+        synchronized boolean offer(T item) {
+            long now = clock.getAsLong();
+            if (pending == null && (!passed || now - lastPassed >= interval)) {
+                passed = true;
+                lastPassed = now;
+                return true;
+            }
+
+            if (pending != null) {
+                droppedCount++;
+            }
+            pending = item;
+            if (future == null) {
+                long delay = Math.max(0, lastPassed + interval - now);
+                future = scheduler.schedule(this::flush, delay, TimeUnit.NANOSECONDS);
+            }
+            return false;
+        }
+
+        void flush() {
+            T item;
+            synchronized (this) {
+                item = pending;
+                pending = null;
+                if (future != null) {
+                    // no-op when called by scheduled task itself
+                    future.cancel(false);
+                    future = null;
+                }
+                if (item != null) {
+                    lastPassed = clock.getAsLong();
+                }
+            }
+
+            if (item != null) {
+                deferredSink.accept(item);
+            }
+        }
+
+        synchronized void cancel() {
+            if (future != null) {
+                future.cancel(false);
+                future = null;
+            }
+            pending = null;
+        }
+
+        synchronized long getDroppedCount() {
+            return droppedCount;
+        }
+    }
+
+}
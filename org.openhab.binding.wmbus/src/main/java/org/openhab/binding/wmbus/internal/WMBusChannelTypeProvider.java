@@ -8,8 +8,10 @@
  */
 package org.openhab.binding.wmbus.internal;
 
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -17,6 +19,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.measure.Unit;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.thing.type.ChannelKind;
 import org.eclipse.smarthome.core.thing.type.ChannelType;
@@ -25,23 +28,30 @@ import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
 import org.eclipse.smarthome.core.types.EventDescription;
 import org.eclipse.smarthome.core.types.StateDescription;
 import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.binding.wmbus.DecodedFrame;
+import org.openhab.binding.wmbus.RecordLayout;
 import org.openhab.binding.wmbus.UnitRegistry;
 import org.openhab.binding.wmbus.WMBusBindingConstants;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.config.DateFieldMode;
 import org.openhab.binding.wmbus.handler.WMBusAdapter;
 import org.openhab.binding.wmbus.handler.WMBusMessageListener;
+import org.openhab.binding.wmbus.internal.ChannelTypeSnapshot.Definition;
 import org.openmuc.jmbus.DataRecord;
 import org.openmuc.jmbus.DataRecord.DataValueType;
 import org.openmuc.jmbus.DataRecord.Description;
 import org.openmuc.jmbus.DataRecord.FunctionField;
 import org.openmuc.jmbus.DlmsUnit;
-import org.openmuc.jmbus.VariableDataStructure;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Dynamic channel type provider which uses received wmbus frames to create channel types.
  *
@@ -52,6 +62,13 @@ import org.slf4j.LoggerFactory;
  *
  * While most of devices uses just small subset of values its not possible to predict all variations of above.
  *
+ * Each device keeps sending frames with the same record layout, so layouts which were already processed are
+ * memorized and their frames skip calculation entirely.
+ *
+ * Calculated channel types and layouts are persisted in userdata folder, so channel types of existing things are known
+ * right after restart, before their devices transmit again. Restored channel types are revalidated by first frame of
+ * their layout and calculated again if they were made for a different date field mode.
+ *
  * @author Łukasz Dywicki - Initial contribution.
  */
 @Component(service = { ChannelTypeProvider.class, WMBusMessageListener.class, WMBusChannelTypeProvider.class })
@@ -59,8 +76,23 @@ public class WMBusChannelTypeProvider implements ChannelTypeProvider, WMBusMessa
 
     private final Logger logger = LoggerFactory.getLogger(WMBusChannelTypeProvider.class);
 
+    /**
+     * Number of distinct record layouts which are remembered as processed. Most installations see just a few of them.
+     */
+    private static final int LAYOUT_CACHE_SIZE = 1024;
+
+    private static final String SNAPSHOT_FILE = "channel-types.snapshot";
+
     private final Map<String, ChannelType> wmbusChannelMap = new ConcurrentHashMap<>();
+    private final Cache<RecordLayout, Boolean> knownLayouts = CacheBuilder.newBuilder()
+            .maximumSize(LAYOUT_CACHE_SIZE).build();
+    // last layout of each device, so snapshot is touched only when it changes
+    private final Cache<String, RecordLayout> deviceLayouts = CacheBuilder.newBuilder()
+            .maximumSize(ChannelTypeSnapshot.DEFAULT_MAX_DEVICES).build();
+    // restored channel types which were not yet confirmed by a received frame
+    private final Map<String, Definition> restoredTypes = new ConcurrentHashMap<>();
     private UnitRegistry unitRegistry;
+    private volatile ChannelTypeSnapshot snapshot;
 
     @Override
     public Collection<ChannelType> getChannelTypes(@Nullable Locale locale) {
@@ -69,8 +101,11 @@ public class WMBusChannelTypeProvider implements ChannelTypeProvider, WMBusMessa
 
     @Override
     public @Nullable ChannelType getChannelType(ChannelTypeUID channelTypeUID, @Nullable Locale locale) {
-        return wmbusChannelMap.values().stream().filter(channelType -> channelType.getUID().equals(channelTypeUID))
-            .findFirst().orElse(null);
+        // map is keyed by id of channel type, all of them belong to this binding
+        if (!WMBusBindingConstants.BINDING_ID.equals(channelTypeUID.getBindingId())) {
+            return null;
+        }
+        return wmbusChannelMap.get(channelTypeUID.getId());
     }
 
     @Override
@@ -84,15 +119,34 @@ public class WMBusChannelTypeProvider implements ChannelTypeProvider, WMBusMessa
     }
 
     private void calculateChannelTypes(WMBusDevice device) {
-        VariableDataStructure response = device.getOriginalMessage().getVariableDataResponse();
-        DateFieldMode dateFieldMode = device.getAdapter().getDateFieldMode();
+        DecodedFrame frame = device.getDecodedFrame();
+        RecordLayout layout = frame.getLayout();
+        if (layout.size() == 0) {
+            return;
+        }
+
+        ChannelTypeSnapshot snapshot = this.snapshot;
+        if (knownLayouts.getIfPresent(layout) == null) {
+            calculateChannelTypes(frame.getRecords(), device.getAdapter().getDateFieldMode(), snapshot);
+            // remembered only once all records are processed, so failure of one of them does not hide others
+            knownLayouts.put(layout, Boolean.TRUE);
+        }
+        // layout is stored after its channel types, restored layouts are never missing them
+        if (snapshot != null && !layout.equals(deviceLayouts.asMap().put(device.getDeviceId(), layout))) {
+            snapshot.addLayout(device.getDeviceId(), layout);
+        }
+    }
 
-        for (DataRecord record : response.getDataRecords()) {
+    private void calculateChannelTypes(List<DataRecord> records, DateFieldMode dateFieldMode,
+            ChannelTypeSnapshot snapshot) {
+        for (DataRecord record : records) {
             Optional<ChannelTypeUID> channelTypeUID = getChannelType(record);
             if (channelTypeUID.isPresent()) {
                 ChannelTypeUID typeUID = channelTypeUID.get();
-                if (!wmbusChannelMap.containsKey(typeUID.getId())) {
-                    Optional<Unit<?>> unit = unitRegistry.lookup(record.getUnit());
+                Definition restored = restoredTypes.remove(typeUID.getId());
+                boolean known = restored != null ? isCalculatedWith(restored, dateFieldMode)
+                        : wmbusChannelMap.containsKey(typeUID.getId());
+                if (!known) {
                     String label = getFunction(record.getFunctionField()) + " ";
                     label += record.getDescription().name().toLowerCase().replace("_", " ");
                     if (record.getTariff() != 0) {
@@ -104,25 +158,38 @@ public class WMBusChannelTypeProvider implements ChannelTypeProvider, WMBusMessa
 
                     logger.info("Calculating new channel type {} for record {}", channelTypeUID, record);
 
-                    Optional<String> itemType = getItemType(record.getDataValueType(), record.getUnit(), dateFieldMode);
-                    ChannelKind kind = ChannelKind.STATE;
-                    String description = getDescription(record);
-                    String category = "";
-                    Set<String> tags = Collections.emptySet();
-                    StateDescription state = getStateDescription(record.getDataValueType(), record.getDescription(),
-                            unit, dateFieldMode);
-                    EventDescription event = null;
-                    ChannelType channelType = new ChannelType(typeUID, false, itemType.get(), kind, label, description,
-                            category, tags, state, event, null);
-                    wmbusChannelMap.put(typeUID.getId(), channelType);
+                    Definition definition = new Definition(typeUID.getId(), label, getDescription(record),
+                            record.getDataValueType(), record.getUnit(), dateFieldMode);
+                    wmbusChannelMap.put(typeUID.getId(), createChannelType(definition));
+                    if (snapshot != null) {
+                        snapshot.addChannelType(definition);
+                    }
                 }
             }
         }
+    }
+
+    private static boolean isCalculatedWith(Definition definition, DateFieldMode dateFieldMode) {
+        // date field mode affects only item type and pattern of date records
+        return definition.getValueType() != DataValueType.DATE || definition.getDateFieldMode() == dateFieldMode;
+    }
 
+    private ChannelType createChannelType(Definition definition) {
+        String itemType = getItemType(definition.getValueType(), definition.getUnit(), definition.getDateFieldMode())
+                .get();
+        String pattern = getPattern(definition.getValueType(), unitRegistry.lookup(definition.getUnit()),
+                definition.getDateFieldMode());
+        ChannelTypeUID typeUID = new ChannelTypeUID(WMBusBindingConstants.BINDING_ID, definition.getId());
+        ChannelKind kind = ChannelKind.STATE;
+        String category = "";
+        Set<String> tags = Collections.emptySet();
+        StateDescription state = new StateDescription(null, null, null, pattern, true, null);
+        EventDescription event = null;
+        return new ChannelType(typeUID, false, itemType, kind, definition.getLabel(),
+                definition.getDescription(), category, tags, state, event, null);
     }
 
-    private StateDescription getStateDescription(DataValueType type, Description description,
-            Optional<Unit<?>> mappedUnit, DateFieldMode dateFieldMode) {
+    private String getPattern(DataValueType type, Optional<Unit<?>> mappedUnit, DateFieldMode dateFieldMode) {
 
         boolean number;
         if (type == DataValueType.BCD || type == DataValueType.DOUBLE || type == DataValueType.LONG) {
@@ -133,9 +200,8 @@ public class WMBusChannelTypeProvider implements ChannelTypeProvider, WMBusMessa
 
         boolean date = type == DataValueType.DATE;
 
-        String pattern = mappedUnit.map(unit -> formatUnit(false, number, date, dateFieldMode))
+        return mappedUnit.map(unit -> formatUnit(false, number, date, dateFieldMode))
             .orElseGet(() -> formatUnit(true, number, date, dateFieldMode));
-        return new StateDescription(null, null, null, pattern, true, null);
     }
 
     private String formatUnit(boolean unitless, boolean number, boolean date, DateFieldMode dateFieldMode) {
@@ -208,6 +274,29 @@ public class WMBusChannelTypeProvider implements ChannelTypeProvider, WMBusMessa
         return Optional.of(CoreItemFactory.STRING);
     }
 
+    @Activate
+    protected void activate() {
+        ChannelTypeSnapshot snapshot = new ChannelTypeSnapshot(
+                Paths.get(ConfigConstants.getUserDataFolder(), WMBusBindingConstants.BINDING_ID, SNAPSHOT_FILE));
+        snapshot.load();
+        // item type and pattern are calculated again, so they follow current unit mapping
+        for (Definition definition : snapshot.getChannelTypes()) {
+            if (wmbusChannelMap.putIfAbsent(definition.getId(), createChannelType(definition)) == null) {
+                restoredTypes.put(definition.getId(), definition);
+            }
+        }
+        this.snapshot = snapshot;
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        ChannelTypeSnapshot snapshot = this.snapshot;
+        this.snapshot = null;
+        if (snapshot != null) {
+            snapshot.close();
+        }
+    }
+
     @Reference
     protected void setUnitRegistry(UnitRegistry unitRegistry) {
         this.unitRegistry = unitRegistry;
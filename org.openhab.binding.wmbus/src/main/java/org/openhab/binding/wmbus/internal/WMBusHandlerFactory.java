@@ -9,19 +9,30 @@
 
 package org.openhab.binding.wmbus.internal;
 
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerFactory;
+import org.openhab.binding.wmbus.BindingConfiguration;
 import org.openhab.binding.wmbus.UnitRegistry;
 import org.openhab.binding.wmbus.WMBusBindingConstants;
 import org.openhab.binding.wmbus.device.UnknownMeter.UnknownWMBusDeviceHandler;
 import org.openhab.binding.wmbus.device.generic.DynamicWMBusThingHandler;
 import org.openhab.binding.wmbus.discovery.CompositeMessageListener;
+import org.openhab.binding.wmbus.discovery.CompositeMessageListener.ListenerStatistics;
 import org.openhab.binding.wmbus.handler.VirtualWMBusBridgeHandler;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
 import org.openhab.binding.wmbus.handler.WMBusBridgeHandler;
+import org.openhab.binding.wmbus.handler.WMBusBridgeHandlerBase;
+import org.openhab.binding.wmbus.handler.WMBusDeviceHandler;
 import org.openhab.binding.wmbus.handler.WMBusMessageListener;
 import org.openhab.io.transport.mbus.wireless.FilteredKeyStorage;
 import org.openhab.io.transport.mbus.wireless.KeyStorage;
@@ -47,11 +58,27 @@ public class WMBusHandlerFactory extends BaseThingHandlerFactory {
     // OpenHAB logger
     private final Logger logger = LoggerFactory.getLogger(WMBusHandlerFactory.class);
 
+    /**
+     * Number of notifications of single bridge which might wait for shared listeners.
+     */
+    private static final int FAN_IN_CAPACITY = 1000;
+
+    /**
+     * Interval of reporting statistics of shared listeners, in minutes.
+     */
+    private static final long STATISTICS_INTERVAL = 15;
+
     private final CompositeMessageListener messageListener = new CompositeMessageListener();
+    // shared listeners are fed by all bridges through single stage which never blocks bridge workers
+    private final FanInMessageListener fanIn = new FanInMessageListener("wmbus-fan-in", FAN_IN_CAPACITY,
+            messageListener);
 
     private KeyStorage keyStorage;
     private UnitRegistry unitRegistry;
     private WMBusChannelTypeProvider channelTypeProvider;
+    private BindingConfiguration bindingConfiguration;
+    private DeadlineWheel<WMBusDeviceHandler<?>> offlineTimers;
+    private ScheduledFuture<?> statisticsReport;
 
     public WMBusHandlerFactory() {
         logger.debug("wmbus handler factory is starting up.");
@@ -70,12 +97,14 @@ public class WMBusHandlerFactory extends BaseThingHandlerFactory {
             if (thingTypeUID.equals(WMBusBindingConstants.THING_TYPE_BRIDGE)) {
                 logger.debug("Creating handler for WMBus bridge.");
                 WMBusBridgeHandler handler = new WMBusBridgeHandler((Bridge) thing, keyStorage);
-                handler.registerWMBusMessageListener(messageListener);
+                registerSharedListeners(handler);
+                handler.setOfflineTimers(offlineTimers);
                 return handler;
             } else if (thingTypeUID.equals(WMBusBindingConstants.THING_TYPE_VIRTUAL_BRIDGE)) {
                 logger.debug("Creating handler for virtual WMBus bridge.");
                 VirtualWMBusBridgeHandler handler = new VirtualWMBusBridgeHandler((Bridge) thing, keyStorage);
-                handler.registerWMBusMessageListener(messageListener);
+                registerSharedListeners(handler);
+                handler.setOfflineTimers(offlineTimers);
                 return handler;
             }
         }
@@ -92,21 +121,72 @@ public class WMBusHandlerFactory extends BaseThingHandlerFactory {
         }
     }
 
+    private void registerSharedListeners(WMBusBridgeHandlerBase handler) {
+        // channel types must exist before device handlers receive frame, so provider is called directly by bridge
+        handler.registerWMBusMessageListener(channelTypeProvider);
+        handler.registerWMBusMessageListener(fanIn);
+    }
+
     @Override
     @Activate
     protected void activate(ComponentContext componentContext) {
         super.activate(componentContext);
+        // single timer for all devices of binding, its tick is the tolerance of offline detection
+        long tolerance = TimeUnit.SECONDS.toMillis(bindingConfiguration.getOfflineTolerance());
+        ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("wmbus");
+        offlineTimers = new DeadlineWheel<>(scheduler, tolerance, WMBusDeviceHandler::checkStatus);
+        offlineTimers.start();
+        fanIn.start();
+        statisticsReport = scheduler.scheduleWithFixedDelay(this::reportStatistics, STATISTICS_INTERVAL,
+                STATISTICS_INTERVAL, TimeUnit.MINUTES);
     }
 
     @Override
     @Deactivate
     protected void deactivate(ComponentContext componentContext) {
+        statisticsReport.cancel(false);
+        offlineTimers.stop();
+        fanIn.stop();
+        messageListener.close();
         super.deactivate(componentContext);
     }
 
+    private void reportStatistics() {
+        for (ListenerStatistics statistics : messageListener.getStatistics()) {
+            // slow listener delays all bridges, so it is reported without enabling debug logging
+            String message = "Shared listener {} handled {} messages, mean time {} us, max time {} ms, slow calls {}, "
+                    + "queued {}, dropped {}";
+            Object[] arguments = { statistics.getListener(), statistics.getCalls(),
+                    TimeUnit.NANOSECONDS.toMicros(statistics.getMeanTime()),
+                    TimeUnit.NANOSECONDS.toMillis(statistics.getMaxTime()), statistics.getSlowCalls(),
+                    statistics.getQueueDepth(), statistics.getDroppedCount() };
+            if (statistics.getSlowCalls() > 0 || statistics.getDroppedCount() > 0) {
+                logger.info(message, arguments);
+            } else {
+                logger.debug(message, arguments);
+            }
+        }
+    }
+
+    @Override
+    protected void removeHandler(ThingHandler thingHandler) {
+        if (thingHandler instanceof WMBusAdapter) {
+            fanIn.remove((WMBusAdapter) thingHandler);
+        }
+        super.removeHandler(thingHandler);
+    }
+
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
-    public void registerWMBusMessageListener(WMBusMessageListener wmBusMessageListener) {
-        messageListener.addMessageListener(wmBusMessageListener);
+    public void registerWMBusMessageListener(WMBusMessageListener wmBusMessageListener,
+            Map<String, Object> properties) {
+        if (wmBusMessageListener instanceof WMBusChannelTypeProvider) {
+            // registered in each bridge, see createHandler
+            return;
+        }
+        // fan-in already decouples shared listeners from bridges, so they are called directly by its worker unless
+        // listener asks for its own one
+        boolean async = Boolean.parseBoolean(String.valueOf(properties.get(WMBusMessageListener.ASYNC_PROPERTY)));
+        messageListener.addMessageListener(wmBusMessageListener, async);
     }
 
     public void unregisterWMBusMessageListener(WMBusMessageListener wmBusMessageListener) {
@@ -140,4 +220,13 @@ public class WMBusHandlerFactory extends BaseThingHandlerFactory {
         this.channelTypeProvider = null;
     }
 
+    @Reference
+    protected void setBindingConfiguration(BindingConfiguration bindingConfiguration) {
+        this.bindingConfiguration = bindingConfiguration;
+    }
+
+    protected void unsetBindingConfiguration(BindingConfiguration bindingConfiguration) {
+        this.bindingConfiguration = null;
+    }
+
 }
@@ -12,9 +12,9 @@ package org.openhab.binding.wmbus.internal;
 import java.io.IOException;
 import java.util.Arrays;
 
-import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.io.transport.mbus.wireless.FrameView;
 import org.openmuc.jmbus.wireless.WMBusListener;
 import org.openmuc.jmbus.wireless.WMBusMessage;
 import org.slf4j.Logger;
@@ -72,13 +72,15 @@ public class WMBusReceiver implements WMBusListener {
     @Override
     public void newMessage(WMBusMessage message) {
         logger.trace("Received WMBus message");
+        // single view of frame is shared by all further processing stages
+        FrameView frame = FrameView.of(message.asBlob());
         if (filterMatch(message.getSecondaryAddress().getDeviceId().intValue())) {
-            WMBusDevice device = new WMBusDevice(message, wmBusBridgeHandler);
+            WMBusDevice device = new WMBusDevice(message, frame, wmBusBridgeHandler);
 
-            logger.trace("Forwarding message to further processing: {}", HexUtils.bytesToHex(message.asBlob()));
+            logger.trace("Forwarding message to further processing: {}", frame);
             wmBusBridgeHandler.processMessage(device);
         } else {
-            logger.trace("Unmatched message received: {}", HexUtils.bytesToHex(message.asBlob()));
+            logger.trace("Unmatched message received: {}", frame);
         }
     }
 
@@ -10,7 +10,9 @@ package org.openhab.binding.wmbus.internal.units;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -34,12 +36,16 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
  * time soon. For this reason we leave an extensions for future cases if there is a device we desperately want, but its
  * dlms measurements units are not supported.
  *
+ * Results of lookups are resolved for all DLMS units upfront and kept in a table, which is rebuilt whenever set of
+ * registries changes. Each conversion of a record value is then a single table read.
+ *
  * @author Łukasz Dywicki - Initial contribution.
  */
 @Component(property = { "composite=true" })
 public class CompositeUnitRegistry implements UnitRegistry {
 
     private final Set<UnitRegistry> registers = new LinkedHashSet<>();
+    private volatile Mapping mapping;
 
     public CompositeUnitRegistry() {
         this(new SmartHomeUnitsRegistry());
@@ -51,23 +57,35 @@ public class CompositeUnitRegistry implements UnitRegistry {
 
     CompositeUnitRegistry(Collection<UnitRegistry> initial) {
         this.registers.addAll(initial);
+        this.mapping = new Mapping(registers);
     }
 
     @Override
     public Optional<Unit<?>> lookup(DlmsUnit wmbusType) {
+        Mapping mapping = this.mapping;
+        return wmbusType == null ? mapping.nullUnit : mapping.units.get(wmbusType);
+    }
+
+    @Override
+    public Optional<Class<? extends Quantity<?>>> quantity(@Nullable DlmsUnit wmbusType) {
+        Mapping mapping = this.mapping;
+        return wmbusType == null ? mapping.nullQuantity : mapping.quantities.get(wmbusType);
+    }
+
+    private static Optional<Unit<?>> lookup(Collection<UnitRegistry> registers, @Nullable DlmsUnit wmbusType) {
         return registers.stream() //
                 .flatMap(registry -> get(registry, wmbusType)) //
                 .findFirst();
     }
 
-    @Override
-    public Optional<Class<? extends Quantity<?>>> quantity(@Nullable DlmsUnit wmbusType) {
+    private static Optional<Class<? extends Quantity<?>>> quantity(Collection<UnitRegistry> registers,
+            @Nullable DlmsUnit wmbusType) {
         return registers.stream() //
                 .flatMap(registry -> getQuantity(registry, wmbusType)) //
                 .findFirst();
     }
 
-    private Stream<Unit<?>> get(UnitRegistry registry, DlmsUnit wmbusType) {
+    private static Stream<Unit<?>> get(UnitRegistry registry, @Nullable DlmsUnit wmbusType) {
         Optional<Unit<?>> lookup = registry.lookup(wmbusType);
 
         if (lookup.isPresent()) {
@@ -76,7 +94,8 @@ public class CompositeUnitRegistry implements UnitRegistry {
         return Stream.empty();
     }
 
-    private Stream<Class<? extends Quantity<?>>> getQuantity(UnitRegistry registry, @Nullable DlmsUnit wmbusType) {
+    private static Stream<Class<? extends Quantity<?>>> getQuantity(UnitRegistry registry,
+            @Nullable DlmsUnit wmbusType) {
         Optional<Class<? extends Quantity<?>>> lookup = registry.quantity(wmbusType);
 
         if (lookup.isPresent()) {
@@ -86,12 +105,35 @@ public class CompositeUnitRegistry implements UnitRegistry {
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, target = "(!(composite=true))")
-    protected void setUnitRegistry(UnitRegistry registry) {
+    protected synchronized void setUnitRegistry(UnitRegistry registry) {
         this.registers.add(registry);
+        this.mapping = new Mapping(registers);
     }
 
-    protected void unsetUnitRegistry(UnitRegistry registry) {
+    protected synchronized void unsetUnitRegistry(UnitRegistry registry) {
         this.registers.remove(registry);
+        this.mapping = new Mapping(registers);
+    }
+
+    /**
+     * Units and quantities of all DLMS units, as resolved by registries present at the time of creation.
+     */
+    static class Mapping {
+
+        private final Map<DlmsUnit, Optional<Unit<?>>> units = new EnumMap<>(DlmsUnit.class);
+        private final Map<DlmsUnit, Optional<Class<? extends Quantity<?>>>> quantities = new EnumMap<>(
+                DlmsUnit.class);
+        private final Optional<Unit<?>> nullUnit;
+        private final Optional<Class<? extends Quantity<?>>> nullQuantity;
+
+        Mapping(Collection<UnitRegistry> registers) {
+            for (DlmsUnit unit : DlmsUnit.values()) {
+                units.put(unit, lookup(registers, unit));
+                quantities.put(unit, quantity(registers, unit));
+            }
+            nullUnit = lookup(registers, null);
+            nullQuantity = quantity(registers, null);
+        }
     }
 
 }
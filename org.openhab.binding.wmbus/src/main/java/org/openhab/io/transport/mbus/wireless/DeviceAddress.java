@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.mbus.wireless;
+
+import org.openmuc.jmbus.SecondaryAddress;
+
+/**
+ * Compact representation of wireless M-Bus secondary address (manufacturer, identification number, version and device
+ * type) packed into single long value in order in which it is transmitted over the air.
+ *
+ * Instances are cheap to create and compare, which makes them suitable map keys for processing of every received
+ * frame. Textual (hex) form, used in thing configuration, is computed only when requested and cached.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public final class DeviceAddress implements Comparable<DeviceAddress> {
+
+    /**
+     * Length of secondary address in bytes.
+     */
+    public static final int LENGTH = 8;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final long value;
+    private String hex;
+
+    private DeviceAddress(long value) {
+        this.value = value;
+    }
+
+    public static DeviceAddress of(long value) {
+        return new DeviceAddress(value);
+    }
+
+    public static DeviceAddress of(SecondaryAddress address) {
+        return of(address.asByteArray(), 0);
+    }
+
+    public static DeviceAddress of(byte[] address) {
+        if (address.length != LENGTH) {
+            throw new IllegalArgumentException(
+                    "Secondary address must have " + LENGTH + " bytes, got " + address.length);
+        }
+        return of(address, 0);
+    }
+
+    /**
+     * Creates address from buffer which contains address at given position, ie. link layer header of a frame.
+     *
+     * @param buffer Buffer with address.
+     * @param offset Position of first address byte.
+     * @return Address.
+     */
+    public static DeviceAddress of(byte[] buffer, int offset) {
+        long value = 0;
+        for (int index = offset; index < offset + LENGTH; index++) {
+            value = (value << 8) | (buffer[index] & 0xFF);
+        }
+        return new DeviceAddress(value);
+    }
+
+    /**
+     * Parses hex representation of secondary address, as returned by {@link #toHexString()}.
+     *
+     * @param hex Hex form of address, 16 characters, case insensitive.
+     * @return Address.
+     * @throws IllegalArgumentException When given text is not a valid address.
+     */
+    public static DeviceAddress fromHex(String hex) {
+        if (hex == null || hex.length() != LENGTH * 2) {
+            throw new IllegalArgumentException("Secondary address must be given as " + LENGTH * 2
+                    + " hex characters, got " + hex);
+        }
+
+        long value = 0;
+        for (int index = 0; index < hex.length(); index++) {
+            int digit = Character.digit(hex.charAt(index), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid hex character in secondary address " + hex);
+            }
+            value = (value << 4) | digit;
+        }
+        return new DeviceAddress(value);
+    }
+
+    public long longValue() {
+        return value;
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[LENGTH];
+        for (int index = LENGTH - 1; index >= 0; index--) {
+            bytes[index] = (byte) (value >>> (8 * (LENGTH - 1 - index)));
+        }
+        return bytes;
+    }
+
+    public SecondaryAddress toSecondaryAddress() {
+        return SecondaryAddress.newFromWMBusLlHeader(toByteArray(), 0);
+    }
+
+    public String toHexString() {
+        String result = hex;
+        if (result == null) {
+            char[] chars = new char[LENGTH * 2];
+            for (int index = chars.length - 1; index >= 0; index--) {
+                chars[index] = HEX[(int) ((value >>> (4 * (chars.length - 1 - index))) & 0x0F)];
+            }
+            result = new String(chars);
+            hex = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int compareTo(DeviceAddress other) {
+        return Long.compare(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        // spread bits, identification number occupies middle part of value
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DeviceAddress)) {
+            return false;
+        }
+        return value == ((DeviceAddress) obj).value;
+    }
+
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+
+}
@@ -8,13 +8,11 @@
  */
 package org.openhab.io.transport.mbus.wireless;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
 import org.eclipse.smarthome.core.thing.Thing;
-import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.binding.wmbus.WMBusBindingConstants;
 import org.openmuc.jmbus.SecondaryAddress;
 
@@ -26,38 +24,53 @@ import org.openmuc.jmbus.SecondaryAddress;
 public class FilteredKeyStorage implements KeyStorage {
 
     private final KeyStorage delegate;
-    private final byte[] address;
+    private final DeviceAddress address;
 
     public FilteredKeyStorage(KeyStorage delegate, Thing thing) {
         this.delegate = delegate;
         this.address = Optional.ofNullable(thing.getConfiguration())
                 .map(cfg -> cfg.get(WMBusBindingConstants.PROPERTY_DEVICE_ADDRESS)).map(Object::toString)
-                .map(HexUtils::hexToBytes).orElse(new byte[0]);
+                .map(FilteredKeyStorage::parseAddress).orElse(null);
     }
 
     @Override
-    public Optional<byte[]> lookupKey(byte[] address) {
-        if (Arrays.equals(this.address, address)) {
+    public Optional<byte[]> lookupKey(DeviceAddress address) {
+        if (address.equals(this.address)) {
             return delegate.lookupKey(address);
         }
         return Optional.empty();
     }
 
     @Override
-    public void registerKey(byte[] address, byte[] key) {
-        if (Arrays.equals(this.address, address)) {
+    public Optional<KeyMaterial> lookupKeyMaterial(DeviceAddress address) {
+        if (address.equals(this.address)) {
+            return delegate.lookupKeyMaterial(address);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void registerKey(DeviceAddress address, byte[] key) {
+        if (address.equals(this.address)) {
             delegate.registerKey(address, key);
         }
     }
 
     @Override
     public Map<SecondaryAddress, byte[]> toMap() {
-        return lookupKey(address).map(key -> Collections.singletonMap(createKey(address), key))
+        if (address == null) {
+            return Collections.emptyMap();
+        }
+        return lookupKey(address).map(key -> Collections.singletonMap(address.toSecondaryAddress(), key))
                 .orElse(Collections.emptyMap());
     }
 
-    private SecondaryAddress createKey(byte[] address) {
-        return SecondaryAddress.newFromWMBusLlHeader(address, 0);
+    private static DeviceAddress parseAddress(String address) {
+        try {
+            return DeviceAddress.fromHex(address);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
 }
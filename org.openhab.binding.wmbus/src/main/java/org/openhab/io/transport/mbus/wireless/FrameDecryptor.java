@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.mbus.wireless;
+
+/**
+ * Decryption of wireless M-Bus telegrams secured with AES-CBC (security mode 5) which operates on raw frame, before it
+ * gets parsed.
+ *
+ * Result of decryption is a copy of frame with payload replaced by plain text and security mode cleared, which can be
+ * parsed as any unencrypted frame. Initialization vector and validation of decrypted payload follow jmbus, so both
+ * produce same results.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public final class FrameDecryptor {
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int FILL_BYTE = 0x2F;
+    private static final int MODE_AES_CBC_IV = 5;
+    // security mode occupies 5 lowest bits of high byte of configuration word
+    private static final int MODE_MASK = 0x1F;
+
+    private static final int ADDRESS_OFFSET = 2;
+    private static final int CI_FIELD_OFFSET = 10;
+
+    // positions of access number within short and long transport layer header, relative to CI field
+    private static final int SHORT_HEADER = 1;
+    private static final int LONG_HEADER = 9;
+
+    private FrameDecryptor() {
+    }
+
+    /**
+     * Checks if frame carries payload encrypted in mode which is supported by this class.
+     *
+     * @param frame Raw frame, starting with length field.
+     * @return True if frame can be decrypted by {@link #decrypt(byte[], KeyMaterial)}.
+     */
+    public static boolean isEncrypted(byte[] frame) {
+        int header = headerOffset(frame);
+        if (header < 0) {
+            return false;
+        }
+
+        int dataOffset = header + 4;
+        if ((frame[header + 3] & MODE_MASK) != MODE_AES_CBC_IV || dataOffset + 1 >= frame.length) {
+            return false;
+        }
+        // jmbus treats such payload as plain text, regardless of configuration word
+        return !(frame[dataOffset] == FILL_BYTE && frame[dataOffset + 1] == 0x02);
+    }
+
+    /**
+     * Decrypts frame.
+     *
+     * @param frame Raw frame, starting with length field. It is not modified.
+     * @param key Key of device which sent frame.
+     * @return Copy of frame with decrypted payload or null if frame could not be decrypted with given key.
+     */
+    public static byte[] decrypt(byte[] frame, KeyMaterial key) {
+        if (!isEncrypted(frame)) {
+            return null;
+        }
+
+        int header = headerOffset(frame);
+        int dataOffset = header + 4;
+        int length = ((frame[header + 2] & 0xF0) >> 4) * BLOCK_SIZE;
+        if (length == 0 || dataOffset + length > frame.length) {
+            return null;
+        }
+
+        byte[] iv = new byte[BLOCK_SIZE];
+        System.arraycopy(frame, ADDRESS_OFFSET, iv, 0, DeviceAddress.LENGTH);
+        for (int index = DeviceAddress.LENGTH; index < BLOCK_SIZE; index++) {
+            iv[index] = frame[header];
+        }
+
+        byte[] plain = frame.clone();
+        if (!key.decrypt(iv, frame, dataOffset, length, plain, dataOffset)) {
+            return null;
+        }
+
+        // wrong key results in garbage, proper payload always starts with two fill bytes
+        if (plain[dataOffset] != FILL_BYTE || plain[dataOffset + 1] != FILL_BYTE) {
+            return null;
+        }
+
+        plain[header + 3] &= ~MODE_MASK;
+        return plain;
+    }
+
+    /**
+     * Finds position of access number, first byte of transport layer header.
+     *
+     * @param frame Raw frame.
+     * @return Position of access number or -1 if frame has no transport header known to this class.
+     */
+    private static int headerOffset(byte[] frame) {
+        if (frame.length <= CI_FIELD_OFFSET) {
+            return -1;
+        }
+
+        int header;
+        switch (frame[CI_FIELD_OFFSET] & 0xFF) {
+            case 0x7A:
+                header = CI_FIELD_OFFSET + SHORT_HEADER;
+                break;
+            case 0x72:
+                header = CI_FIELD_OFFSET + LONG_HEADER;
+                break;
+            default:
+                return -1;
+        }
+        return header + 4 <= frame.length ? header : -1;
+    }
+
+}
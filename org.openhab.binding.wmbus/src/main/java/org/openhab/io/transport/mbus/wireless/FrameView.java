@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.mbus.wireless;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read only view of received frame. View is created once, when frame is received, and then shared by everything which
+ * reads frame, so none of them needs to copy it.
+ *
+ * Bytes are never copied, unless {@link #toByteArray()} is called by consumer which needs to keep frame for longer.
+ * Text form of view is hex representation of frame, which is computed only when it is requested, so view can be
+ * passed to logger without any cost when given level is disabled.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public final class FrameView {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final ByteBuffer buffer;
+
+    private FrameView(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates view of whole array. Array must not be modified afterwards.
+     *
+     * @param frame Received frame.
+     * @return View of frame.
+     */
+    public static FrameView of(byte[] frame) {
+        return of(frame, 0, frame.length);
+    }
+
+    /**
+     * Creates view of part of array. Array must not be modified afterwards.
+     *
+     * @param frame Array holding frame.
+     * @param offset Position of first byte of frame.
+     * @param length Length of frame.
+     * @return View of frame.
+     */
+    public static FrameView of(byte[] frame, int offset, int length) {
+        return new FrameView(ByteBuffer.wrap(frame, offset, length).slice().asReadOnlyBuffer());
+    }
+
+    /**
+     * Number of bytes in frame.
+     *
+     * @return Frame length.
+     */
+    public int length() {
+        return buffer.limit();
+    }
+
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    public int getUnsigned(int index) {
+        return buffer.get(index) & 0xFF;
+    }
+
+    /**
+     * Reads two byte little endian number, which is the byte order used by M-Bus.
+     *
+     * @param index Position of least significant byte.
+     * @return Unsigned number.
+     */
+    public int getUnsignedShort(int index) {
+        return (buffer.get(index) & 0xFF) | ((buffer.get(index + 1) & 0xFF) << 8);
+    }
+
+    /**
+     * Reads two byte little endian number.
+     *
+     * @param index Position of least significant byte.
+     * @return Signed number.
+     */
+    public short getShort(int index) {
+        return (short) getUnsignedShort(index);
+    }
+
+    /**
+     * Reads four byte little endian number.
+     *
+     * @param index Position of least significant byte.
+     * @return Signed number.
+     */
+    public int getInt(int index) {
+        return getUnsignedShort(index) | (getUnsignedShort(index + 2) << 16);
+    }
+
+    /**
+     * Copies part of frame into given array.
+     *
+     * @param index Position of first byte to copy.
+     * @param target Array to copy bytes into.
+     * @param offset Position in target array.
+     * @param length Number of bytes to copy.
+     */
+    public void copyTo(int index, byte[] target, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(index);
+        duplicate.get(target, offset, length);
+    }
+
+    /**
+     * Creates view of part of this frame. Both views share content.
+     *
+     * @param offset Position of first byte of new view.
+     * @param length Length of new view.
+     * @return View of part of frame.
+     */
+    public FrameView slice(int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > length()) {
+            throw new IndexOutOfBoundsException("Slice " + offset + "+" + length + " exceeds frame of " + length());
+        }
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset).limit(offset + length);
+        return new FrameView(duplicate.slice());
+    }
+
+    /**
+     * Returns new read only buffer over frame, positioned at its first byte. Each caller gets its own position and
+     * byte order, content is shared.
+     *
+     * @return Little endian buffer.
+     */
+    public ByteBuffer asByteBuffer() {
+        return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Copies frame out of view, for consumers which retain it.
+     *
+     * @return Copy of frame.
+     */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[length()];
+        buffer.duplicate().get(copy);
+        return copy;
+    }
+
+    public String toHexString() {
+        char[] hex = new char[length() * 2];
+        for (int index = 0; index < length(); index++) {
+            int value = buffer.get(index) & 0xFF;
+            hex[index * 2] = HEX[value >>> 4];
+            hex[index * 2 + 1] = HEX[value & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FrameView)) {
+            return false;
+        }
+        return buffer.equals(((FrameView) obj).buffer);
+    }
+
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.mbus.wireless;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encryption key of single device prepared for repeated use.
+ *
+ * Creation of cipher and expansion of AES key are costly comparing to decryption of few blocks which form a wireless
+ * M-Bus telegram. Instances of this class keep key specification and one cipher per thread, so subsequent frames sent
+ * by the same device reuse them. Cipher implementation keeps expanded key as long as it is initialized with the same
+ * key, only initialization vector changes between frames.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public final class KeyMaterial {
+
+    private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/CBC/NoPadding";
+
+    private final SecretKeySpec keySpec;
+    // cipher instances are not thread safe
+    private final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(KeyMaterial::createCipher);
+
+    public KeyMaterial(byte[] key) {
+        this.keySpec = new SecretKeySpec(key, ALGORITHM);
+    }
+
+    /**
+     * Decrypts data encrypted with AES in CBC mode (wireless M-Bus security mode 5).
+     *
+     * @param iv Initialization vector.
+     * @param input Buffer with encrypted data.
+     * @param offset Position of first encrypted byte.
+     * @param length Number of encrypted bytes, must be multiple of block size.
+     * @param output Buffer for decrypted data, might be same as input.
+     * @param outputOffset Position of first decrypted byte in output buffer.
+     * @return True if data was decrypted, false if key or data is not valid for AES.
+     */
+    public boolean decrypt(byte[] iv, byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        Cipher cipher = this.cipher.get();
+        if (cipher == null) {
+            return false;
+        }
+
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            cipher.doFinal(input, offset, length, output, outputOffset);
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static Cipher createCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            // AES is mandatory for every java platform, this should never happen
+            return null;
+        }
+    }
+
+}
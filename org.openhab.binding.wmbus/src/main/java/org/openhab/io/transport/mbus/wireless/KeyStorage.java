@@ -21,9 +21,28 @@ import org.openmuc.jmbus.SecondaryAddress;
  */
 public interface KeyStorage {
 
-    Optional<byte[]> lookupKey(byte[] address);
+    Optional<byte[]> lookupKey(DeviceAddress address);
 
-    void registerKey(byte[] address, byte[] key);
+    void registerKey(DeviceAddress address, byte[] key);
+
+    /**
+     * Returns key of given device in form prepared for decryption. Implementations should keep returned instances, so
+     * decryption of subsequent frames reuses them.
+     *
+     * @param address Device address.
+     * @return Key material or empty optional if no key is known for device.
+     */
+    default Optional<KeyMaterial> lookupKeyMaterial(DeviceAddress address) {
+        return lookupKey(address).map(KeyMaterial::new);
+    }
+
+    default Optional<byte[]> lookupKey(byte[] address) {
+        return lookupKey(DeviceAddress.of(address));
+    }
+
+    default void registerKey(byte[] address, byte[] key) {
+        registerKey(DeviceAddress.of(address), key);
+    }
 
     Map<SecondaryAddress, byte[]> toMap();
 
@@ -24,25 +24,32 @@ import org.osgi.service.component.annotations.Component;
 @Component
 public class MapKeyStorage implements KeyStorage {
 
-    private final Map<SecondaryAddress, byte[]> keyMap = new ConcurrentHashMap<>();
+    private final Map<DeviceAddress, byte[]> keyMap = new ConcurrentHashMap<>();
+    // view required by jmbus, maintained together with main map
+    private final Map<SecondaryAddress, byte[]> secondaryAddressMap = new ConcurrentHashMap<>();
+    private final Map<SecondaryAddress, byte[]> secondaryAddressView = Collections.unmodifiableMap(secondaryAddressMap);
+    private final Map<DeviceAddress, KeyMaterial> keyMaterialMap = new ConcurrentHashMap<>();
 
     @Override
-    public Optional<byte[]> lookupKey(byte[] address) {
-        return Optional.ofNullable(keyMap.get(createKey(address)));
+    public Optional<byte[]> lookupKey(DeviceAddress address) {
+        return Optional.ofNullable(keyMap.get(address));
     }
 
     @Override
-    public void registerKey(byte[] address, byte[] key) {
-        keyMap.put(createKey(address), key);
+    public Optional<KeyMaterial> lookupKeyMaterial(DeviceAddress address) {
+        return Optional.ofNullable(keyMaterialMap.get(address));
     }
 
     @Override
-    public Map<SecondaryAddress, byte[]> toMap() {
-        return Collections.unmodifiableMap(keyMap);
+    public void registerKey(DeviceAddress address, byte[] key) {
+        keyMap.put(address, key);
+        secondaryAddressMap.put(address.toSecondaryAddress(), key);
+        keyMaterialMap.put(address, new KeyMaterial(key));
     }
 
-    private SecondaryAddress createKey(byte[] address) {
-        return SecondaryAddress.newFromWMBusLlHeader(address, 0);
+    @Override
+    public Map<SecondaryAddress, byte[]> toMap() {
+        return secondaryAddressView;
     }
 
 }
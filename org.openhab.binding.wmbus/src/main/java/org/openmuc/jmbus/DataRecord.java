@@ -2,8 +2,6 @@ package org.openmuc.jmbus;
 
 import static javax.xml.bind.DatatypeConverter.printHexBinary;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Calendar;
 
@@ -164,6 +162,30 @@ public class DataRecord {
         RESET_COUNTER;
     }
 
+    // VIF tables, main one and these selected by extension indicators 0xFD and 0xFB
+    static final int MAIN_VIF_TABLE = 0;
+    static final int MAIN_EXTENDED_VIF_TABLE = 1;
+    static final int ALTERNATE_EXTENDED_VIF_TABLE = 2;
+
+    // nested decoding methods below are used only to fill lookup table, unless this flag is set
+    private static final boolean LEGACY_VIF_DECODING = Boolean.getBoolean("org.openmuc.jmbus.legacyVifDecoding");
+    private static final VifCode[][] VIF_CODES = buildVifCodes();
+
+    // values are read out of frame when they are accessed for the first time, unless this flag is set
+    private static final boolean EAGER_VALUE_DECODING = Boolean.getBoolean("org.openmuc.jmbus.eagerValueDecoding");
+
+    // length and type of data fields, indexed by their coding, variable length and unknown coding are not there
+    private static final int[] DATA_FIELD_LENGTHS = { 0, 1, 2, 3, 4, 4, 6, 8, 0, 1, 2, 3, 4, -1, 6, -1 };
+    private static final DataValueType[] DATA_FIELD_TYPES = { DataValueType.NONE, DataValueType.LONG,
+            DataValueType.LONG, DataValueType.LONG, DataValueType.LONG, DataValueType.DOUBLE, DataValueType.LONG,
+            DataValueType.LONG, DataValueType.NONE, DataValueType.BCD, DataValueType.BCD, DataValueType.BCD,
+            DataValueType.BCD, DataValueType.STRING, DataValueType.BCD, null };
+
+    // covers all multipliers defined by VIF tables
+    private static final int MIN_EXPONENT = -12;
+    private static final double[] POWERS_OF_TEN = { 1e-12, 1e-11, 1e-10, 1e-9, 1e-8, 1e-7, 1e-6, 1e-5, 1e-4, 1e-3,
+            1e-2, 1e-1, 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12 };
+
     // // Data Information Block that contains a DIF and optionally up to 10 DIFEs
     private byte[] dib;
     // // Value Information Block that contains a VIF and optionally up to 10 VIFEs
@@ -172,6 +194,11 @@ public class DataRecord {
     private Object dataValue;
     private DataValueType dataValueType;
 
+    // frame holding data field, value is decoded out of it once requested
+    private byte[] buffer;
+    private int valueOffset;
+    private volatile boolean materialized;
+
     // DIB fields:
     private FunctionField functionField;
 
@@ -193,10 +220,15 @@ public class DataRecord {
     byte[] rawData;
 
     public byte[] getRawData() {
+        materialize();
         return rawData;
     }
 
     int decode(byte[] buffer, int offset, int length) throws DecodingException {
+        return decode(buffer, offset, length, LEGACY_VIF_DECODING, !EAGER_VALUE_DECODING);
+    }
+
+    int decode(byte[] buffer, int offset, int length, boolean legacy, boolean lazy) throws DecodingException {
         int i = offset;
 
         decodeDib(buffer, i);
@@ -229,7 +261,7 @@ public class DataRecord {
         boolean decodeFurtherVifs = false;
 
         if (vif == 0xfb) {
-            decodeAlternateExtendedVif(buffer[i]);
+            decodeVif(ALTERNATE_EXTENDED_VIF_TABLE, buffer[i], legacy);
             if ((buffer[i] & 0x80) == 0x80) {
                 decodeFurtherVifs = true;
             }
@@ -240,13 +272,13 @@ public class DataRecord {
                 decodeFurtherVifs = true;
             }
         } else if (vif == 0xfd) {
-            decodeMainExtendedVif(buffer[i]);
+            decodeVif(MAIN_EXTENDED_VIF_TABLE, buffer[i], legacy);
             if ((buffer[i] & 0x80) == 0x80) {
                 decodeFurtherVifs = true;
             }
             i++;
         } else {
-            decodeMainVif(vif);
+            decodeVif(MAIN_VIF_TABLE, (byte) vif, legacy);
             if ((vif & 0x80) == 0x80) {
                 decodeFurtherVifs = true;
             }
@@ -260,6 +292,25 @@ public class DataRecord {
 
         vib = Arrays.copyOfRange(buffer, offset + dib.length, i);
 
+        if (lazy) {
+            int end = i + valueLength(buffer, i, dataField);
+            // malformed record is decoded right away, so it fails as before
+            if (end <= buffer.length) {
+                this.buffer = buffer;
+                this.valueOffset = i;
+                this.dataValueType = valueType(dataField, dateTypeF, dateTypeG);
+                return end;
+            }
+        }
+
+        i = decodeValue(buffer, i);
+        materialized = true;
+        return i;
+    }
+
+    private int decodeValue(byte[] buffer, int i) throws DecodingException {
+        int dataField = dataLength;
+
         switch (dataField) {
             case 0x00:
             case 0x08: /* no data - selection for readout request */
@@ -267,8 +318,12 @@ public class DataRecord {
                 dataValueType = DataValueType.NONE;
                 break;
             case 0x01: /* INT8 */
-                dataValue = Long.valueOf(buffer[i++]);
+            case 0x03: /* INT24 */
+            case 0x06: /* INT48 */
+            case 0x07: /* INT64 */
+                dataValue = Long.valueOf(readLong(buffer, i, dataField));
                 dataValueType = DataValueType.LONG;
+                i += DATA_FIELD_LENGTHS[dataField];
                 break;
             case 0x02: /* INT16 */
                 if (dateTypeG) {
@@ -285,21 +340,11 @@ public class DataRecord {
                     dataValue = calendar.getTime();
                     dataValueType = DataValueType.DATE;
                 } else {
-                    dataValue = Long.valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8));
+                    dataValue = Long.valueOf(readLong(buffer, i, dataField));
                     dataValueType = DataValueType.LONG;
+                    i += 2;
                 }
                 break;
-            case 0x03: /* INT24 */
-                if ((buffer[i + 2] & 0x80) == 0x80) {
-                    // negative
-                    dataValue = Long.valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8)
-                            | ((buffer[i++] & 0xff) << 16) | 0xff << 24);
-                } else {
-                    dataValue = Long
-                            .valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8) | ((buffer[i++] & 0xff) << 16));
-                }
-                dataValueType = DataValueType.LONG;
-                break;
             case 0x04: /* INT32 */
                 if (dateTypeF) {
                     int min = (buffer[i++] & 0x3f);
@@ -323,37 +368,15 @@ public class DataRecord {
                     dataValue = calendar.getTime();
                     dataValueType = DataValueType.DATE;
                 } else {
-                    dataValue = Long.valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8)
-                            | ((buffer[i++] & 0xff) << 16) | ((buffer[i++] & 0xff) << 24));
+                    dataValue = Long.valueOf(readLong(buffer, i, dataField));
                     dataValueType = DataValueType.LONG;
+                    i += 4;
                 }
                 break;
             case 0x05: /* FLOAT32 */
-                Float doubleDatavalue = ByteBuffer.wrap(buffer, i, 4).order(ByteOrder.LITTLE_ENDIAN).getFloat();
-                i += 4;
-                dataValue = Double.valueOf(doubleDatavalue);
+                dataValue = Double.valueOf(readFloat(buffer, i));
                 dataValueType = DataValueType.DOUBLE;
-                break;
-            case 0x06: /* INT48 */
-                if ((buffer[i + 5] & 0x80) == 0x80) {
-                    // negative
-                    dataValue = Long
-                            .valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8) | ((buffer[i++] & 0xff) << 16)
-                                    | ((buffer[i++] & 0xff) << 24) | (((long) buffer[i++] & 0xff) << 32)
-                                    | (((long) buffer[i++] & 0xff) << 40) | (0xffl << 48) | (0xffl << 56));
-                } else {
-                    dataValue = Long.valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8)
-                            | ((buffer[i++] & 0xff) << 16) | ((buffer[i++] & 0xff) << 24)
-                            | (((long) buffer[i++] & 0xff) << 32) | (((long) buffer[i++] & 0xff) << 40));
-                }
-                dataValueType = DataValueType.LONG;
-                break;
-            case 0x07: /* INT64 */
-                dataValue = Long.valueOf((buffer[i++] & 0xff) | ((buffer[i++] & 0xff) << 8)
-                        | ((buffer[i++] & 0xff) << 16) | ((buffer[i++] & 0xff) << 24)
-                        | (((long) buffer[i++] & 0xff) << 32) | (((long) buffer[i++] & 0xff) << 40)
-                        | (((long) buffer[i++] & 0xff) << 48) | (((long) buffer[i++] & 0xff) << 56));
-                dataValueType = DataValueType.LONG;
+                i += 4;
                 break;
             case 0x09:
                 i = setBCD(buffer, i, 1);
@@ -372,22 +395,7 @@ public class DataRecord {
                 break;
             case 0x0d:
 
-                int variableLength = buffer[i++] & 0xff;
-                int dataLength0x0d;
-
-                if (variableLength < 0xc0) {
-                    dataLength0x0d = variableLength;
-                } else if ((variableLength >= 0xc0) && (variableLength <= 0xc9)) {
-                    dataLength0x0d = 2 * (variableLength - 0xc0);
-                } else if ((variableLength >= 0xd0) && (variableLength <= 0xd9)) {
-                    dataLength0x0d = 2 * (variableLength - 0xd0);
-                } else if ((variableLength >= 0xe0) && (variableLength <= 0xef)) {
-                    dataLength0x0d = variableLength - 0xe0;
-                } else if (variableLength == 0xf8) {
-                    dataLength0x0d = 4;
-                } else {
-                    throw new DecodingException("Unsupported LVAR Field: " + variableLength);
-                }
+                int dataLength0x0d = variableLength(buffer[i++] & 0xff);
 
                 // TODO check this:
                 // if (variableLength >= 0xc0) {
@@ -413,6 +421,100 @@ public class DataRecord {
         return i;
     }
 
+    private static int variableLength(int variableLength) throws DecodingException {
+        if (variableLength < 0xc0) {
+            return variableLength;
+        } else if ((variableLength >= 0xc0) && (variableLength <= 0xc9)) {
+            return 2 * (variableLength - 0xc0);
+        } else if ((variableLength >= 0xd0) && (variableLength <= 0xd9)) {
+            return 2 * (variableLength - 0xd0);
+        } else if ((variableLength >= 0xe0) && (variableLength <= 0xef)) {
+            return variableLength - 0xe0;
+        } else if (variableLength == 0xf8) {
+            return 4;
+        } else {
+            throw new DecodingException("Unsupported LVAR Field: " + variableLength);
+        }
+    }
+
+    /**
+     * Length of data field, verified the same way as decoding of its value would do.
+     */
+    private static int valueLength(byte[] buffer, int i, int dataField) throws DecodingException {
+        if (dataField == 0x0d) {
+            return 1 + variableLength(buffer[i] & 0xff);
+        }
+        if (dataField == 0x0f) {
+            throw new DecodingException(String.format("Unknown Data Field in DIF: %02X.", dataField));
+        }
+        return DATA_FIELD_LENGTHS[dataField];
+    }
+
+    private static DataValueType valueType(int dataField, boolean dateTypeF, boolean dateTypeG) {
+        if ((dataField == 0x02 && dateTypeG) || (dataField == 0x04 && dateTypeF)) {
+            return DataValueType.DATE;
+        }
+        return DATA_FIELD_TYPES[dataField];
+    }
+
+    /**
+     * Reads integer data field. Sign of values which do not fill whole long is extended the same way as it always was,
+     * INT16 is unsigned, shorter and longer ones are signed.
+     */
+    private static long readLong(byte[] buffer, int i, int dataField) {
+        switch (dataField) {
+            case 0x01: /* INT8 */
+                return buffer[i];
+            case 0x02: /* INT16 */
+                return (buffer[i] & 0xff) | ((buffer[i + 1] & 0xff) << 8);
+            case 0x03: /* INT24 */
+                int int24 = (buffer[i] & 0xff) | ((buffer[i + 1] & 0xff) << 8) | ((buffer[i + 2] & 0xff) << 16);
+                return (buffer[i + 2] & 0x80) == 0x80 ? int24 | 0xff << 24 : int24;
+            case 0x04: /* INT32 */
+                return readInt(buffer, i);
+            case 0x06: /* INT48 */
+                long int48 = readInt(buffer, i) | (((long) buffer[i + 4] & 0xff) << 32)
+                        | (((long) buffer[i + 5] & 0xff) << 40);
+                return (buffer[i + 5] & 0x80) == 0x80 ? int48 | (0xffl << 48) | (0xffl << 56) : int48;
+            case 0x07: /* INT64 */
+                return readInt(buffer, i) | (((long) buffer[i + 4] & 0xff) << 32)
+                        | (((long) buffer[i + 5] & 0xff) << 40) | (((long) buffer[i + 6] & 0xff) << 48)
+                        | (((long) buffer[i + 7] & 0xff) << 56);
+            default:
+                throw new IllegalArgumentException("Not an integer data field " + dataField);
+        }
+    }
+
+    private static int readInt(byte[] buffer, int i) {
+        return (buffer[i] & 0xff) | ((buffer[i + 1] & 0xff) << 8) | ((buffer[i + 2] & 0xff) << 16)
+                | ((buffer[i + 3] & 0xff) << 24);
+    }
+
+    private static float readFloat(byte[] buffer, int i) {
+        return Float.intBitsToFloat(readInt(buffer, i));
+    }
+
+    /**
+     * Reads packed BCD number the same way as {@link Bcd#longValue()}, without copying it out of buffer.
+     */
+    private static long readBcd(byte[] buffer, int i, int length) {
+        long result = 0;
+        long factor = 1;
+        int last = i + length - 1;
+        for (int j = i; j < last; j++) {
+            result += (buffer[j] & 0x0f) * factor;
+            factor *= 10;
+            result += ((buffer[j] >> 4) & 0x0f) * factor;
+            factor *= 10;
+        }
+        result += (buffer[last] & 0x0f) * factor;
+        factor *= 10;
+        if ((buffer[last] & 0xf0) == 0xf0) {
+            return result * -1;
+        }
+        return result + ((buffer[last] >> 4) & 0x0f) * factor;
+    }
+
     private int setBCD(byte[] buffer, int i, int j) {
         dataValue = new Bcd(Arrays.copyOfRange(buffer, i, i + j));
         dataValueType = DataValueType.BCD;
@@ -480,6 +582,7 @@ public class DataRecord {
      * @return the data value
      */
     public Object getDataValue() {
+        materialize();
         return dataValue;
     }
 
@@ -494,11 +597,78 @@ public class DataRecord {
      * @return the data (value) multiplied by the multiplier as a Double
      */
     public Double getScaledDataValue() {
-        try {
-            return ((Number) dataValue).doubleValue() * Math.pow(10, multiplierExponent);
-        } catch (ClassCastException e) {
+        if (!isNumber()) {
             return null;
         }
+        return getScaledDouble();
+    }
+
+    /**
+     * Returns the data (value) multiplied by the multiplier without boxing it. If the data is not a number than NaN is
+     * returned.
+     *
+     * @return the data (value) multiplied by the multiplier
+     */
+    public double getScaledDouble() {
+        if (!isNumber()) {
+            return Double.NaN;
+        }
+
+        int exponent = multiplierExponent - MIN_EXPONENT;
+        double multiplier = exponent >= 0 && exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent]
+                : Math.pow(10, multiplierExponent);
+        if (dataValueType == DataValueType.DOUBLE) {
+            return (materialized ? (Double) dataValue : readFloat(buffer, valueOffset)) * multiplier;
+        }
+        return getLong() * multiplier;
+    }
+
+    /**
+     * Returns the data (value) as a long, without multiplier and without boxing it. Floating point values are
+     * truncated.
+     *
+     * @return the data (value)
+     * @throws IllegalStateException If the data is not a number.
+     */
+    public long getLong() {
+        if (!isNumber()) {
+            throw new IllegalStateException("Data record " + dataValueType + " value is not a number");
+        }
+        if (materialized) {
+            return ((Number) dataValue).longValue();
+        }
+
+        switch (dataValueType) {
+            case DOUBLE:
+                return (long) readFloat(buffer, valueOffset);
+            case BCD:
+                return readBcd(buffer, valueOffset, DATA_FIELD_LENGTHS[dataLength]);
+            default:
+                return readLong(buffer, valueOffset, dataLength);
+        }
+    }
+
+    private boolean isNumber() {
+        return dataValueType == DataValueType.LONG || dataValueType == DataValueType.DOUBLE
+                || dataValueType == DataValueType.BCD;
+    }
+
+    private void materialize() {
+        if (materialized) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!materialized) {
+                try {
+                    decodeValue(buffer, valueOffset);
+                } catch (DecodingException e) {
+                    // data field was verified during decoding of record
+                    throw new IllegalStateException("Could not decode value of data record", e);
+                }
+                materialized = true;
+            }
+        }
     }
 
     public FunctionField getFunctionField() {
@@ -543,6 +713,76 @@ public class DataRecord {
         return unit;
     }
 
+    private void decodeVif(int table, byte code, boolean legacy) throws DecodingException {
+        VifCode vifCode = legacy ? null : VIF_CODES[table][code & 0x7f];
+        if (vifCode == null) {
+            decodeVifLegacy(table, code);
+            return;
+        }
+
+        description = vifCode.description;
+        unit = vifCode.unit;
+        multiplierExponent = vifCode.multiplierExponent;
+        dateTypeF |= vifCode.dateTypeF;
+        dateTypeG |= vifCode.dateTypeG;
+    }
+
+    private void decodeVifLegacy(int table, byte code) throws DecodingException {
+        switch (table) {
+            case MAIN_VIF_TABLE:
+                decodeMainVif(code & 0xff);
+                break;
+            case MAIN_EXTENDED_VIF_TABLE:
+                decodeMainExtendedVif(code);
+                break;
+            case ALTERNATE_EXTENDED_VIF_TABLE:
+                decodeAlternateExtendedVif(code);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown VIF table " + table);
+        }
+    }
+
+    /**
+     * Evaluates decoding methods once for every code of every VIF table. Extension bit is not part of table index, as
+     * none of decoding methods depends on it. Codes rejected by decoding methods are left empty, so decoding of such
+     * records still fails the same way.
+     */
+    private static VifCode[][] buildVifCodes() {
+        VifCode[][] codes = new VifCode[3][0x80];
+        for (int table = 0; table < codes.length; table++) {
+            for (int code = 0; code < 0x80; code++) {
+                DataRecord record = new DataRecord();
+                try {
+                    record.decodeVifLegacy(table, (byte) code);
+                    codes[table][code] = new VifCode(record);
+                } catch (IllegalArgumentException | DecodingException e) {
+                    // left empty
+                }
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Outcome of decoding of single VIF code.
+     */
+    private static final class VifCode {
+        final Description description;
+        final DlmsUnit unit;
+        final int multiplierExponent;
+        final boolean dateTypeF;
+        final boolean dateTypeG;
+
+        VifCode(DataRecord record) {
+            this.description = record.description;
+            this.unit = record.unit;
+            this.multiplierExponent = record.multiplierExponent;
+            this.dateTypeF = record.dateTypeF;
+            this.dateTypeG = record.dateTypeG;
+        }
+    }
+
     private void decodeTimeUnit(int vif) {
         if ((vif & 0x02) == 0) {
             if ((vif & 0x01) == 0) {
@@ -1336,21 +1576,21 @@ public class DataRecord {
         switch (dataValueType) {
             case DATE:
             case STRING:
-                builder.append(valuePlacHolder).append((dataValue).toString());
+                builder.append(valuePlacHolder).append(getDataValue().toString());
                 break;
             case DOUBLE:
                 builder.append(scaledValueString).append(getScaledDataValue());
                 break;
             case LONG:
                 if (multiplierExponent == 0) {
-                    builder.append(valuePlacHolder).append(dataValue);
+                    builder.append(valuePlacHolder).append(getDataValue());
                 } else {
                     builder.append(scaledValueString).append(getScaledDataValue());
                 }
                 break;
             case BCD:
                 if (multiplierExponent == 0) {
-                    builder.append(valuePlacHolder).append((dataValue).toString());
+                    builder.append(valuePlacHolder).append(getDataValue().toString());
                 } else {
                     builder.append(scaledValueString).append(getScaledDataValue());
                 }
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openhab.binding.wmbus.device.AbstractWMBusTest;
+import org.openhab.binding.wmbus.device.techem.TechemDevice;
+import org.openhab.binding.wmbus.device.techem.decoder.CompositeTechemFrameDecoder;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+import org.openmuc.jmbus.DataRecord;
+import org.openmuc.jmbus.DecodingException;
+
+/**
+ * Verifies that frame is parsed only once regardless of number of its consumers.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class DecodedFrameTest extends AbstractWMBusTest {
+
+    // volume and volume flow encrypted in security mode 5
+    private static final String MESSAGE_ENCRYPTED = "1E442D2C7856341201077A1C0010055A1AC5570E90FE98FCEC821D7F557094";
+    private static final byte[] KEY = HexUtils.hexToBytes("000102030405060708090A0B0C0D0E0F");
+
+    private final CompositeTechemFrameDecoder decoder = new CompositeTechemFrameDecoder();
+    private final MapKeyStorage keyStorage = new MapKeyStorage();
+
+    @Test
+    public void testManufacturerSpecificFrameDecodedOnce() throws Exception {
+        WMBusDevice device = message(MESSAGE_112_WARM_WATER);
+
+        // bridge, discovery participant and thing handler
+        decodeQuietly(device);
+        TechemDevice discovered = decoder.decode(device);
+        decodeQuietly(device);
+        TechemDevice handled = decoder.decode(device);
+
+        Assertions.assertThat(device.getDecodedFrame().getStatus())
+                .isEqualTo(DecodedFrame.Status.MANUFACTURER_SPECIFIC);
+        Assertions.assertThat(device.getDecodedFrame().getVendorResult(TechemDevice.class)).contains(discovered);
+        Assertions.assertThat(handled).isNotNull().isSameAs(discovered);
+        Assertions.assertThat(device.getDecodeCount()).isEqualTo(1);
+        Assertions.assertThat(device.getVendorDecodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEmptyVendorResultRemembered() throws Exception {
+        WMBusDevice device = message(MESSAGE_112_WARM_WATER);
+
+        Assertions.assertThat(device.decode(String.class, frame -> null)).isNull();
+        Assertions.assertThat(device.decode(String.class, frame -> "not called")).isNull();
+        Assertions.assertThat(device.getDecodedFrame().hasVendorResult(String.class)).isTrue();
+        Assertions.assertThat(device.getVendorDecodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testManufacturerSpecificFrameNotParsed() throws Exception {
+        DecodedFrame frame = message(MESSAGE_112_WARM_WATER).getDecodedFrame(keyStorage);
+
+        Assertions.assertThat(frame.getStatus()).isEqualTo(DecodedFrame.Status.MANUFACTURER_SPECIFIC);
+        Assertions.assertThat(frame.getRecords()).isEmpty();
+        Assertions.assertThat(frame.isEncrypted()).isFalse();
+        Assertions.assertThat(frame.getError()).isPresent();
+    }
+
+    @Test
+    public void testEncryptedFrameWithoutKey() throws Exception {
+        WMBusDevice device = message(MESSAGE_ENCRYPTED);
+
+        DecodedFrame frame = device.getDecodedFrame(keyStorage);
+
+        Assertions.assertThat(frame.getStatus()).isEqualTo(DecodedFrame.Status.ENCRYPTED);
+        Assertions.assertThat(frame.getRecords()).isEmpty();
+        Assertions.assertThatThrownBy(device::decode).isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    public void testEncryptedFrameDecryptedOnce() throws Exception {
+        WMBusDevice device = message(MESSAGE_ENCRYPTED);
+        keyStorage.registerKey(device.getAddress(), KEY);
+
+        DecodedFrame frame = device.getDecodedFrame(keyStorage);
+        device.decode();
+
+        Assertions.assertThat(frame.getStatus()).isEqualTo(DecodedFrame.Status.DECRYPTED);
+        Assertions.assertThat(frame.isEncrypted()).isTrue();
+        Assertions.assertThat(device.isEnrypted()).isTrue();
+        Assertions.assertThat(frame.getRecords()).extracting(DataRecord::getScaledDataValue).containsExactly(12345.678,
+                123.456);
+        Assertions.assertThat(device.getDecodedFrame()).isSameAs(frame);
+        Assertions.assertThat(device.getDecodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEncryptedFrameWithWrongKey() throws Exception {
+        WMBusDevice device = message(MESSAGE_ENCRYPTED);
+        keyStorage.registerKey(device.getAddress(), new byte[16]);
+
+        Assertions.assertThat(device.getDecodedFrame(keyStorage).getStatus())
+                .isEqualTo(DecodedFrame.Status.ENCRYPTED);
+    }
+
+    private static void decodeQuietly(WMBusDevice device) {
+        try {
+            device.decode();
+        } catch (DecodingException e) {
+            // expected for manufacturer specific frames
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openmuc.jmbus.DataRecord;
+
+/**
+ * Test of lookup of records by their type.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class RecordIndexTest {
+
+    @Test
+    public void testLookup() {
+        DataRecord volume = record("0C", "13");
+        DataRecord flow = record("0B", "3B");
+        DataRecord storage = record("4C", "13");
+        RecordIndex index = new RecordIndex(Arrays.asList(volume, flow, storage));
+
+        Assertions.assertThat(index.get(new RecordType(0x0C, 0x13))).isSameAs(volume);
+        Assertions.assertThat(index.get(new RecordType(0x0B, 0x3B))).isSameAs(flow);
+        Assertions.assertThat(index.get(new RecordType(0x4C, 0x13))).isSameAs(storage);
+        Assertions.assertThat(index.get(new RecordType(0x0C, 0x14))).isNull();
+        // vib prefix of another record
+        Assertions.assertThat(index.get(new RecordType(new byte[] { 0x0C, 0x13 }, new byte[0]))).isNull();
+    }
+
+    @Test
+    public void testFirstRecordWins() {
+        DataRecord first = record("0C", "13");
+        DataRecord second = record("0C", "13");
+        RecordIndex index = new RecordIndex(Arrays.asList(first, second));
+
+        Assertions.assertThat(index.get(new RecordType(0x0C, 0x13))).isSameAs(first);
+    }
+
+    @Test
+    public void testLongRecordTypes() {
+        DataRecord extended = record("8C8080C000", "93FF01");
+        DataRecord other = record("8C8080C000", "93FF02");
+        RecordIndex index = new RecordIndex(Arrays.asList(extended, other));
+
+        RecordType type = new RecordType(HexUtils.hexToBytes("8C8080C000"), HexUtils.hexToBytes("93FF02"));
+        Assertions.assertThat(type.getKey()).isEqualTo(RecordType.NO_KEY);
+        Assertions.assertThat(index.get(type)).isSameAs(other);
+    }
+
+    @Test
+    public void testManyRecords() {
+        List<DataRecord> records = new ArrayList<>();
+        for (int storage = 0; storage < 40; storage++) {
+            records.add(record(String.format("%02X%02X", 0x8C, storage), "13"));
+        }
+        RecordIndex index = new RecordIndex(records);
+
+        for (int storage = 0; storage < 40; storage++) {
+            RecordType type = new RecordType(new byte[] { (byte) 0x8C, (byte) storage }, new byte[] { 0x13 });
+            Assertions.assertThat(index.get(type)).isSameAs(records.get(storage));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        Assertions.assertThat(RecordIndex.EMPTY.get(new RecordType(0x0C, 0x13))).isNull();
+    }
+
+    private static DataRecord record(String dib, String vib) {
+        byte[] dibBytes = HexUtils.hexToBytes(dib);
+        byte[] vibBytes = HexUtils.hexToBytes(vib);
+        return new DataRecord() {
+            @Override
+            public byte[] getDib() {
+                return dibBytes;
+            }
+
+            @Override
+            public byte[] getVib() {
+                return vibBytes;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openhab.binding.wmbus.device.AbstractWMBusTest;
+
+/**
+ * Test of record layout calculated for decoded frames.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class RecordLayoutTest extends AbstractWMBusTest {
+
+    // volume and volume flow
+    private static final String MESSAGE_VOLUME = "1E442D2C7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F";
+    private static final String MESSAGE_VOLUME_CHANGED = "1E442D2C7856341201077A1D0010002F2F0C13115634120B3B4434122F2F2F";
+    // same records with different volume flow unit
+    private static final String MESSAGE_FLOW_UNIT = "1E442D2C7856341201077A1C0010002F2F0C13785634120B3C5634122F2F2F";
+
+    @Test
+    public void testLayoutIgnoresValues() throws Exception {
+        RecordLayout layout = message(MESSAGE_VOLUME).getDecodedFrame().getLayout();
+        RecordLayout changed = message(MESSAGE_VOLUME_CHANGED).getDecodedFrame().getLayout();
+
+        Assertions.assertThat(layout.size()).isEqualTo(2);
+        Assertions.assertThat(layout).isEqualTo(changed);
+        Assertions.assertThat(layout.hashCode()).isEqualTo(changed.hashCode());
+    }
+
+    @Test
+    public void testLayoutDependsOnRecordTypes() throws Exception {
+        RecordLayout layout = message(MESSAGE_VOLUME).getDecodedFrame().getLayout();
+        RecordLayout other = message(MESSAGE_FLOW_UNIT).getDecodedFrame().getLayout();
+
+        Assertions.assertThat(layout).isNotEqualTo(other);
+    }
+
+    @Test
+    public void testManufacturerSpecificFrameHasEmptyLayout() throws Exception {
+        RecordLayout layout = message(MESSAGE_112_WARM_WATER).getDecodedFrame().getLayout();
+
+        Assertions.assertThat(layout).isSameAs(RecordLayout.EMPTY);
+    }
+
+    @Test
+    public void testBinaryForm() throws Exception {
+        RecordLayout layout = message(MESSAGE_VOLUME).getDecodedFrame().getLayout();
+
+        Assertions.assertThat(layout.toBytes()).isEqualTo(HexUtils.hexToBytes("010C0113010B013B"));
+        Assertions.assertThat(RecordLayout.fromBytes(layout.toBytes())).isEqualTo(layout);
+        Assertions.assertThatThrownBy(() -> RecordLayout.fromBytes(new byte[] { 0x01, 0x0C, 0x02, 0x13 }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.device.generic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.thing.type.ChannelKind;
+import org.eclipse.smarthome.core.thing.type.ChannelType;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openhab.binding.wmbus.WMBusBindingConstants;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.device.AbstractWMBusTest;
+import org.openhab.binding.wmbus.handler.WMBusBridgeHandler;
+import org.openhab.binding.wmbus.internal.WMBusChannelTypeProvider;
+import org.openhab.binding.wmbus.internal.units.CompositeUnitRegistry;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test of channels added to thing by dynamic handler as new record layouts are received.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DynamicWMBusThingHandlerTest extends AbstractWMBusTest {
+
+    // meter rotating between two record sets, both contain volume
+    private static final String MESSAGE_VOLUME_FLOW = "1B442D2C7856341201077A2A0000002F2F0C13785634120B3B563412";
+    private static final String MESSAGE_POWER = "1B442D2C7856341201077A2A0000002F2F0C13785634120B2B563412";
+
+    private static final String DEVICE_ADDRESS = "2D2C785634120107";
+    private static final Map<String, Object> CONFIGURATION = ImmutableMap
+            .of(WMBusBindingConstants.PROPERTY_DEVICE_ADDRESS, DEVICE_ADDRESS);
+    private static final String THING_ID = "meter";
+
+    private static final String CHANNEL_VOLUME = "volume_0C_13";
+    private static final String CHANNEL_VOLUME_FLOW = "volume_flow_0B_3B";
+    private static final String CHANNEL_POWER = "power_0B_2B";
+
+    private DynamicWMBusThingHandler<WMBusDevice> handler;
+
+    @Mock
+    private WMBusBridgeHandler adapter;
+
+    @Mock
+    private ThingHandlerCallback callback;
+
+    @Mock
+    private WMBusChannelTypeProvider channelTypeProvider;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> channelUpdate;
+
+    @Before
+    public void setUp() {
+        Thing thing = ThingBuilder.create(WMBusBindingConstants.THING_TYPE_METER, THING_ID)
+                .withConfiguration(new Configuration(CONFIGURATION)).build();
+        handler = new DynamicWMBusThingHandler<WMBusDevice>(thing, new MapKeyStorage(), new CompositeUnitRegistry(),
+                channelTypeProvider, scheduler) {
+            @Override
+            protected Bridge getBridge() {
+                return GenericWMBusThingHandlerTest.createTestBridge(adapter);
+            }
+        };
+        handler.setCallback(callback);
+        handler.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        handler.dispose();
+    }
+
+    @Test
+    public void testRotatingRecordSetsAddedAtOnce() throws Exception {
+        scheduleReturnsFuture();
+        channelTypesKnown();
+
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_POWER));
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+
+        Runnable update = verifyScheduled();
+        Mockito.verify(callback, Mockito.never()).thingUpdated(ArgumentMatchers.any());
+
+        update.run();
+
+        // channel of volume is sent in both record sets, yet it is added once
+        assertThat(verifyThingUpdated()).extracting(channel -> channel.getUID().getId())
+                .containsExactly(CHANNEL_VOLUME, CHANNEL_VOLUME_FLOW, CHANNEL_POWER);
+    }
+
+    @Test
+    public void testExistingChannelsNotAddedAgain() throws Exception {
+        scheduleReturnsFuture();
+        channelTypesKnown();
+
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+        verifyScheduled().run();
+        Mockito.reset(scheduler);
+        scheduleReturnsFuture();
+
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_POWER));
+        verifyScheduled().run();
+
+        ArgumentCaptor<Thing> things = ArgumentCaptor.forClass(Thing.class);
+        Mockito.verify(callback, Mockito.times(2)).thingUpdated(things.capture());
+        assertThat(things.getAllValues().get(1).getChannels()).extracting(channel -> channel.getUID().getId())
+                .containsExactly(CHANNEL_VOLUME, CHANNEL_VOLUME_FLOW, CHANNEL_POWER);
+    }
+
+    @Test
+    public void testDisposeCancelsUpdate() throws Exception {
+        scheduleReturnsFuture();
+        channelTypesKnown();
+
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+        handler.dispose();
+
+        Mockito.verify(channelUpdate).cancel(false);
+
+        // layouts seen before dispose are compared again
+        handler.initialize();
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+
+        ArgumentCaptor<Runnable> updates = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(scheduler, Mockito.times(2)).schedule(updates.capture(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(TimeUnit.class));
+        updates.getValue().run();
+
+        assertThat(verifyThingUpdated()).extracting(channel -> channel.getUID().getId())
+                .containsExactly(CHANNEL_VOLUME, CHANNEL_VOLUME_FLOW);
+    }
+
+    @Test
+    public void testLayoutComparedAgainWhenChannelTypeIsMissing() throws Exception {
+        scheduleReturnsFuture();
+        // channel types of first frame are not calculated yet
+        Mockito.when(channelTypeProvider.getChannelType(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(null).thenReturn(null).thenAnswer(invocation -> channelType(invocation.getArgument(0)));
+
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+        Mockito.verifyZeroInteractions(scheduler);
+
+        handler.onChangedWMBusDevice(adapter, message(MESSAGE_VOLUME_FLOW));
+        verifyScheduled().run();
+
+        assertThat(verifyThingUpdated()).extracting(channel -> channel.getUID().getId())
+                .containsExactly(CHANNEL_VOLUME, CHANNEL_VOLUME_FLOW);
+    }
+
+    private void scheduleReturnsFuture() {
+        Mockito.doReturn(channelUpdate).when(scheduler).schedule(ArgumentMatchers.any(Runnable.class),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(TimeUnit.class));
+    }
+
+    private void channelTypesKnown() {
+        Mockito.when(channelTypeProvider.getChannelType(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> channelType(invocation.getArgument(0)));
+    }
+
+    private Runnable verifyScheduled() {
+        ArgumentCaptor<Runnable> update = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(scheduler).schedule(update.capture(), ArgumentMatchers.eq(5000L),
+                ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+        return update.getValue();
+    }
+
+    private List<Channel> verifyThingUpdated() {
+        ArgumentCaptor<Thing> thing = ArgumentCaptor.forClass(Thing.class);
+        Mockito.verify(callback).thingUpdated(thing.capture());
+        return thing.getValue().getChannels();
+    }
+
+    private static ChannelType channelType(ChannelTypeUID typeUID) {
+        return new ChannelType(typeUID, false, "Number", ChannelKind.STATE, typeUID.getId(), null, "",
+                Collections.emptySet(), null, null, null);
+    }
+
+}
@@ -16,6 +16,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
 import org.eclipse.smarthome.core.thing.binding.builder.BridgeBuilder;
 import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
 import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.junit.After;
 import org.junit.Before;
@@ -31,6 +32,7 @@ import org.openhab.binding.wmbus.WMBusBindingConstants;
 import org.openhab.binding.wmbus.WMBusDevice;
 import org.openhab.binding.wmbus.handler.WMBusBridgeHandler;
 import org.openhab.binding.wmbus.internal.units.CompositeUnitRegistry;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
 import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
 import org.openmuc.jmbus.DataRecord;
 import org.openmuc.jmbus.DlmsUnit;
@@ -46,7 +48,7 @@ import com.google.common.collect.ImmutableMap;
 public class GenericWMBusThingHandlerTest {
 
     private static final String CHANNEL_VOLUME = "volume";
-    private static final String DEVICE_ADDRESS = "68TCH100";
+    private static final String DEVICE_ADDRESS = "6850726851006980";
     private static final Map<String, Object> CONFIGURATION = ImmutableMap
             .of(WMBusBindingConstants.PROPERTY_DEVICE_ADDRESS, DEVICE_ADDRESS);
 
@@ -95,7 +97,7 @@ public class GenericWMBusThingHandlerTest {
         WMBusDevice device = Mockito.mock(WMBusDevice.class);
         DataRecord data = Mockito.mock(DataRecord.class);
 
-        Mockito.when(device.getDeviceAddress()).thenReturn(DEVICE_ADDRESS);
+        Mockito.when(device.getAddress()).thenReturn(DeviceAddress.fromHex(DEVICE_ADDRESS));
         Mockito.when(device.findRecord(VOLUME)).thenReturn(data);
         Mockito.when(data.getUnit()).thenReturn(DlmsUnit.CUBIC_METRE);
         Mockito.when(data.getScaledDataValue()).thenReturn(VOLUME_VALUE);
@@ -110,6 +112,30 @@ public class GenericWMBusThingHandlerTest {
                 .isEqualTo(new QuantityType<>(VOLUME_VALUE, SIUnits.CUBIC_METRE));
     }
 
+    @Test
+    public void testExplicitRefreshOfUnchangedValue() throws Exception {
+        WMBusDevice device = Mockito.mock(WMBusDevice.class);
+        DataRecord data = Mockito.mock(DataRecord.class);
+
+        Mockito.when(device.getAddress()).thenReturn(DeviceAddress.fromHex(DEVICE_ADDRESS));
+        Mockito.when(device.findRecord(VOLUME)).thenReturn(data);
+        Mockito.when(data.getDataValue()).thenReturn(VOLUME_VALUE);
+        Mockito.when(data.getUnit()).thenReturn(DlmsUnit.CUBIC_METRE);
+        Mockito.when(data.getScaledDataValue()).thenReturn(VOLUME_VALUE);
+
+        // second frame carries same value and is skipped, refresh requested by user still publishes it
+        handler.onChangedWMBusDevice(adapter, device);
+        handler.onChangedWMBusDevice(adapter, device);
+        handler.handleCommand(CHANNEL_UID, RefreshType.REFRESH);
+
+        ArgumentCaptor<State> stateCapture = ArgumentCaptor.forClass(State.class);
+        Mockito.verify(callback, Mockito.times(2)).stateUpdated(ArgumentMatchers.eq(CHANNEL_UID),
+                stateCapture.capture());
+
+        Assertions.assertThat(stateCapture.getAllValues()).containsOnly(
+                new QuantityType<>(VOLUME_VALUE, SIUnits.CUBIC_METRE));
+    }
+
     public static Thing createTestThing() {
         ThingBuilder thing = ThingBuilder.create(WMBusBindingConstants.THING_TYPE_METER, THING_ID);
         thing.withConfiguration(new Configuration(CONFIGURATION));
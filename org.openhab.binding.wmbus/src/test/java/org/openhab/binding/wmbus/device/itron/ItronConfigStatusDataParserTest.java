@@ -36,4 +36,17 @@ public class ItronConfigStatusDataParserTest {
             .isEqualTo((byte) 0x3E);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testRecordValue() {
+        ItronConfigStatusDataParser value = new ItronConfigStatusDataParser(0x0C173E7E00208080L);
+
+        assertThat(value.getBillingDate()).isEqualTo(parser.getBillingDate());
+        assertThat(value.isRemovalOccurred()).isEqualTo(parser.isRemovalOccurred());
+        assertThat(value.isProductInstalled()).isEqualTo(parser.isProductInstalled());
+        assertThat(value.getOperationMode()).isEqualTo(parser.getOperationMode());
+        assertThat(value.isPerimeterIntrusionOccurred()).isEqualTo(parser.isPerimeterIntrusionOccurred());
+        assertThat(value.getProductCode()).isEqualTo(parser.getProductCode());
+        assertThat(value.getBatteryLifetime()).isEqualTo(parser.getBatteryLifetime());
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.device.itron;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openhab.binding.wmbus.DecodedFrame;
+import org.openhab.binding.wmbus.RecordType;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.device.AbstractWMBusTest;
+import org.openhab.binding.wmbus.device.techem.decoder.Buffer;
+import org.openhab.io.transport.mbus.wireless.MapKeyStorage;
+import org.openmuc.jmbus.DataRecord;
+import org.openmuc.jmbus.EncryptionMode;
+
+/**
+ * Test of manufacturer data carried by smoke detector frame encrypted in security mode 5.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class ItronEncryptedFrameTest extends AbstractWMBusTest {
+
+    // volume record followed by manufacturer data with last smoke alert and number of test switches operated, padded
+    // with fill bytes up to full AES block
+    private static final String MESSAGE_ENCRYPTED = "4E44972682213893071A7A2A004005A75B4C5E2896FED29BFF235788A0392EC1"
+            + "813AC26D062E2530546731DB9E8FCE0C1A8C121939787487B0B9BDEAAED3D75CE6EC83D187026EB828014E976E7B82";
+    private static final byte[] MANUFACTURER_DATA = HexUtils.hexToBytes("0D237D2C"
+            + "0000000000000000000000000000000000000000000000000000000000000000" + "030000000000");
+    private static final byte[] KEY = HexUtils.hexToBytes("0102030405060708090A0B0C0D0E0F10");
+
+    private final MapKeyStorage keyStorage = new MapKeyStorage();
+
+    @Test
+    public void testManufacturerDataDecrypted() throws Exception {
+        WMBusDevice device = message(MESSAGE_ENCRYPTED);
+        keyStorage.registerKey(device.getAddress(), KEY);
+
+        DecodedFrame frame = device.getDecodedFrame(keyStorage);
+        DataRecord record = device.findRecord(RecordType.MANUFACTURER_DATA);
+
+        assertThat(frame.getStatus()).isEqualTo(DecodedFrame.Status.DECRYPTED);
+        assertThat(frame.getEncryptionMode()).isEqualTo(EncryptionMode.AES_CBC_IV);
+        assertThat(device.isEnrypted()).isTrue();
+        assertThat(frame.getRecords()).hasSize(1);
+        assertThat(Arrays.copyOf(frame.getManufacturerData(), MANUFACTURER_DATA.length)).isEqualTo(MANUFACTURER_DATA);
+        assertThat(record.getRawData()).isSameAs(frame.getManufacturerData());
+
+        Buffer buffer = new Buffer(frame.getManufacturerData());
+        ItronManufacturerDataParser parser = new ItronManufacturerDataParser(buffer);
+        assertThat(parser.readShortDateTime()).isEqualTo(LocalDateTime.of(2019, 12, 29, 3, 13));
+        for (int index = 0; index < 8; index++) {
+            assertThat(parser.readShortDateTime()).isNull();
+        }
+        assertThat(buffer.readShort()).isEqualTo((short) 3);
+    }
+
+    @Test
+    public void testNoManufacturerDataWithoutKey() throws Exception {
+        WMBusDevice device = message(MESSAGE_ENCRYPTED);
+
+        assertThat(device.getDecodedFrame(keyStorage).getStatus()).isEqualTo(DecodedFrame.Status.ENCRYPTED);
+        assertThat(device.isEnrypted()).isTrue();
+        assertThat(device.findRecord(RecordType.MANUFACTURER_DATA).getRawData()).isEmpty();
+    }
+
+}
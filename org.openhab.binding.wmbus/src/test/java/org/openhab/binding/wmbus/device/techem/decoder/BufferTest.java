@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.device.techem.decoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.BufferUnderflowException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openhab.io.transport.mbus.wireless.FrameView;
+
+/**
+ * Test of frame reader used by Techem decoders.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class BufferTest {
+
+    // 2019-12-31 10:15:30 UTC
+    private final AtomicLong millis = new AtomicLong(1577787330250L);
+    private final CachedClock clock = new CachedClock(millis::get, ZoneOffset.UTC);
+
+    @Test
+    public void testNumbers() {
+        Buffer buffer = new Buffer(clock).reset(frame("0112FE80563412FF"), 1);
+
+        assertThat(buffer.readShort()).isEqualTo((short) 0xFE12);
+        assertThat(buffer.readUnsignedByte()).isEqualTo(0x80);
+        // lowest byte is dropped
+        assertThat(buffer.readInt()).isEqualTo(0xFF123456 >> 8);
+        assertThat(buffer.available()).isEqualTo(0);
+        Assertions.assertThatThrownBy(buffer::readByte).isInstanceOf(BufferUnderflowException.class);
+    }
+
+    @Test
+    public void testScaledFloat() {
+        Buffer buffer = new Buffer(clock).reset(frame("5702D508"), 0);
+
+        assertThat(buffer.readFloat(Buffer.SCALE_1_10TH)).isEqualTo(59.9f);
+        assertThat(buffer.readFloat(Buffer.SCALE_1_100TH)).isEqualTo(22.61f);
+    }
+
+    @Test
+    public void testDates() {
+        // 2019-12-15, 14th of march
+        Buffer buffer = new Buffer(clock).reset(frame("8F27E006"), 0);
+
+        assertThat(buffer.readPastDate()).isEqualTo(LocalDateTime.of(2019, 12, 15, 0, 0));
+        assertThat(buffer.readCurrentDate()).isEqualTo(LocalDateTime.of(2019, 3, 14, 10, 15, 30));
+    }
+
+    @Test
+    public void testCachedClock() {
+        LocalDateTime now = clock.now();
+
+        millis.addAndGet(500);
+        assertThat(clock.now()).isSameAs(now);
+        millis.addAndGet(500);
+        assertThat(clock.now()).isEqualTo(now.plusSeconds(1));
+    }
+
+    @Test
+    public void testHistory() {
+        Buffer buffer = new Buffer(clock);
+
+        // last byte is not part of history
+        assertThat(buffer.reset(frame("000A64FF07"), 1).readHistory()).isEqualTo("10;100;255");
+        // shorter history reuses same buffer
+        assertThat(buffer.reset(frame("0102"), 0).readHistory()).isEqualTo("1");
+        assertThat(buffer.reset(frame("01"), 0).readHistory()).isEmpty();
+    }
+
+    private static FrameView frame(String hex) {
+        return FrameView.of(HexUtils.hexToBytes(hex));
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.device.techem.decoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openhab.binding.wmbus.device.techem.TechemBindingConstants.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.device.AbstractWMBusTest;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test of dispatch table of Techem decoders.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class TechemDecoderTableTest extends AbstractWMBusTest {
+
+    private final TechemFrameDecoder<?> hkv = new TechemHKVFrameDecoder(_68TCH6967_8);
+    private final TechemFrameDecoder<?> warmWater = new TechemWaterMeterFrameDecoder(_68TCH11298_6, 1);
+    private final TechemFrameDecoder<?> coldWater = new TechemWaterMeterFrameDecoder(_68TCH112114_16, -1);
+    private final TechemFrameDecoder<?> heat = new TechemHeatMeterFrameDecoder(_68TCH11367_4_A0, _68TCH11367_4_A2);
+
+    private final TechemDecoderTable table = TechemDecoderTable.of(ImmutableList.of(
+            new TechemVariantFrameDecoderSelector(TechemVariantFrameDecoderSelector.BASED_ON_VERSION,
+                    ImmutableMap.of((byte) 0x45, hkv, (byte) 0x71, heat)),
+            warmWater, coldWater));
+
+    @Test
+    public void testLookup() throws Exception {
+        assertThat(table.get(message(MESSAGE_112_WARM_WATER))).containsExactly(warmWater);
+        assertThat(table.get(message(MESSAGE_112_COLD_WATER))).containsExactly(coldWater);
+        assertThat(table.get(message(MESSAGE_69_HKV))).containsExactly(hkv);
+        // coding byte A0 of first variant of heat meter
+        assertThat(table.get(message(MESSAGE_113_HEAT))).containsExactly(heat);
+    }
+
+    @Test
+    public void testUnknownVariant() throws Exception {
+        // version 0x74 has no decoder
+        assertThat(table.get(message(MESSAGE_116_WARM_WATER))).isEmpty();
+        // coding byte does not match one of warm water meter
+        assertThat(table.get(message(MESSAGE_112_WARM_WATER.replace("7062A000", "7062A200")))).isEmpty();
+    }
+
+    @Test
+    public void testUnknownCoding() throws Exception {
+        // heat cost allocators report frames with coding A3 as unknown devices
+        assertThat(table.get(message(MESSAGE_69_HKV.replace("4543A100", "4543A300")))).containsExactly(hkv);
+    }
+
+    @Test
+    public void testSupports() throws Exception {
+        for (String frame : Arrays.asList(MESSAGE_112_WARM_WATER, MESSAGE_69_HKV, MESSAGE_113_HEAT)) {
+            WMBusDevice device = message(frame);
+            assertThat(table.supports(device.getRawDeviceType())).isTrue();
+        }
+        assertThat(table.supports(message(MESSAGE_116_WARM_WATER).getRawDeviceType())).isFalse();
+    }
+
+    @Test
+    public void testManufacturer() throws Exception {
+        byte[] address = message(MESSAGE_112_WARM_WATER).getOriginalMessage().getSecondaryAddress().asByteArray();
+
+        assertThat(TechemDecoderTable.manufacturer(MANUFACTURER_ID))
+                .isEqualTo((address[0] & 0xFF) | (address[1] & 0xFF) << 8);
+    }
+
+}
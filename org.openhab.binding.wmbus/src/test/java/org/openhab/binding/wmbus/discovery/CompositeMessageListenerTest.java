@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.binding.wmbus.device.AbstractWMBusTest;
+import org.openhab.binding.wmbus.discovery.CompositeMessageListener.ListenerStatistics;
+import org.openhab.binding.wmbus.handler.WMBusAdapter;
+import org.openhab.binding.wmbus.handler.WMBusMessageListener;
+
+/**
+ * Test of registration, asynchronous delivery and latency tracking of {@link CompositeMessageListener}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class CompositeMessageListenerTest extends AbstractWMBusTest {
+
+    private final AtomicLong time = new AtomicLong();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CompositeMessageListener composite = new CompositeMessageListener(2, 100, time::get);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        composite.close();
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        composite.addMessageListener(listener);
+        composite.addMessageListener(listener);
+
+        WMBusDevice device = message(MESSAGE_112_WARM_WATER);
+        composite.onNewWMBusDevice(null, device);
+        composite.removeMessageListener(listener);
+        composite.onChangedWMBusDevice(null, device);
+
+        assertThat(listener.received).containsExactly(device);
+        assertThat(composite.getStatistics()).isEmpty();
+    }
+
+    @Test
+    public void testRegistrationDuringDelivery() throws Exception {
+        RecordingListener late = new RecordingListener();
+        RecordingListener early = new RecordingListener() {
+            @Override
+            public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+                super.onNewWMBusDevice(adapter, device);
+                composite.removeMessageListener(this);
+                composite.addMessageListener(late);
+            }
+        };
+        composite.addMessageListener(early);
+
+        WMBusDevice device = message(MESSAGE_112_WARM_WATER);
+        composite.onNewWMBusDevice(null, device);
+        composite.onNewWMBusDevice(null, device);
+
+        // delivery in progress keeps going over listeners registered when it started
+        assertThat(early.received).hasSize(1);
+        assertThat(late.received).hasSize(1);
+    }
+
+    @Test
+    public void testSlowAsyncListener() throws Exception {
+        CountDownLatch taken = new CountDownLatch(1);
+        RecordingListener slow = new RecordingListener() {
+            @Override
+            public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+                taken.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onChangedWMBusDevice(adapter, device);
+            }
+        };
+        RecordingListener fast = new RecordingListener();
+        composite.addMessageListener(slow, true);
+        composite.addMessageListener(fast);
+
+        WMBusDevice first = message(MESSAGE_112_WARM_WATER);
+        composite.onChangedWMBusDevice(null, first);
+        taken.await(1, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        for (int index = 0; index < 10; index++) {
+            composite.onChangedWMBusDevice(null, message(MESSAGE_112_COLD_WATER));
+        }
+        // caller and other listeners are not held back by stalled one
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(fast.received).hasSize(11);
+
+        ListenerStatistics statistics = composite.getStatistics().get(0);
+        assertThat(statistics.isAsync()).isTrue();
+        assertThat(statistics.getQueueDepth()).isEqualTo(2);
+        assertThat(statistics.getDroppedCount()).isEqualTo(8);
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (slow.received.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(slow.received).hasSize(3);
+        assertThat(slow.received.get(0)).isSameAs(first);
+    }
+
+    @Test
+    public void testSlowListenerDetection() throws Exception {
+        RecordingListener fast = new RecordingListener();
+        RecordingListener slow = new RecordingListener() {
+            @Override
+            public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+                time.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+            }
+        };
+        composite.addMessageListener(fast);
+        composite.addMessageListener(slow);
+
+        WMBusDevice device = message(MESSAGE_112_WARM_WATER);
+        composite.onNewWMBusDevice(null, device);
+        composite.onNewWMBusDevice(null, device);
+
+        List<ListenerStatistics> statistics = composite.getStatistics();
+        assertThat(statistics).hasSize(2);
+        assertThat(statistics.get(0).getListener()).isSameAs(fast);
+        assertThat(statistics.get(0).getCalls()).isEqualTo(2);
+        assertThat(statistics.get(0).getSlowCalls()).isZero();
+        assertThat(statistics.get(1).getListener()).isSameAs(slow);
+        assertThat(statistics.get(1).getSlowCalls()).isEqualTo(2);
+        assertThat(statistics.get(1).getMeanTime()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+        assertThat(statistics.get(1).getMaxTime()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    static class RecordingListener implements WMBusMessageListener {
+
+        final List<WMBusDevice> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onNewWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            received.add(device);
+        }
+
+        @Override
+        public void onChangedWMBusDevice(WMBusAdapter adapter, WMBusDevice device) {
+            received.add(device);
+        }
+    }
+
+}
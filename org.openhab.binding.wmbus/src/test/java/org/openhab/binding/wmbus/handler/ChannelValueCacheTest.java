@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.openmuc.jmbus.Bcd;
+import org.openmuc.jmbus.DataRecord;
+
+/**
+ * Test of change detection and forced publishing of channel values.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class ChannelValueCacheTest {
+
+    private static final String CHANNEL = "volume";
+
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    public void testUnchangedValueSkipped() {
+        ChannelValueCache cache = new ChannelValueCache(0, time::get);
+
+        assertThat(cache.update(CHANNEL, 10L)).isTrue();
+        assertThat(cache.update(CHANNEL, 10L)).isFalse();
+        assertThat(cache.update("other", 10L)).isTrue();
+        assertThat(cache.update(CHANNEL, 11L)).isTrue();
+
+        advance(TimeUnit.DAYS.toMillis(1));
+        assertThat(cache.update(CHANNEL, 11L)).isFalse();
+    }
+
+    @Test
+    public void testNullValue() {
+        ChannelValueCache cache = new ChannelValueCache(0, time::get);
+
+        assertThat(cache.update(CHANNEL, null)).isTrue();
+        assertThat(cache.update(CHANNEL, null)).isFalse();
+        assertThat(cache.update(CHANNEL, 1L)).isTrue();
+    }
+
+    @Test
+    public void testPublishInterval() {
+        ChannelValueCache cache = new ChannelValueCache(60_000, time::get);
+
+        assertThat(cache.update(CHANNEL, 10L)).isTrue();
+        advance(59_999);
+        assertThat(cache.update(CHANNEL, 10L)).isFalse();
+        advance(1);
+        assertThat(cache.update(CHANNEL, 10L)).isTrue();
+        assertThat(cache.update(CHANNEL, 10L)).isFalse();
+    }
+
+    @Test
+    public void testForget() {
+        ChannelValueCache cache = new ChannelValueCache(0, time::get);
+
+        cache.update(CHANNEL, 10L);
+        cache.forget(CHANNEL);
+        assertThat(cache.update(CHANNEL, 10L)).isTrue();
+    }
+
+    @Test
+    public void testBcdRecordValue() {
+        DataRecord first = Mockito.mock(DataRecord.class);
+        DataRecord second = Mockito.mock(DataRecord.class);
+        Mockito.when(first.getDataValue()).thenReturn(new Bcd(new byte[] { 0x12, 0x34 }));
+        Mockito.when(second.getDataValue()).thenReturn(new Bcd(new byte[] { 0x12, 0x34 }));
+
+        assertThat(ChannelValueCache.valueOf(first)).isEqualTo(ChannelValueCache.valueOf(second));
+    }
+
+    private void advance(long millis) {
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+}
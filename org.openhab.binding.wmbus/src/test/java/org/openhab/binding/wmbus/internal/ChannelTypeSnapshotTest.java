@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.wmbus.RecordLayout;
+import org.openhab.binding.wmbus.config.DateFieldMode;
+import org.openhab.binding.wmbus.internal.ChannelTypeSnapshot.Definition;
+import org.openmuc.jmbus.DataRecord.DataValueType;
+import org.openmuc.jmbus.DlmsUnit;
+
+/**
+ * Test of persistence of channel types and record layouts done by {@link ChannelTypeSnapshot}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class ChannelTypeSnapshotTest {
+
+    private static final RecordLayout VOLUME = RecordLayout.fromBytes(new byte[] { 0x01, 0x0C, 0x01, 0x13 });
+    private static final RecordLayout VOLUME_FLOW = RecordLayout
+            .fromBytes(new byte[] { 0x01, 0x0C, 0x01, 0x13, 0x01, 0x0B, 0x01, 0x3B });
+    private static final RecordLayout ENERGY = RecordLayout.fromBytes(new byte[] { 0x01, 0x04, 0x01, 0x06 });
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRestore() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("wmbus").resolve("snapshot");
+
+        ChannelTypeSnapshot snapshot = new ChannelTypeSnapshot(file);
+        snapshot.load();
+        snapshot.addChannelType(volume());
+        snapshot.addLayout("meter", VOLUME);
+        snapshot.addLayout("meter", VOLUME_FLOW);
+        snapshot.addLayout("other", VOLUME);
+        snapshot.close();
+
+        ChannelTypeSnapshot restored = new ChannelTypeSnapshot(file);
+        restored.load();
+
+        assertThat(restored.getChannelTypes()).hasSize(1);
+        Definition definition = restored.getChannelTypes().iterator().next();
+        assertThat(definition.getId()).isEqualTo("volume_0C_13");
+        assertThat(definition.getLabel()).isEqualTo("Present volume");
+        assertThat(definition.getValueType()).isEqualTo(DataValueType.LONG);
+        assertThat(definition.getUnit()).isEqualTo(DlmsUnit.CUBIC_METRE);
+        assertThat(definition.getDateFieldMode()).isEqualTo(DateFieldMode.DATE_TIME);
+        assertThat(restored.getLayouts("meter")).containsExactly(VOLUME, VOLUME_FLOW);
+        assertThat(restored.getLayouts()).containsExactly(VOLUME, VOLUME_FLOW);
+        assertThat(restored.getRecordCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void testKnownEntriesNotAppended() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+
+        ChannelTypeSnapshot snapshot = new ChannelTypeSnapshot(file);
+        snapshot.addChannelType(volume());
+        snapshot.addLayout("meter", VOLUME);
+        long size = Files.size(file);
+
+        snapshot.addChannelType(volume());
+        snapshot.addLayout("meter", VOLUME);
+        snapshot.close();
+
+        assertThat(Files.size(file)).isEqualTo(size);
+        assertThat(snapshot.getRecordCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testReplacedChannelType() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+
+        ChannelTypeSnapshot snapshot = new ChannelTypeSnapshot(file);
+        snapshot.addChannelType(date(DateFieldMode.DATE_TIME));
+        snapshot.addChannelType(date(DateFieldMode.UNIX_TIMESTAMP));
+        snapshot.close();
+
+        ChannelTypeSnapshot restored = new ChannelTypeSnapshot(file);
+        restored.load();
+        assertThat(restored.getChannelTypes()).containsExactly(date(DateFieldMode.UNIX_TIMESTAMP));
+        // replaced record was dropped by compaction after load
+        assertThat(restored.getRecordCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIncompleteRecordDiscarded() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+
+        ChannelTypeSnapshot snapshot = new ChannelTypeSnapshot(file);
+        snapshot.addLayout("meter", VOLUME);
+        snapshot.addLayout("meter", ENERGY);
+        snapshot.close();
+
+        // write interrupted in the middle of last record
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+
+        ChannelTypeSnapshot restored = new ChannelTypeSnapshot(file);
+        restored.load();
+        assertThat(restored.getLayouts("meter")).containsExactly(VOLUME);
+
+        // file was rewritten, so following records are not appended after garbage
+        restored.addLayout("meter", VOLUME_FLOW);
+        restored.close();
+
+        ChannelTypeSnapshot reloaded = new ChannelTypeSnapshot(file);
+        reloaded.load();
+        assertThat(reloaded.getLayouts("meter")).containsExactly(VOLUME, VOLUME_FLOW);
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("snapshot");
+
+        // single device with single layout, each new one pushes out previous
+        ChannelTypeSnapshot snapshot = new ChannelTypeSnapshot(file, 1, 1);
+        for (int index = 0; index < 300; index++) {
+            snapshot.addLayout("meter" + index, index % 2 == 0 ? VOLUME : ENERGY);
+        }
+        snapshot.close();
+
+        assertThat(snapshot.getRecordCount()).isLessThan(300);
+
+        ChannelTypeSnapshot restored = new ChannelTypeSnapshot(file, 1, 1);
+        restored.load();
+        assertThat(restored.getLayouts("meter299")).containsExactly(ENERGY);
+        assertThat(restored.getLayouts()).containsExactly(ENERGY);
+        assertThat(restored.getRecordCount()).isEqualTo(1);
+    }
+
+    private static Definition volume() {
+        return new Definition("volume_0C_13", "Present volume", "Present value of volume registry",
+                DataValueType.LONG, DlmsUnit.CUBIC_METRE, DateFieldMode.DATE_TIME);
+    }
+
+    private static Definition date(DateFieldMode dateFieldMode) {
+        return new Definition("date_time_04_6D", "Present date time", "Present value of date time registry",
+                DataValueType.DATE, null, dateFieldMode);
+    }
+
+}
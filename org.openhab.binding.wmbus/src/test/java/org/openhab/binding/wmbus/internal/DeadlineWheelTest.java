@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Test of deadline tracking done by {@link DeadlineWheel}. Wheel is advanced manually, so scheduler is not used.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class DeadlineWheelTest {
+
+    private static final long TICK = 1_000;
+
+    private final AtomicLong time = new AtomicLong();
+    private final List<String> expired = new ArrayList<>();
+    private final DeadlineWheel<String> wheel = new DeadlineWheel<>(null, TICK, 8, expired::add, time::get);
+
+    @Test
+    public void testExpiry() {
+        wheel.schedule("meter", 2_500);
+
+        advance(2_000);
+        assertThat(expired).isEmpty();
+
+        advance(1_000);
+        assertThat(expired).containsExactly("meter");
+        assertThat(wheel.size()).isEqualTo(0);
+
+        // expired item is reported only once
+        advance(10_000);
+        assertThat(expired).containsExactly("meter");
+    }
+
+    @Test
+    public void testRearmPostponesExpiry() {
+        wheel.schedule("meter", 2_000);
+        advance(1_000);
+        wheel.schedule("meter", 2_000);
+
+        advance(1_000);
+        assertThat(expired).isEmpty();
+
+        advance(1_000);
+        assertThat(expired).containsExactly("meter");
+    }
+
+    @Test
+    public void testRearmWithEarlierDeadline() {
+        wheel.schedule("meter", 6_000);
+        wheel.schedule("meter", 1_000);
+
+        advance(1_000);
+        assertThat(expired).containsExactly("meter");
+    }
+
+    @Test
+    public void testCancel() {
+        wheel.schedule("meter", 1_000);
+        wheel.schedule("other", 1_000);
+        wheel.cancel("meter");
+
+        advance(2_000);
+        assertThat(expired).containsExactly("other");
+    }
+
+    @Test
+    public void testDeadlineBeyondRotation() {
+        // wheel has 8 slots, so deadline lies in third rotation
+        wheel.schedule("meter", 20_000);
+
+        advance(19_000);
+        assertThat(expired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advance(1_000);
+        assertThat(expired).containsExactly("meter");
+    }
+
+    @Test
+    public void testLongPause() {
+        wheel.schedule("meter", 3_000);
+        wheel.schedule("other", 30_000);
+
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(25_000));
+        wheel.advance();
+        assertThat(expired).containsExactly("meter");
+
+        advance(5_000);
+        assertThat(expired).containsExactly("meter", "other");
+    }
+
+    private void advance(long millis) {
+        // wheel is advanced once per tick, as scheduler would do
+        for (long elapsed = 0; elapsed < millis; elapsed += TICK) {
+            time.addAndGet(TimeUnit.MILLISECONDS.toNanos(TICK));
+            wheel.advance();
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openhab.binding.wmbus.WMBusDevice;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openmuc.jmbus.DecodingException;
+import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
+
+/**
+ * Test of eviction and pinning of devices kept by {@link DeviceRegistry}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class DeviceRegistryTest {
+
+    private final AtomicLong time = new AtomicLong();
+    private final DeviceRegistry registry = new DeviceRegistry(time::get);
+
+    @Test
+    public void testUnpinnedDeviceSummary() throws Exception {
+        WMBusDevice device = device(1, -60);
+
+        assertThat(registry.update(device)).isFalse();
+        advance(1000);
+        assertThat(registry.update(device(1, -50))).isTrue();
+
+        DeviceSummary summary = registry.getSummary(device.getAddress());
+        assertThat(summary.getFrameCount()).isEqualTo(2);
+        assertThat(summary.getLastSeen()).isEqualTo(1000);
+        assertThat(summary.getRssi()).isEqualTo(-50);
+        assertThat(summary.getLastFrame()).isNull();
+        assertThat(registry.getDevice(device.getAddress())).isNull();
+        assertThat(registry.getDevices()).isEmpty();
+    }
+
+    @Test
+    public void testSizeEviction() throws Exception {
+        registry.configure(2, TimeUnit.DAYS.toMillis(1));
+
+        registry.update(device(1, null));
+        registry.update(device(2, null));
+        registry.update(device(3, null));
+
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.getSummary(address(3))).isNotNull();
+        assertThat(registry.getSizeEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        registry.configure(10, 60_000);
+
+        registry.update(device(1, null));
+        advance(30_000);
+        registry.update(device(2, null));
+        advance(30_000);
+        registry.cleanUp();
+
+        assertThat(registry.getSummary(address(1))).isNull();
+        assertThat(registry.getSummary(address(2))).isNotNull();
+        assertThat(registry.getExpiredEvictionCount()).isEqualTo(1);
+        assertThat(registry.update(device(1, null))).isFalse();
+    }
+
+    @Test
+    public void testPinnedDeviceNotEvicted() throws Exception {
+        registry.configure(1, 60_000);
+        registry.update(device(1, null));
+        registry.pin(address(1));
+
+        WMBusDevice device = device(1, -70);
+        assertThat(registry.update(device)).isTrue();
+        registry.update(device(2, null));
+        registry.update(device(3, null));
+        advance(120_000);
+        registry.cleanUp();
+
+        assertThat(registry.getDevice(address(1))).isSameAs(device);
+        assertThat(registry.getDevices()).containsExactly(device);
+        assertThat(registry.getSummary(address(1)).getFrameCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUnpinReleasesFrame() throws Exception {
+        registry.pin(address(1));
+        assertThat(registry.update(device(1, null))).isFalse();
+
+        registry.unpin(address(1));
+
+        assertThat(registry.getDevice(address(1))).isNull();
+        assertThat(registry.getSummary(address(1)).getFrameCount()).isEqualTo(1);
+    }
+
+    private void advance(long millis) {
+        time.addAndGet(millis);
+    }
+
+    private static DeviceAddress address(int id) throws DecodingException {
+        return device(id, null).getAddress();
+    }
+
+    private static WMBusDevice device(int id, Integer rssi) throws DecodingException {
+        String frame = String.format("1E442D2C%08d01077A1C0010002F2F0C13785634120B3B5634122F2F2F", id);
+        return new WMBusDevice(
+                VirtualWMBusMessageHelper.decode(HexUtils.hexToBytes(frame), rssi, Collections.emptyMap()), null);
+    }
+
+}
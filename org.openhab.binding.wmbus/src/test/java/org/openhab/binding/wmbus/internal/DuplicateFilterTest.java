@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openhab.io.transport.mbus.wireless.DeviceAddress;
+import org.openhab.io.transport.mbus.wireless.FrameView;
+
+/**
+ * Test of telegram identification, time window and capacity bounds of {@link DuplicateFilter}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class DuplicateFilterTest {
+
+    private static final DeviceAddress ADDRESS = DeviceAddress.fromHex("6850084481637062");
+    private static final byte[] FRAME = HexUtils.hexToBytes("2E4468500844816370627A1C0000000000");
+    private static final byte[] NEXT_FRAME = HexUtils.hexToBytes("2E4468500844816370627A1D0000000000");
+    // same telegram sent by repeater, with hop counter and repeated access bits set in configuration word
+    private static final byte[] REPEATED_FRAME = HexUtils.hexToBytes("2E4468500844816370627A1C0003000000");
+    // configuration word announcing encrypted block
+    private static final byte[] ENCRYPTED_FRAME = HexUtils.hexToBytes("2E4468500844816370627A1C0010000000");
+
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    public void testDuplicateDropped() {
+        DuplicateFilter filter = filter(10_000, 16, false);
+
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+        assertThat(filter.accept(ADDRESS, FRAME.clone(), -50)).isFalse();
+        assertThat(filter.accept(ADDRESS, NEXT_FRAME, -60)).isTrue();
+
+        assertThat(filter.getReceivedCount()).isEqualTo(3);
+        assertThat(filter.getDuplicateCount()).isEqualTo(1);
+        assertThat(filter.getDuplicateRatio()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    public void testRepeatedCopyDropped() {
+        DuplicateFilter filter = filter(10_000, 16, false);
+
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+        assertThat(filter.accept(ADDRESS, REPEATED_FRAME, -50)).isFalse();
+        assertThat(filter.accept(ADDRESS, ENCRYPTED_FRAME, -60)).isTrue();
+        assertThat(filter.getDuplicateCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWindowExpiry() {
+        DuplicateFilter filter = filter(10_000, 16, false);
+
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+        advance(9_999);
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isFalse();
+        advance(1);
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+    }
+
+    @Test
+    public void testCapacity() {
+        DuplicateFilter filter = filter(10_000, 1, false);
+
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+        assertThat(filter.accept(ADDRESS, NEXT_FRAME, -60)).isTrue();
+        assertThat(filter.size()).isEqualTo(1);
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+    }
+
+    @Test
+    public void testBestRssiForwarded() {
+        DuplicateFilter filter = filter(10_000, 16, true);
+
+        assertThat(filter.accept(ADDRESS, FRAME, -70)).isTrue();
+        assertThat(filter.accept(ADDRESS, FRAME, -80)).isFalse();
+        assertThat(filter.accept(ADDRESS, FRAME, -50)).isTrue();
+        assertThat(filter.accept(ADDRESS, FRAME, -50)).isFalse();
+        assertThat(filter.getDuplicateCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testDisabled() {
+        DuplicateFilter filter = filter(0, 16, false);
+
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+        assertThat(filter.accept(ADDRESS, FRAME, -60)).isTrue();
+        assertThat(filter.getDuplicateRatio()).isEqualTo(0);
+    }
+
+    @Test
+    public void testAccessNumber() {
+        assertThat(DuplicateFilter.accessNumber(FrameView.of(FRAME))).isEqualTo(0x1C);
+        assertThat(DuplicateFilter.accessNumber(FrameView.of(HexUtils.hexToBytes("2E446850084481637062A0")))).isEqualTo(-1);
+    }
+
+    private DuplicateFilter filter(long window, int capacity, boolean keepBestRssi) {
+        return new DuplicateFilter(window, capacity, keepBestRssi, time::get);
+    }
+
+    private void advance(long millis) {
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+}
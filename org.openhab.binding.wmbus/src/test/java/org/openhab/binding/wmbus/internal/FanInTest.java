@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test of isolation and fairness between sources of {@link FanIn}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class FanInTest {
+
+    private final CountDownLatch taken = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+
+    private final FanIn<String, String> fanIn = new FanIn<>("test", 3, value -> {
+        taken.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        processed.add(value);
+    });
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        fanIn.stop();
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        stall();
+
+        for (int index = 0; index < 3; index++) {
+            fanIn.submit("busy", "b" + index);
+        }
+        fanIn.submit("quiet", "q0");
+
+        release.countDown();
+        awaitProcessed(5);
+        // element of quiet source is not stuck behind whole burst of busy one
+        assertThat(processed).containsExactly("b", "b0", "q0", "b1", "b2");
+    }
+
+    @Test
+    public void testOverflowOfSingleSource() throws Exception {
+        stall();
+
+        long start = System.nanoTime();
+        for (int index = 0; index < 100; index++) {
+            assertThat(fanIn.submit("busy", "b" + index)).isTrue();
+        }
+        fanIn.submit("quiet", "q0");
+        // submitting thread is never held back by stalled consumer
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(fanIn.getDroppedCount("busy")).isEqualTo(97);
+        assertThat(fanIn.getQueueDepth("busy")).isEqualTo(3);
+        assertThat(fanIn.getDroppedCount("quiet")).isZero();
+
+        release.countDown();
+        awaitProcessed(5);
+        assertThat(processed).containsExactly("b", "b97", "q0", "b98", "b99");
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        stall();
+
+        fanIn.submit("busy", "b0");
+        fanIn.submit("quiet", "q0");
+        fanIn.remove("busy");
+
+        release.countDown();
+        awaitProcessed(2);
+        assertThat(processed).containsExactly("b", "q0");
+        assertThat(fanIn.getDroppedCount("busy")).isZero();
+    }
+
+    @Test
+    public void testNotRunning() {
+        assertThat(fanIn.submit("busy", "b0")).isFalse();
+        assertThat(fanIn.getDroppedCount("busy")).isEqualTo(1);
+    }
+
+    /**
+     * Starts fan-in and stalls its worker on first element until test releases it.
+     */
+    private void stall() throws InterruptedException {
+        fanIn.start();
+        fanIn.submit("busy", "b");
+        taken.await(1, TimeUnit.SECONDS);
+    }
+
+    private void awaitProcessed(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (processed.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(processed).hasSize(count);
+    }
+
+}
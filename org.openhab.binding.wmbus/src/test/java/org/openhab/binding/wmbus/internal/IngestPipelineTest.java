@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.wmbus.config.OverflowPolicy;
+
+/**
+ * Test of queue overflow policies and ordering guarantees of {@link IngestPipeline}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class IngestPipelineTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+
+    private IngestPipeline<String> pipeline;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        pipeline = blockedPipeline(OverflowPolicy.DROP_OLDEST);
+
+        pipeline.submit("b");
+        pipeline.submit("c");
+        pipeline.submit("d");
+
+        assertThat(pipeline.getDroppedCount()).isEqualTo(1);
+        assertThat(pipeline.getQueueDepth()).isEqualTo(2);
+
+        release.countDown();
+        awaitProcessed(3);
+        assertThat(processed).containsExactly("a", "c", "d");
+    }
+
+    @Test
+    public void testDropNewest() throws Exception {
+        pipeline = blockedPipeline(OverflowPolicy.DROP_NEWEST);
+
+        pipeline.submit("b");
+        pipeline.submit("c");
+        assertThat(pipeline.submit("d")).isFalse();
+
+        assertThat(pipeline.getDroppedCount()).isEqualTo(1);
+
+        release.countDown();
+        awaitProcessed(3);
+        assertThat(processed).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void testOfferDoesNotBlock() throws Exception {
+        pipeline = blockedPipeline(OverflowPolicy.BLOCK);
+
+        pipeline.submit("b");
+        pipeline.submit("c");
+        assertThat(pipeline.offer("d")).isFalse();
+
+        assertThat(pipeline.getDroppedCount()).isEqualTo(1);
+
+        release.countDown();
+        awaitProcessed(3);
+        assertThat(processed).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void testOrderPerPartition() throws Exception {
+        pipeline = new IngestPipeline<>("test", 1000, 4, OverflowPolicy.BLOCK, value -> value.charAt(0),
+                processed::add);
+        pipeline.start();
+
+        for (int index = 0; index < 100; index++) {
+            pipeline.submit("a" + index);
+            pipeline.submit("b" + index);
+        }
+
+        awaitProcessed(200);
+        assertThat(pipeline.getDroppedCount()).isZero();
+        assertThat(processed.stream().filter(value -> value.startsWith("a")).map(value -> value.substring(1))
+                .map(Integer::parseInt)).isSorted();
+    }
+
+    @Test
+    public void testNotRunning() {
+        pipeline = new IngestPipeline<>("test", 10, 1, OverflowPolicy.DROP_OLDEST, Function.identity(),
+                processed::add);
+
+        assertThat(pipeline.submit("a")).isFalse();
+        assertThat(pipeline.getDroppedCount()).isEqualTo(1);
+    }
+
+    /**
+     * Creates pipeline with capacity of two elements which is stalled on first element until test releases it.
+     */
+    private IngestPipeline<String> blockedPipeline(OverflowPolicy policy) throws InterruptedException {
+        CountDownLatch taken = new CountDownLatch(1);
+        Consumer<String> sink = value -> {
+            taken.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.add(value);
+        };
+
+        IngestPipeline<String> pipeline = new IngestPipeline<>("test", 2, 1, policy, Function.identity(), sink);
+        pipeline.start();
+        pipeline.submit("a");
+        taken.await(1, TimeUnit.SECONDS);
+        return pipeline;
+    }
+
+    private void awaitProcessed(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (processed.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(processed).hasSize(count);
+    }
+
+}
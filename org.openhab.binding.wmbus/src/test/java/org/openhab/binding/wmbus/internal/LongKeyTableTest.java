@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Test of lookups, collisions and capacity of {@link LongKeyTable}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class LongKeyTableTest {
+
+    @Test
+    public void testLookup() {
+        LongKeyTable<String> table = new LongKeyTable<>(3);
+
+        assertThat(table.putIfAbsent(0x0C13, "volume")).isTrue();
+        assertThat(table.putIfAbsent(0x0B3B, "flow")).isTrue();
+        assertThat(table.putIfAbsent(-1, "negative")).isTrue();
+
+        assertThat(table.get(0x0C13)).isEqualTo("volume");
+        assertThat(table.get(0x0B3B)).isEqualTo("flow");
+        assertThat(table.get(-1)).isEqualTo("negative");
+        assertThat(table.get(0x0B2B)).isNull();
+        assertThat(table.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFirstValueKept() {
+        LongKeyTable<String> table = new LongKeyTable<>(2);
+
+        assertThat(table.putIfAbsent(42, "first")).isTrue();
+        assertThat(table.putIfAbsent(42, "second")).isFalse();
+
+        assertThat(table.get(42)).isEqualTo("first");
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAllEntriesFoundWhenSlotsCollide() {
+        int count = 1000;
+        LongKeyTable<Long> table = new LongKeyTable<>(count);
+        for (long key = 0; key < count; key++) {
+            // keys differing only in upper half
+            table.putIfAbsent(key << 32, key);
+        }
+
+        for (long key = 0; key < count; key++) {
+            assertThat(table.get(key << 32)).isEqualTo(key);
+        }
+        assertThat(table.get((long) count << 32)).isNull();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCapacityExceeded() {
+        LongKeyTable<String> table = new LongKeyTable<>(1);
+
+        table.putIfAbsent(1, "one");
+        table.putIfAbsent(2, "two");
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wmbus.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Test of rate limiting and "latest wins" coalescing done by {@link Throttle}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ThrottleTest {
+
+    private final AtomicLong time = new AtomicLong();
+    private final List<String> passed = new ArrayList<>();
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> future;
+
+    @Test
+    public void testUnlimitedSource() {
+        Throttle<String, String> throttle = new Throttle<>(scheduler, passed::add, time::get);
+
+        throttle.submit("meter", "a");
+        throttle.submit("meter", "b");
+
+        assertThat(passed).containsExactly("a", "b");
+        Mockito.verifyZeroInteractions(scheduler);
+    }
+
+    @Test
+    public void testLatestWins() {
+        scheduleReturnsFuture();
+        Throttle<String, String> throttle = new Throttle<>(scheduler, passed::add, time::get);
+        throttle.setInterval("meter", 60_000);
+
+        throttle.submit("meter", "a");
+        advance(8_000);
+        throttle.submit("meter", "b");
+        advance(8_000);
+        throttle.submit("meter", "c");
+        throttle.submit("other", "x");
+
+        assertThat(passed).containsExactly("a", "x");
+        assertThat(throttle.getDroppedCount("meter")).isEqualTo(1);
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(scheduler).schedule(flush.capture(), ArgumentMatchers.eq(TimeUnit.MILLISECONDS.toNanos(52_000)),
+                ArgumentMatchers.eq(TimeUnit.NANOSECONDS));
+
+        advance(44_000);
+        flush.getValue().run();
+        assertThat(passed).containsExactly("a", "x", "c");
+
+        // window starts again when held back frame was passed
+        advance(30_000);
+        throttle.submit("meter", "d");
+        assertThat(passed).containsExactly("a", "x", "c");
+        advance(30_000);
+        throttle.submit("meter", "e");
+        assertThat(passed).containsExactly("a", "x", "c");
+        assertThat(throttle.getDroppedCount("meter")).isEqualTo(2);
+    }
+
+    @Test
+    public void testQuietPeriod() {
+        Throttle<String, String> throttle = new Throttle<>(scheduler, passed::add, time::get);
+        throttle.setInterval("meter", 60_000);
+
+        throttle.submit("meter", "a");
+        advance(60_000);
+        throttle.submit("meter", "b");
+
+        assertThat(passed).containsExactly("a", "b");
+        Mockito.verifyZeroInteractions(scheduler);
+    }
+
+    @Test
+    public void testDisableFlushesPending() {
+        scheduleReturnsFuture();
+        Throttle<String, String> throttle = new Throttle<>(scheduler, passed::add, time::get);
+        throttle.setInterval("meter", 60_000);
+
+        throttle.submit("meter", "a");
+        throttle.submit("meter", "b");
+        throttle.setInterval("meter", 0);
+        throttle.submit("meter", "c");
+
+        assertThat(passed).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void testDeferredSink() {
+        scheduleReturnsFuture();
+        List<String> deferred = new ArrayList<>();
+        Throttle<String, String> throttle = new Throttle<>(scheduler, passed::add, deferred::add, time::get);
+        throttle.setInterval("meter", 60_000);
+
+        throttle.submit("meter", "a");
+        throttle.submit("meter", "b");
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(scheduler).schedule(flush.capture(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.eq(TimeUnit.NANOSECONDS));
+        advance(60_000);
+        flush.getValue().run();
+
+        // held back frame is passed by scheduler thread, through its own sink
+        assertThat(passed).containsExactly("a");
+        assertThat(deferred).containsExactly("b");
+    }
+
+    private void scheduleReturnsFuture() {
+        Mockito.doReturn(future).when(scheduler).schedule(ArgumentMatchers.any(Runnable.class),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(TimeUnit.class));
+    }
+
+    private void advance(long millis) {
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+}
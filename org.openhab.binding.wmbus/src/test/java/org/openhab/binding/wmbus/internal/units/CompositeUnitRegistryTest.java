@@ -8,6 +8,14 @@
  */
 package org.openhab.binding.wmbus.internal.units;
 
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.library.unit.SmartHomeUnits;
+import org.junit.Test;
+import org.openhab.binding.wmbus.internal.units.ExtendedCompositeUnitRegistryTest.CountUnitRegistry;
+import org.openmuc.jmbus.DlmsUnit;
+
 /**
  * Test of {@link CompositeUnitRegistry} with {@link SmartHomeUnitsRegistry}.
  *
@@ -21,4 +29,17 @@ public class CompositeUnitRegistryTest extends BaseUnitRegistryTest {
         super(new CompositeUnitRegistry(new SmartHomeUnitsRegistry()));
     }
 
+    @Test
+    public void testRegistryChangeUpdatesMapping() {
+        CompositeUnitRegistry composite = new CompositeUnitRegistry(Collections.emptyList());
+        CountUnitRegistry count = new CountUnitRegistry();
+        Assertions.assertThat(composite.lookup(DlmsUnit.COUNT)).isEmpty();
+
+        composite.setUnitRegistry(count);
+        Assertions.assertThat(composite.lookup(DlmsUnit.COUNT)).contains(SmartHomeUnits.ONE);
+
+        composite.unsetUnitRegistry(count);
+        Assertions.assertThat(composite.lookup(DlmsUnit.COUNT)).isEmpty();
+    }
+
 }
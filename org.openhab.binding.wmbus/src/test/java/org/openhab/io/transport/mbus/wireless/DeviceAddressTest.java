@@ -0,0 +1,52 @@
+package org.openhab.io.transport.mbus.wireless;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openmuc.jmbus.SecondaryAddress;
+
+/**
+ * Test of conversions between different forms of device address.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class DeviceAddressTest {
+
+    private static final String ADDRESS_HEX = "2423870723421147";
+    private static final byte[] ADDRESS_BYTE = HexUtils.hexToBytes(ADDRESS_HEX);
+    private static final SecondaryAddress ADDRESS_OBJECT = SecondaryAddress.newFromWMBusLlHeader(ADDRESS_BYTE, 0);
+
+    @Test
+    public void testHexForm() {
+        DeviceAddress address = DeviceAddress.fromHex(ADDRESS_HEX);
+
+        Assertions.assertThat(address.toHexString()).isEqualTo(ADDRESS_HEX)
+                .isEqualTo(HexUtils.bytesToHex(ADDRESS_BYTE));
+        Assertions.assertThat(DeviceAddress.fromHex(ADDRESS_HEX.toLowerCase())).isEqualTo(address);
+        Assertions.assertThat(DeviceAddress.fromHex("FFEEDDCCBBAA9988").toHexString()).isEqualTo("FFEEDDCCBBAA9988");
+    }
+
+    @Test
+    public void testBinaryForm() {
+        DeviceAddress address = DeviceAddress.of(ADDRESS_BYTE);
+
+        Assertions.assertThat(address).isEqualTo(DeviceAddress.fromHex(ADDRESS_HEX))
+                .isEqualTo(DeviceAddress.of(ADDRESS_OBJECT));
+        Assertions.assertThat(address.hashCode()).isEqualTo(DeviceAddress.fromHex(ADDRESS_HEX).hashCode());
+        Assertions.assertThat(address.toByteArray()).isEqualTo(ADDRESS_BYTE);
+        Assertions.assertThat(address.toSecondaryAddress()).isEqualTo(ADDRESS_OBJECT);
+    }
+
+    @Test
+    public void testFrameHeader() {
+        byte[] header = HexUtils.hexToBytes("2E44" + ADDRESS_HEX + "7A");
+
+        Assertions.assertThat(DeviceAddress.of(header, 2)).isEqualTo(DeviceAddress.fromHex(ADDRESS_HEX));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHex() {
+        DeviceAddress.fromHex("68TCH100");
+    }
+
+}
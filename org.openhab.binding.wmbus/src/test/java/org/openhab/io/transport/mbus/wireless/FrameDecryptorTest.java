@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.mbus.wireless;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+import org.openmuc.jmbus.VariableDataStructure;
+import org.openmuc.jmbus.wireless.VirtualWMBusMessageHelper;
+
+/**
+ * Test of decryption done on raw frames, result must match decryption done by jmbus.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class FrameDecryptorTest {
+
+    // volume and volume flow, one AES block
+    private static final byte[] PLAIN = HexUtils
+            .hexToBytes("1E442D2C7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F");
+    // same frame encrypted in mode 5 with key below
+    private static final byte[] ENCRYPTED = HexUtils
+            .hexToBytes("1E442D2C7856341201077A1C0010055A1AC5570E90FE98FCEC821D7F557094");
+    private static final byte[] KEY = HexUtils.hexToBytes("000102030405060708090A0B0C0D0E0F");
+
+    @Test
+    public void testEncryptedFrame() {
+        assertThat(FrameDecryptor.isEncrypted(ENCRYPTED)).isTrue();
+        assertThat(FrameDecryptor.isEncrypted(PLAIN)).isFalse();
+    }
+
+    @Test
+    public void testOtherSecurityMode() {
+        // mode 21 shares lowest 4 bits with mode 5
+        byte[] frame = ENCRYPTED.clone();
+        frame[14] = 0x15;
+
+        assertThat(FrameDecryptor.isEncrypted(frame)).isFalse();
+        assertThat(FrameDecryptor.decrypt(frame, new KeyMaterial(KEY))).isNull();
+    }
+
+    @Test
+    public void testSecurityModeCleared() {
+        // bits above security mode are kept
+        byte[] frame = ENCRYPTED.clone();
+        frame[14] = 0x25;
+
+        byte[] plain = FrameDecryptor.decrypt(frame, new KeyMaterial(KEY));
+        assertThat(plain[14]).isEqualTo((byte) 0x20);
+    }
+
+    @Test
+    public void testDecrypt() throws Exception {
+        byte[] plain = FrameDecryptor.decrypt(ENCRYPTED, new KeyMaterial(KEY));
+
+        assertThat(plain).isEqualTo(PLAIN);
+        assertThat(ENCRYPTED[14]).isEqualTo((byte) 0x05);
+    }
+
+    @Test
+    public void testSameRecordsAsJmbus() throws Exception {
+        VariableDataStructure jmbus = VirtualWMBusMessageHelper.decode(ENCRYPTED, -50,
+                Collections.singletonMap(DeviceAddress.of(ENCRYPTED, 2).toSecondaryAddress(), KEY))
+                .getVariableDataResponse();
+        jmbus.decode();
+
+        VariableDataStructure decrypted = VirtualWMBusMessageHelper
+                .decode(FrameDecryptor.decrypt(ENCRYPTED, new KeyMaterial(KEY)), -50, Collections.emptyMap())
+                .getVariableDataResponse();
+        decrypted.decode();
+
+        assertThat(decrypted.getDataRecords()).hasSize(2);
+        assertThat(decrypted.getDataRecords().toString()).isEqualTo(jmbus.getDataRecords().toString());
+    }
+
+    @Test
+    public void testWrongKey() {
+        byte[] key = KEY.clone();
+        key[15] = 0;
+
+        assertThat(FrameDecryptor.decrypt(ENCRYPTED, new KeyMaterial(key))).isNull();
+    }
+
+    @Test
+    public void testKeyMaterialReused() {
+        KeyMaterial key = new KeyMaterial(KEY);
+
+        assertThat(FrameDecryptor.decrypt(ENCRYPTED, key)).isEqualTo(PLAIN);
+        assertThat(FrameDecryptor.decrypt(ENCRYPTED, key)).isEqualTo(PLAIN);
+        assertThat(FrameDecryptor.decrypt(PLAIN, key)).isNull();
+    }
+
+}
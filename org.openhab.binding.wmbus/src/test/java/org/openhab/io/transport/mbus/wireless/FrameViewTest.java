@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.mbus.wireless;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+
+/**
+ * Test of read only frame view.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class FrameViewTest {
+
+    private static final String FRAME_HEX = "1E442D2C7856341201077A1C0010002F2F0C13785634120B3B5634122F2F2F";
+    private static final byte[] FRAME = HexUtils.hexToBytes(FRAME_HEX);
+
+    @Test
+    public void testReads() {
+        FrameView frame = FrameView.of(FRAME);
+
+        Assertions.assertThat(frame.length()).isEqualTo(FRAME.length);
+        Assertions.assertThat(frame.get(0)).isEqualTo((byte) 0x1E);
+        Assertions.assertThat(frame.getUnsigned(10)).isEqualTo(0x7A);
+        Assertions.assertThat(frame.getUnsignedShort(2)).isEqualTo(0x2C2D);
+        Assertions.assertThat(frame.toHexString()).isEqualTo(FRAME_HEX).isEqualTo(frame.toString());
+    }
+
+    @Test
+    public void testSlice() {
+        FrameView address = FrameView.of(FRAME).slice(2, 8);
+
+        Assertions.assertThat(address.length()).isEqualTo(8);
+        Assertions.assertThat(address.toHexString()).isEqualTo("2D2C785634120107");
+        Assertions.assertThat(address.slice(2, 4).toByteArray()).isEqualTo(HexUtils.hexToBytes("78563412"));
+        Assertions.assertThat(address).isEqualTo(FrameView.of(FRAME, 2, 8));
+        Assertions.assertThat(address.hashCode()).isEqualTo(FrameView.of(FRAME, 2, 8).hashCode());
+        Assertions.assertThatThrownBy(() -> address.slice(4, 5)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testNoCopy() {
+        byte[] array = FRAME.clone();
+        FrameView frame = FrameView.of(array);
+        byte[] copy = frame.toByteArray();
+
+        array[0] = 0x00;
+        Assertions.assertThat(frame.get(0)).isEqualTo((byte) 0x00);
+        Assertions.assertThat(copy[0]).isEqualTo((byte) 0x1E);
+    }
+
+    @Test
+    public void testByteBufferIsReadOnly() {
+        FrameView frame = FrameView.of(FRAME);
+        ByteBuffer buffer = frame.asByteBuffer();
+
+        Assertions.assertThat(buffer.position()).isEqualTo(0);
+        Assertions.assertThat(buffer.getShort(2)).isEqualTo((short) 0x2C2D);
+        buffer.position(10);
+        // every buffer has its own position
+        Assertions.assertThat(frame.asByteBuffer().position()).isEqualTo(0);
+        Assertions.assertThatThrownBy(() -> buffer.put((byte) 0x00)).isInstanceOf(ReadOnlyBufferException.class);
+    }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openmuc.jmbus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+
+/**
+ * Differential test of table driven VIF decoding and lazy decoding of values against nested decoding methods and eager
+ * decoding of {@link DataRecord}.
+ *
+ * @author Łukasz Dywicki - Initial contribution.
+ */
+public class DataRecordDecodingTest {
+
+    // first byte serves as length of variable length data
+    private static final byte[] DATA = HexUtils.hexToBytes("0231321304258607091A2B3C4D5E6F70");
+
+    @Test
+    public void testMainVifs() {
+        for (int dif = 0; dif < 0x10; dif++) {
+            for (int vif = 0; vif < 0x100; vif++) {
+                if (vif == 0xFB || vif == 0xFD) {
+                    continue;
+                }
+                compare(dif, vif);
+            }
+        }
+    }
+
+    @Test
+    public void testMainExtendedVifs() {
+        for (int dif = 0; dif < 0x10; dif++) {
+            for (int vife = 0; vife < 0x100; vife++) {
+                compare(dif, 0xFD, vife);
+            }
+        }
+    }
+
+    @Test
+    public void testAlternateExtendedVifs() {
+        for (int dif = 0; dif < 0x10; dif++) {
+            for (int vife = 0; vife < 0x100; vife++) {
+                compare(dif, 0xFB, vife);
+            }
+        }
+    }
+
+    @Test
+    public void testStorageAndVifeChain() {
+        // dife with storage, tariff and subunit followed by vif with two further vifes
+        compare(0x8C, 0xC4, 0x93, 0x8E, 0x3C);
+        // date type G and F
+        compare(0x42, 0x6C);
+        compare(0x04, 0x6D);
+        // user defined vif
+        compare(0x04, 0x7C, 0x03, 0x41, 0x42, 0x43);
+    }
+
+    @Test
+    public void testNegativeValues() {
+        for (int dif = 0; dif < 0x10; dif++) {
+            compare(HexUtils.hexToBytes("0291A2B3C4D5E6F7F8F9"), dif, 0x13);
+            compare(HexUtils.hexToBytes("02F1F2F3F4F5F6F7F8F9"), dif, 0x13);
+        }
+    }
+
+    @Test
+    public void testPrimitiveAccessors() throws Exception {
+        DataRecord volume = new DataRecord();
+        volume.decode(HexUtils.hexToBytes("0C1378563412"), 0, 6, false, true);
+        assertThat(volume.getLong()).isEqualTo(12345678L);
+        assertThat(volume.getScaledDouble()).isEqualTo(12345.678);
+
+        DataRecord negative = new DataRecord();
+        negative.decode(HexUtils.hexToBytes("0B135634F2"), 0, 5, false, true);
+        assertThat(negative.getLong()).isEqualTo(-23456L);
+
+        DataRecord date = new DataRecord();
+        date.decode(HexUtils.hexToBytes("426CBF2C"), 0, 4, false, true);
+        assertThat(date.getScaledDouble()).isNaN();
+        assertThat(date.getScaledDataValue()).isNull();
+    }
+
+    private static void compare(int... header) {
+        compare(DATA, header);
+    }
+
+    private static void compare(byte[] data, int... header) {
+        byte[] buffer = new byte[header.length + data.length];
+        for (int index = 0; index < header.length; index++) {
+            buffer[index] = (byte) header[index];
+        }
+        System.arraycopy(data, 0, buffer, header.length, data.length);
+        String frame = HexUtils.bytesToHex(buffer);
+
+        Result legacy = decode(buffer, true, false);
+        compare(frame, legacy, decode(buffer, false, false));
+        compare(frame, legacy, decode(buffer, false, true));
+        // values decoded out of the end of frame
+        compare(frame, decode(buffer, true, false, header.length + 2), decode(buffer, false, true, header.length + 2));
+    }
+
+    private static void compare(String frame, Result expected, Result actual) {
+        assertThat(actual.error).as(frame).isEqualTo(expected.error);
+        if (expected.error != null) {
+            return;
+        }
+        assertThat(actual.length).as(frame).isEqualTo(expected.length);
+        assertThat(actual.record.getDib()).as(frame).isEqualTo(expected.record.getDib());
+        assertThat(actual.record.getVib()).as(frame).isEqualTo(expected.record.getVib());
+        assertThat(actual.record.getDescription()).as(frame).isEqualTo(expected.record.getDescription());
+        assertThat(actual.record.getUserDefinedDescription()).as(frame)
+                .isEqualTo(expected.record.getUserDefinedDescription());
+        assertThat(actual.record.getUnit()).as(frame).isEqualTo(expected.record.getUnit());
+        assertThat(actual.record.getMultiplierExponent()).as(frame)
+                .isEqualTo(expected.record.getMultiplierExponent());
+        assertThat(actual.record.getDataValueType()).as(frame).isEqualTo(expected.record.getDataValueType());
+        if (expected.record.getDataValue() instanceof Number) {
+            // read before value is materialized
+            assertThat(actual.record.getLong()).as(frame)
+                    .isEqualTo(((Number) expected.record.getDataValue()).longValue());
+            assertThat(actual.record.getScaledDouble()).as(frame).isEqualTo(expected.record.getScaledDataValue());
+        }
+        assertThat(actual.record.getScaledDataValue()).as(frame).isEqualTo(expected.record.getScaledDataValue());
+        assertThat(actual.record.getRawData()).as(frame).isEqualTo(expected.record.getRawData());
+        assertThat(actual.record.toString()).as(frame).isEqualTo(expected.record.toString());
+    }
+
+    private static Result decode(byte[] buffer, boolean legacy, boolean lazy) {
+        return decode(buffer, legacy, lazy, buffer.length);
+    }
+
+    private static Result decode(byte[] buffer, boolean legacy, boolean lazy, int length) {
+        Result result = new Result();
+        result.record = new DataRecord();
+        try {
+            result.length = result.record.decode(Arrays.copyOf(buffer, length), 0, length, legacy, lazy);
+        } catch (Exception e) {
+            result.error = e.getClass();
+        }
+        return result;
+    }
+
+    static class Result {
+        DataRecord record;
+        int length;
+        Class<?> error;
+    }
+
+}